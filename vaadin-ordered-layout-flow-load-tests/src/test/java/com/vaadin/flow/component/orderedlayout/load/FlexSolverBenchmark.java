@@ -0,0 +1,115 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.FlexSolver;
+
+/**
+ * Microbenchmarks of {@link FlexSolver}: solving a single line with growing
+ * and shrinking children, solving a wrapping layout and configuring the solver
+ * from a layout. Run with {@link #main(String[])} after compiling the tests,
+ * and add {@code -prof gc} to the JMH arguments to verify that solving does
+ * not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlexSolverBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int children;
+
+    private FlexSolver singleLine;
+    private FlexSolver wrapping;
+    private FlexLayout layout;
+
+    @Setup
+    public void setup() {
+        singleLine = new FlexSolver();
+        singleLine.setChildCount(children);
+        wrapping = new FlexSolver();
+        wrapping.setWrapMode(WrapMode.WRAP);
+        wrapping.setChildCount(children);
+        layout = new FlexLayout();
+        for (int i = 0; i < children; i++) {
+            singleLine.setChildSize(i, 40 + i % 7, Double.NaN);
+            singleLine.setFlexGrow(i, i % 3);
+            singleLine.setAlignSelf(i, Alignment.values()[i % 4]);
+            wrapping.setChildSize(i, 100 + i % 50, 20 + i % 10);
+
+            Div child = new Div();
+            child.setWidth((40 + i % 7) + "px");
+            layout.add(child);
+            layout.setFlexGrow(i % 3, child);
+        }
+    }
+
+    @Benchmark
+    public double solveGrowing() {
+        singleLine.solve(children * 60, 400);
+        return singleLine.getX(children - 1);
+    }
+
+    @Benchmark
+    public double solveShrinking() {
+        singleLine.solve(children * 30, 400);
+        return singleLine.getX(children - 1);
+    }
+
+    @Benchmark
+    public double solveWrapping() {
+        wrapping.solve(1200, 10_000);
+        return wrapping.getY(children - 1);
+    }
+
+    @Benchmark
+    public void configureAndSolve(Blackhole blackhole) {
+        FlexSolver solver = FlexSolver.forLayout(layout);
+        solver.solve(children * 60, 400);
+        blackhole.consume(solver.getX(children - 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FlexSolverBenchmark.class.getSimpleName()).build())
+                        .run();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.LayoutState;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Compares the size and the time of default Java serialization of a layout
+ * with the compact {@link LayoutState} form, for layouts of different sizes.
+ * The children are plain {@code Div}s, which the view is expected to rebuild
+ * when restoring the layout from its compact form.
+ * The results are logged and written as JSON next to the file given by the
+ * {@code load.report} system property.
+ */
+public class LayoutSerializationBenchmarkTest {
+
+    private static final int[] CHILD_COUNTS = { 10, 100, 1000 };
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final int ROUNDS = 500;
+
+    private interface Serializer {
+        byte[] serialize(VerticalLayout layout) throws IOException;
+    }
+
+    @Test
+    public void compareWithDefaultSerialization() throws IOException {
+        JsonArray results = Json.createArray();
+        for (int children : CHILD_COUNTS) {
+            VerticalLayout layout = createLayout(children);
+
+            JsonObject result = Json.createObject();
+            result.put("children", children);
+            long defaultSize = measure(layout,
+                    LayoutSerializationBenchmarkTest::serializeDefault,
+                    "default", result);
+            long compactSize = measure(layout,
+                    LayoutSerializationBenchmarkTest::serializeCompact,
+                    "compact", result);
+            results.set(results.length(), result);
+
+            LoggerFactory.getLogger(LayoutSerializationBenchmarkTest.class)
+                    .info(result.toJson());
+            Assert.assertTrue(compactSize < defaultSize);
+        }
+
+        Path file = Paths
+                .get(System.getProperty("load.report",
+                        "target/load-report.json"))
+                .resolveSibling("serialization-report.json");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file,
+                results.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long measure(VerticalLayout layout, Serializer serializer,
+            String name, JsonObject result) throws IOException {
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            serializer.serialize(layout);
+        }
+        long size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            size = serializer.serialize(layout).length;
+        }
+        result.put(name + "Bytes", size);
+        result.put(name + "Nanos", (System.nanoTime() - start) / ROUNDS);
+        return size;
+    }
+
+    private static VerticalLayout createLayout(int children) {
+        VerticalLayout layout = new VerticalLayout();
+        layout.setMargin(true);
+        layout.setAlignItems(Alignment.CENTER);
+        for (int i = 0; i < children; i++) {
+            Div child = new Div();
+            layout.add(child);
+            if (i % 3 == 0) {
+                layout.expand(child);
+            }
+            if (i % 5 == 0) {
+                layout.setAlignSelf(Alignment.END, child);
+            }
+        }
+        return layout;
+    }
+
+    private static byte[] serializeDefault(VerticalLayout layout)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(layout);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] serializeCompact(VerticalLayout layout)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            LayoutState.capture(layout).writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.html.NativeButton;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+/**
+ * The layout trees built by the simulated sessions of
+ * {@link SessionLoadHarness}. Each scenario builds a tree scaled to a given
+ * amount of leaf components, and modifies it the way a typical server round
+ * trip of such a view would.
+ *
+ * @author Vaadin Ltd.
+ */
+public enum LayoutTreeScenario {
+
+    /**
+     * A single vertical layout with a flat list of children.
+     */
+    VERTICAL_LIST {
+        @Override
+        Component build(int children) {
+            VerticalLayout layout = new VerticalLayout();
+            for (int i = 0; i < children; i++) {
+                layout.add(new Div(new Label("Item " + i)));
+            }
+            return layout;
+        }
+
+        @Override
+        void update(Component root, int request) {
+            VerticalLayout layout = (VerticalLayout) root;
+            Component child = layout.getComponentAt(
+                    request % layout.getComponentCount());
+            layout.setFlexGrow(request % 2, child);
+            layout.setSpacing(request % 2 == 0);
+        }
+    },
+
+    /**
+     * Form-like rows: a vertical layout of horizontal layouts, each holding a
+     * caption, a field and a button, similar to the ordered layout demos.
+     */
+    FORM_ROWS {
+        @Override
+        Component build(int children) {
+            VerticalLayout layout = new VerticalLayout();
+            for (int i = 0; i < children / 3; i++) {
+                Div field = new Div();
+                HorizontalLayout row = new HorizontalLayout(
+                        new Label("Caption " + i), field,
+                        new NativeButton("Edit"));
+                row.setWidth("100%");
+                row.expand(field);
+                row.setDefaultVerticalComponentAlignment(Alignment.BASELINE);
+                layout.add(row);
+            }
+            return layout;
+        }
+
+        @Override
+        void update(Component root, int request) {
+            VerticalLayout layout = (VerticalLayout) root;
+            HorizontalLayout row = (HorizontalLayout) layout.getComponentAt(
+                    request % layout.getComponentCount());
+            row.setJustifyContentMode(request % 2 == 0
+                    ? JustifyContentMode.BETWEEN
+                    : JustifyContentMode.START);
+            row.replace(row.getComponentAt(0),
+                    new Label("Caption " + request));
+        }
+    },
+
+    /**
+     * Nested vertical and horizontal layouts, a few levels deep, with the
+     * leaves spread evenly.
+     */
+    NESTED {
+        private static final int FAN_OUT = 10;
+
+        @Override
+        Component build(int children) {
+            return build(children, 0);
+        }
+
+        private Component build(int children, int depth) {
+            if (children <= FAN_OUT) {
+                HorizontalLayout leaves = new HorizontalLayout();
+                for (int i = 0; i < children; i++) {
+                    leaves.add(new Div());
+                }
+                return leaves;
+            }
+            VerticalLayout layout = new VerticalLayout();
+            layout.setPadding(depth % 2 == 0);
+            int remaining = children;
+            for (int i = 0; i < FAN_OUT && remaining > 0; i++) {
+                int share = Math.max(1, children / FAN_OUT);
+                layout.add(build(Math.min(share, remaining), depth + 1));
+                remaining -= share;
+            }
+            return layout;
+        }
+
+        @Override
+        void update(Component root, int request) {
+            VerticalLayout layout = (VerticalLayout) root;
+            layout.setAlignItems(request % 2 == 0 ? Alignment.CENTER
+                    : Alignment.STRETCH);
+            Component child = layout.getComponentAt(
+                    request % layout.getComponentCount());
+            layout.setHorizontalComponentAlignment(Alignment.END, child);
+        }
+    },
+
+    /**
+     * A wrapping flex layout, e.g. a card gallery.
+     */
+    FLEX_WRAP {
+        @Override
+        Component build(int children) {
+            FlexLayout layout = new FlexLayout();
+            layout.setWrapMode(WrapMode.WRAP);
+            for (int i = 0; i < children; i++) {
+                Div card = new Div(new Label("Card " + i));
+                card.setWidth("200px");
+                layout.add(card);
+            }
+            return layout;
+        }
+
+        @Override
+        void update(Component root, int request) {
+            FlexLayout layout = (FlexLayout) root;
+            int index = request % layout.getComponentCount();
+            Component card = layout.getComponentAt(index);
+            layout.remove(card);
+            layout.addComponentAtIndex(0, card);
+            card.getElement().getStyle().set("flexBasis",
+                    request % 2 == 0 ? "200px" : null);
+        }
+    };
+
+    /**
+     * Builds the layout tree of a session.
+     *
+     * @param children
+     *            the approximate amount of leaf components in the tree
+     * @return the root of the tree
+     */
+    abstract Component build(int children);
+
+    /**
+     * Modifies the tree the way a single request of the view would.
+     *
+     * @param root
+     *            the root returned by {@link #build(int)}
+     * @param request
+     *            the sequence number of the request in the session
+     */
+    abstract void update(Component root, int request);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * The results of a {@link SessionLoadHarness} run. Sizes are in bytes and
+ * durations in nanoseconds unless the name says otherwise; values which the
+ * JVM is unable to measure are {@code -1}.
+ *
+ * @author Vaadin Ltd.
+ */
+class LoadReport {
+
+    static class GcStats {
+        long collections;
+        long timeMillis;
+    }
+
+    LayoutTreeScenario scenario;
+    int sessions;
+    int childrenPerSession;
+    int requestsPerSession;
+    int threads;
+
+    int componentsPerSession;
+    long estimatedMemoryPerSession;
+    long retainedHeapPerSession;
+    long allocatedPerSession = -1;
+
+    long allocatedPerRequest = -1;
+    long meanRequestNanos;
+    long maxRequestNanos;
+    double changesPerRequest;
+
+    final Map<String, GcStats> gc = new LinkedHashMap<>();
+
+    /**
+     * Gets how many sessions fit into a gigabyte of heap, based on the
+     * retained heap per session.
+     *
+     * @return the amount of sessions per gigabyte, or {@code -1} if the
+     *         retained heap could not be measured
+     */
+    long getSessionsPerGigabyte() {
+        if (retainedHeapPerSession <= 0) {
+            return -1;
+        }
+        return (1L << 30) / retainedHeapPerSession;
+    }
+
+    JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("scenario", scenario.name());
+        json.put("sessions", sessions);
+        json.put("childrenPerSession", childrenPerSession);
+        json.put("requestsPerSession", requestsPerSession);
+        json.put("threads", threads);
+
+        json.put("componentsPerSession", componentsPerSession);
+        json.put("estimatedMemoryPerSession", estimatedMemoryPerSession);
+        json.put("retainedHeapPerSession", retainedHeapPerSession);
+        json.put("sessionsPerGigabyte", getSessionsPerGigabyte());
+        json.put("allocatedPerSession", allocatedPerSession);
+
+        json.put("allocatedPerRequest", allocatedPerRequest);
+        json.put("meanRequestNanos", meanRequestNanos);
+        json.put("maxRequestNanos", maxRequestNanos);
+        json.put("changesPerRequest", changesPerRequest);
+
+        JsonObject collectors = Json.createObject();
+        gc.forEach((name, stats) -> {
+            JsonObject collector = Json.createObject();
+            collector.put("collections", stats.collections);
+            collector.put("timeMillis", stats.timeMillis);
+            collectors.put(name, collector);
+        });
+        json.put("gc", collectors);
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s: %d sessions, %d components per session, %d bytes retained per session (%d sessions/GB), %d bytes allocated per request, %d ns mean request",
+                scenario, sessions, componentsPerSession,
+                retainedHeapPerSession, getSessionsPerGigabyte(),
+                allocatedPerRequest, meanRequestNanos);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.vaadin.flow.component.orderedlayout.LayoutProfile;
+import com.vaadin.flow.component.orderedlayout.LayoutProfiler;
+
+/**
+ * Simulates concurrent sessions showing layout heavy views in the current JVM
+ * and measures the heap retained per session, the memory allocated per request
+ * and the garbage collection activity caused by the requests.
+ * <p>
+ * The retained heap is measured as the difference of the used heap before and
+ * after creating the sessions, after forcing garbage collection. The result is
+ * only meaningful when nothing else runs in the JVM, and the more sessions are
+ * simulated the more accurate it is. Allocations are measured per thread, which
+ * is supported by HotSpot based JVMs.
+ *
+ * @author Vaadin Ltd.
+ */
+class SessionLoadHarness {
+
+    private static final int MAX_GC_ROUNDS = 10;
+
+    private final LayoutTreeScenario scenario;
+    private final int sessionCount;
+    private final int children;
+    private final int requests;
+    private final int threads;
+
+    /**
+     * Creates a harness.
+     *
+     * @param scenario
+     *            the layout tree of each session
+     * @param sessionCount
+     *            the amount of simulated sessions
+     * @param children
+     *            the approximate amount of leaf components per session
+     * @param requests
+     *            the amount of requests per session
+     * @param threads
+     *            the amount of threads handling the sessions concurrently
+     */
+    SessionLoadHarness(LayoutTreeScenario scenario, int sessionCount,
+            int children, int requests, int threads) {
+        if (sessionCount < 1 || children < 1 || requests < 0 || threads < 1) {
+            throw new IllegalArgumentException(
+                    "Sessions, children and threads must be positive and requests non-negative");
+        }
+        this.scenario = scenario;
+        this.sessionCount = sessionCount;
+        this.children = children;
+        this.requests = requests;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @return the results
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting for the sessions
+     */
+    LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        report.scenario = scenario;
+        report.sessions = sessionCount;
+        report.childrenPerSession = children;
+        report.requestsPerSession = requests;
+        report.threads = threads;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long heapBefore = settleHeap();
+            LongAdder allocated = new LongAdder();
+            List<SimulatedSession> sessions = invokeAll(executor,
+                    sessionCount, index -> {
+                        long start = getAllocatedBytes();
+                        SimulatedSession session = new SimulatedSession(
+                                scenario, children);
+                        addAllocation(allocated, start);
+                        return session;
+                    });
+            long heapAfter = settleHeap();
+
+            report.retainedHeapPerSession = (heapAfter - heapBefore)
+                    / sessionCount;
+            if (isAllocationMeasured()) {
+                report.allocatedPerSession = allocated.sum() / sessionCount;
+            }
+            LayoutProfile profile = new LayoutProfiler()
+                    .profile(sessions.get(0).getRoot());
+            report.componentsPerSession = profile.getComponentCount();
+            report.estimatedMemoryPerSession = profile.getEstimatedMemory();
+
+            if (requests > 0) {
+                runRequests(executor, sessions, report);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    private void runRequests(ExecutorService executor,
+            List<SimulatedSession> sessions, LoadReport report)
+            throws InterruptedException {
+        Map<String, long[]> gcBefore = getGcStats();
+        LongAdder allocated = new LongAdder();
+        LongAdder nanos = new LongAdder();
+        LongAdder changes = new LongAdder();
+        LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        // Interleave the sessions, like concurrent users do
+        invokeAll(executor, sessions.size() * requests, index -> {
+            SimulatedSession session = sessions.get(index % sessions.size());
+            long allocationStart = getAllocatedBytes();
+            long start = System.nanoTime();
+            changes.add(session.request());
+            long duration = System.nanoTime() - start;
+            addAllocation(allocated, allocationStart);
+            nanos.add(duration);
+            maxNanos.accumulate(duration);
+            return null;
+        });
+
+        long requestCount = (long) sessions.size() * requests;
+        if (isAllocationMeasured()) {
+            report.allocatedPerRequest = allocated.sum() / requestCount;
+        }
+        report.meanRequestNanos = nanos.sum() / requestCount;
+        report.maxRequestNanos = maxNanos.get();
+        report.changesPerRequest = (double) changes.sum() / requestCount;
+
+        getGcStats().forEach((name, after) -> {
+            long[] before = gcBefore.getOrDefault(name, new long[2]);
+            LoadReport.GcStats stats = new LoadReport.GcStats();
+            stats.collections = after[0] - before[0];
+            stats.timeMillis = after[1] - before[1];
+            report.gc.put(name, stats);
+        });
+    }
+
+    private interface Task<T> {
+        T run(int index);
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService executor, int count,
+            Task<T> task) throws InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> task.run(index)));
+        }
+        List<T> results = new ArrayList<>(count);
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Simulated request failed",
+                        e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private static long settleHeap() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_GC_ROUNDS; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long current = ManagementFactory.getMemoryMXBean()
+                    .getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    private static Map<String, long[]> getGcStats() {
+        Map<String, long[]> stats = new HashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory
+                .getGarbageCollectorMXBeans()) {
+            stats.put(collector.getName(),
+                    new long[] { Math.max(0, collector.getCollectionCount()),
+                            Math.max(0, collector.getCollectionTime()) });
+        }
+        return stats;
+    }
+
+    private static boolean isAllocationMeasured() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    private static long getAllocatedBytes() {
+        if (!isAllocationMeasured()) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean()).getThreadAllocatedBytes(
+                        Thread.currentThread().getId());
+    }
+
+    private static void addAllocation(LongAdder allocated, long start) {
+        if (start >= 0) {
+            allocated.add(getAllocatedBytes() - start);
+        }
+    }
+}
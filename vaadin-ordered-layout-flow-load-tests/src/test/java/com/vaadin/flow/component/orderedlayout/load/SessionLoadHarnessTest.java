@@ -0,0 +1,74 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Runs {@link SessionLoadHarness} for each {@link LayoutTreeScenario} and
+ * writes the results as JSON to the file given by the {@code load.report}
+ * system property. The load is configured with the {@code load.sessions},
+ * {@code load.children}, {@code load.requests} and {@code load.threads} system
+ * properties, see the module pom for the defaults of a full run.
+ */
+public class SessionLoadHarnessTest {
+
+    @Test
+    public void measureScenarios() throws InterruptedException, IOException {
+        int sessions = Integer.getInteger("load.sessions", 20);
+        int children = Integer.getInteger("load.children", 200);
+        int requests = Integer.getInteger("load.requests", 5);
+        int threads = Integer.getInteger("load.threads", 4);
+
+        JsonArray results = Json.createArray();
+        for (LayoutTreeScenario scenario : LayoutTreeScenario.values()) {
+            LoadReport report = new SessionLoadHarness(scenario, sessions,
+                    children, requests, threads).run();
+            LoggerFactory.getLogger(SessionLoadHarnessTest.class)
+                    .info(report.toString());
+
+            Assert.assertTrue(scenario + " should create components",
+                    report.componentsPerSession > children / 2);
+            Assert.assertTrue(scenario + " should send changes",
+                    report.changesPerRequest > 0);
+            results.set(results.length(), report.toJson());
+        }
+
+        JsonObject json = Json.createObject();
+        json.put("javaVersion", System.getProperty("java.version"));
+        json.put("maxHeap", Runtime.getRuntime().maxMemory());
+        json.put("results", results);
+
+        Path file = Paths.get(System.getProperty("load.report",
+                "target/load-report.json"));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, json.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.load;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.internal.ConstantPool;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * An in-process stand-in for a user session with a single UI showing a layout
+ * tree of a {@link LayoutTreeScenario}.
+ * <p>
+ * A request modifies the tree and then collects and encodes the changes of the
+ * state tree the same way as the UIDL response of a real request does, so the
+ * measured allocations include the cost of communicating the changes to the
+ * client. Requests of the same session are serialized, like with the session
+ * lock of a real session.
+ *
+ * @author Vaadin Ltd.
+ */
+class SimulatedSession {
+
+    private final LayoutTreeScenario scenario;
+    private final UI ui = new UI();
+    private final Component root;
+    private int requestCount;
+
+    /**
+     * Creates a session and builds its layout tree, including the initial
+     * response which sends the whole tree to the client.
+     *
+     * @param scenario
+     *            the scenario of the layout tree
+     * @param children
+     *            the approximate amount of leaf components in the tree
+     */
+    SimulatedSession(LayoutTreeScenario scenario, int children) {
+        this.scenario = scenario;
+        root = scenario.build(children);
+        ui.add(root);
+        collectChanges();
+    }
+
+    /**
+     * Gets the root of the layout tree of this session.
+     *
+     * @return the root of the layout tree
+     */
+    Component getRoot() {
+        return root;
+    }
+
+    /**
+     * Handles a request which modifies the layout tree.
+     *
+     * @return the amount of encoded changes in the response
+     */
+    synchronized int request() {
+        scenario.update(root, requestCount++);
+        return collectChanges();
+    }
+
+    private int collectChanges() {
+        UIInternals internals = ui.getInternals();
+        ConstantPool constantPool = internals.getConstantPool();
+        JsonArray changes = Json.createArray();
+        internals.getStateTree().collectChanges(
+                change -> changes.set(changes.length(),
+                        change.toJson(constantPool)));
+        if (constantPool.hasNewConstants()) {
+            constantPool.dumpConstants();
+        }
+        return changes.length();
+    }
+}
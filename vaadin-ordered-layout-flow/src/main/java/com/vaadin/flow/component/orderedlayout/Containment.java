@@ -0,0 +1,76 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+/**
+ * Enum for the values of the CSS property {@code contain}, which tells the
+ * browser that a layout and its contents are independent of the rest of the
+ * page, so that style, layout and paint work can be limited to the layout.
+ *
+ * @author Vaadin Ltd.
+ * @see HasContainment#setContainment(java.util.EnumSet)
+ * @see <a href=
+ *      "https://developer.mozilla.org/en-US/docs/Web/CSS/contain">MDN page
+ *      about contain</a>
+ */
+public enum Containment {
+
+    /**
+     * The internal layout of the element is isolated from the rest of the
+     * page: nothing outside the element affects its internal layout, and vice
+     * versa.
+     */
+    LAYOUT("layout"),
+
+    /**
+     * The descendants of the element don't display outside its bounds, and
+     * nothing is painted for them when the element is off-screen.
+     */
+    PAINT("paint"),
+
+    /**
+     * The size of the element can be computed without examining its
+     * descendants. The element must be given an explicit size, otherwise it
+     * collapses to zero size.
+     */
+    SIZE("size"),
+
+    /**
+     * Shorthand for layout, paint and style containment. This is the safe
+     * choice for independent sections of a page which don't have an explicit
+     * size. It can not be combined with the other types.
+     */
+    CONTENT("content");
+
+    private final String cssValue;
+
+    Containment(String cssValue) {
+        this.cssValue = cssValue;
+    }
+
+    String getCssValue() {
+        return cssValue;
+    }
+
+    static Containment toContainment(String cssValue) {
+        for (Containment containment : values()) {
+            if (containment.cssValue.equals(cssValue)) {
+                return containment;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import com.vaadin.flow.component.ClickNotifier;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.HasOrderedComponents;
+import com.vaadin.flow.component.HasSize;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.dom.Style;
+
+/**
+ * A layout component that implements CSS Grid. The children are placed into
+ * the cells of a grid of equally wide columns, and each child can be
+ * positioned to a given column and row and span several columns and rows.
+ * <p>
+ * A single dashboard layout can replace a {@link VerticalLayout} of
+ * {@link HorizontalLayout}s, without the extra component and element for each
+ * row.
+ *
+ * @see <a href=
+ *      "https://developer.mozilla.org/en-US/docs/Web/CSS/CSS_Grid_Layout">CSS
+ *      Grid Layout on MDN</a>
+ */
+@Tag(Tag.DIV)
+public class DashboardLayout extends Component
+        implements HasOrderedComponents<DashboardLayout>, HasStyle, HasSize,
+        ClickNotifier<DashboardLayout> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String GRID_TEMPLATE_COLUMNS_CSS_PROPERTY = "gridTemplateColumns";
+    private static final String GRID_AUTO_ROWS_CSS_PROPERTY = "gridAutoRows";
+    private static final String GRID_GAP_CSS_PROPERTY = "gridGap";
+    private static final String GRID_COLUMN_START_CSS_PROPERTY = "gridColumnStart";
+    private static final String GRID_COLUMN_END_CSS_PROPERTY = "gridColumnEnd";
+    private static final String GRID_ROW_START_CSS_PROPERTY = "gridRowStart";
+    private static final String GRID_ROW_END_CSS_PROPERTY = "gridRowEnd";
+
+    private static final String SPAN_PREFIX = "span ";
+
+    private int columns;
+
+    /**
+     * Default constructor. Creates an empty layout with a single column.
+     */
+    public DashboardLayout() {
+        this(1);
+    }
+
+    /**
+     * Creates an empty layout with the given amount of columns.
+     *
+     * @param columns
+     *            the amount of columns, at least 1
+     */
+    public DashboardLayout(int columns) {
+        getStyle().set("display", "grid");
+        setColumns(columns);
+    }
+
+    /**
+     * Sets the amount of equally wide columns of the layout.
+     *
+     * @param columns
+     *            the amount of columns, at least 1
+     */
+    public void setColumns(int columns) {
+        if (columns < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of columns must be at least 1");
+        }
+        this.columns = columns;
+        getStyle().set(GRID_TEMPLATE_COLUMNS_CSS_PROPERTY,
+                "repeat(" + columns + ", minmax(0, 1fr))");
+    }
+
+    /**
+     * Gets the amount of columns of the layout.
+     *
+     * @return the amount of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Sets the height of each row of the layout. By default the rows are as
+     * high as their content.
+     *
+     * @param rowHeight
+     *            the row height as a CSS length, or <code>null</code> to reset
+     *            the height to its default
+     */
+    public void setRowHeight(String rowHeight) {
+        setOrRemove(getStyle(), GRID_AUTO_ROWS_CSS_PROPERTY, rowHeight);
+    }
+
+    /**
+     * Gets the height of each row of the layout.
+     *
+     * @return the row height as a CSS length, or <code>null</code> if the
+     *         default height is used
+     */
+    public String getRowHeight() {
+        return getStyle().get(GRID_AUTO_ROWS_CSS_PROPERTY);
+    }
+
+    /**
+     * Sets the gap between the rows and columns of the layout.
+     *
+     * @param gap
+     *            the gap as a CSS length, or <code>null</code> for no gap
+     */
+    public void setGap(String gap) {
+        setOrRemove(getStyle(), GRID_GAP_CSS_PROPERTY, gap);
+    }
+
+    /**
+     * Gets the gap between the rows and columns of the layout.
+     *
+     * @return the gap as a CSS length, or <code>null</code> if none was set
+     */
+    public String getGap() {
+        return getStyle().get(GRID_GAP_CSS_PROPERTY);
+    }
+
+    /**
+     * Adds the given component to the layout, placed at the given column and
+     * row and spanning the given amount of columns and rows.
+     *
+     * @param component
+     *            the component to add, not <code>null</code>
+     * @param column
+     *            the 1-based column of the component, or 0 to place it
+     *            automatically
+     * @param row
+     *            the 1-based row of the component, or 0 to place it
+     *            automatically
+     * @param columnSpan
+     *            the amount of columns the component spans, at least 1
+     * @param rowSpan
+     *            the amount of rows the component spans, at least 1
+     */
+    public void add(Component component, int column, int row, int columnSpan,
+            int rowSpan) {
+        if (component == null) {
+            throw new IllegalArgumentException(
+                    "The 'component' argument can not be null");
+        }
+        checkLine(column);
+        checkLine(row);
+        checkSpan(columnSpan);
+        checkSpan(rowSpan);
+        add(component);
+        setColumn(column, component);
+        setRow(row, component);
+        setColumnSpan(columnSpan, component);
+        setRowSpan(rowSpan, component);
+    }
+
+    /**
+     * Sets the column of individual element containers inside the layout.
+     * <p>
+     * It effectively sets the {@code "gridColumnStart"} style value.
+     *
+     * @param column
+     *            the 1-based column, or 0 to reset the column to be chosen
+     *            automatically
+     * @param elementContainers
+     *            the containers (components) to place into the column
+     */
+    public void setColumn(int column, HasElement... elementContainers) {
+        setLine(GRID_COLUMN_START_CSS_PROPERTY, column, elementContainers);
+    }
+
+    /**
+     * Gets the column of a given element container.
+     *
+     * @param elementContainer
+     *            the element container to read the column from
+     * @return the 1-based column, or 0 if it is chosen automatically
+     */
+    public int getColumn(HasElement elementContainer) {
+        return getLine(GRID_COLUMN_START_CSS_PROPERTY, elementContainer);
+    }
+
+    /**
+     * Sets the row of individual element containers inside the layout.
+     * <p>
+     * It effectively sets the {@code "gridRowStart"} style value.
+     *
+     * @param row
+     *            the 1-based row, or 0 to reset the row to be chosen
+     *            automatically
+     * @param elementContainers
+     *            the containers (components) to place into the row
+     */
+    public void setRow(int row, HasElement... elementContainers) {
+        setLine(GRID_ROW_START_CSS_PROPERTY, row, elementContainers);
+    }
+
+    /**
+     * Gets the row of a given element container.
+     *
+     * @param elementContainer
+     *            the element container to read the row from
+     * @return the 1-based row, or 0 if it is chosen automatically
+     */
+    public int getRow(HasElement elementContainer) {
+        return getLine(GRID_ROW_START_CSS_PROPERTY, elementContainer);
+    }
+
+    /**
+     * Sets the amount of columns individual element containers span inside the
+     * layout.
+     * <p>
+     * It effectively sets the {@code "gridColumnEnd"} style value.
+     *
+     * @param columnSpan
+     *            the amount of columns to span, at least 1
+     * @param elementContainers
+     *            the containers (components) to apply the span to
+     */
+    public void setColumnSpan(int columnSpan,
+            HasElement... elementContainers) {
+        setSpan(GRID_COLUMN_END_CSS_PROPERTY, columnSpan, elementContainers);
+    }
+
+    /**
+     * Gets the amount of columns a given element container spans.
+     *
+     * @param elementContainer
+     *            the element container to read the span from
+     * @return the amount of columns spanned, 1 if none was set
+     */
+    public int getColumnSpan(HasElement elementContainer) {
+        return getSpan(GRID_COLUMN_END_CSS_PROPERTY, elementContainer);
+    }
+
+    /**
+     * Sets the amount of rows individual element containers span inside the
+     * layout.
+     * <p>
+     * It effectively sets the {@code "gridRowEnd"} style value.
+     *
+     * @param rowSpan
+     *            the amount of rows to span, at least 1
+     * @param elementContainers
+     *            the containers (components) to apply the span to
+     */
+    public void setRowSpan(int rowSpan, HasElement... elementContainers) {
+        setSpan(GRID_ROW_END_CSS_PROPERTY, rowSpan, elementContainers);
+    }
+
+    /**
+     * Gets the amount of rows a given element container spans.
+     *
+     * @param elementContainer
+     *            the element container to read the span from
+     * @return the amount of rows spanned, 1 if none was set
+     */
+    public int getRowSpan(HasElement elementContainer) {
+        return getSpan(GRID_ROW_END_CSS_PROPERTY, elementContainer);
+    }
+
+    private static void checkLine(int line) {
+        if (line < 0) {
+            throw new IllegalArgumentException(
+                    "Grid line cannot be negative");
+        }
+    }
+
+    private static void checkSpan(int span) {
+        if (span < 1) {
+            throw new IllegalArgumentException("Span must be at least 1");
+        }
+    }
+
+    private static void setLine(String property, int line,
+            HasElement... elementContainers) {
+        checkLine(line);
+        for (HasElement container : elementContainers) {
+            setOrRemove(container.getElement().getStyle(), property,
+                    line == 0 ? null : String.valueOf(line));
+        }
+    }
+
+    private static int getLine(String property, HasElement elementContainer) {
+        String line = elementContainer.getElement().getStyle().get(property);
+        if (line == null || line.isEmpty()) {
+            return 0;
+        }
+        return parse(line, property);
+    }
+
+    private static void setSpan(String property, int span,
+            HasElement... elementContainers) {
+        checkSpan(span);
+        for (HasElement container : elementContainers) {
+            setOrRemove(container.getElement().getStyle(), property,
+                    span == 1 ? null : SPAN_PREFIX + span);
+        }
+    }
+
+    private static int getSpan(String property, HasElement elementContainer) {
+        String span = elementContainer.getElement().getStyle().get(property);
+        if (span == null || !span.startsWith(SPAN_PREFIX)) {
+            return 1;
+        }
+        return parse(span.substring(SPAN_PREFIX.length()), property);
+    }
+
+    private static int parse(String value, String property) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("The " + property
+                    + " property of the element container is not parseable to int: "
+                    + value, e);
+        }
+    }
+
+    private static void setOrRemove(Style style, String property,
+            String value) {
+        if (value == null) {
+            style.remove(property);
+        } else {
+            style.set(property, value);
+        }
+    }
+
+    /**
+     * Checks whether the layout has listeners for the given event type, for
+     * {@link LayoutListeners}.
+     *
+     * @param eventType
+     *            the event type
+     * @return <code>true</code> if there are listeners for the event type,
+     *         <code>false</code> otherwise
+     */
+    boolean isListening(Class<? extends ComponentEvent<?>> eventType) {
+        return hasListener(eventType);
+    }
+}
@@ -17,11 +17,18 @@ package com.vaadin.flow.component.orderedlayout;
 
 import java.util.Arrays;
 
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.select.Elements;
+
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.HasElement;
 import com.vaadin.flow.component.HasOrderedComponents;
 import com.vaadin.flow.component.HasSize;
 import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.function.SerializableFunction;
 
 /**
  * A component which implements Flexbox.
@@ -69,6 +76,8 @@ public interface FlexComponent<C extends Component>
          */
         AUTO("auto");
 
+        private static final Alignment[] VALUES = values();
+
         private final String flexValue;
 
         Alignment(String flexValue) {
@@ -80,9 +89,18 @@ public interface FlexComponent<C extends Component>
         }
 
         static Alignment toAlignment(String flexValue, Alignment defaultValue) {
-            return Arrays.stream(values()).filter(
-                    alignment -> alignment.getFlexValue().equals(flexValue))
-                    .findFirst().orElse(defaultValue);
+            if (flexValue != null) {
+                for (Alignment alignment : VALUES) {
+                    if (alignment.getFlexValue().equals(flexValue)) {
+                        return alignment;
+                    }
+                }
+            }
+            return defaultValue;
+        }
+
+        static Alignment fromOrdinal(int ordinal) {
+            return VALUES[ordinal];
         }
     }
 
@@ -158,12 +176,9 @@ public interface FlexComponent<C extends Component>
      *            <code>null</code> will reset the alignment to its default
      */
     default public void setAlignItems(Alignment alignment) {
-        if (alignment == null) {
-            getStyle().remove(FlexConstants.ALIGN_ITEMS_CSS_PROPERTY);
-        } else {
-            getStyle().set(FlexConstants.ALIGN_ITEMS_CSS_PROPERTY,
-                    alignment.getFlexValue());
-        }
+        LayoutWrites.setStyle(this, "setAlignItems",
+                FlexConstants.ALIGN_ITEMS_CSS_PROPERTY,
+                alignment == null ? null : alignment.getFlexValue());
     }
 
     /**
@@ -199,18 +214,60 @@ public interface FlexComponent<C extends Component>
      */
     default public void setAlignSelf(Alignment alignment,
             HasElement... elementContainers) {
-        if (alignment == null) {
-            for (HasElement container : elementContainers) {
-                container.getElement().getStyle()
-                        .remove(FlexConstants.ALIGN_SELF_CSS_PROPERTY);
+        Object event = LayoutEvents.beginBulkOperation();
+        String value = alignment == null ? null : alignment.getFlexValue();
+        int suppressed = 0;
+        for (HasElement container : elementContainers) {
+            if (!LayoutWrites.setStyle(container.getElement().getStyle(),
+                    FlexConstants.ALIGN_SELF_CSS_PROPERTY, value)) {
+                suppressed++;
             }
-        } else {
-            for (HasElement container : elementContainers) {
-                container.getElement().getStyle().set(
-                        FlexConstants.ALIGN_SELF_CSS_PROPERTY,
-                        alignment.getFlexValue());
+        }
+        LayoutEvents.endBulkOperation(event, this, "setAlignSelf",
+                elementContainers.length);
+        LayoutEvents.writesSuppressed(this, "setAlignSelf", suppressed);
+    }
+
+    /**
+     * Sets the individual alignment of each child of the layout, in child
+     * order, in one batch. Children which already have the given alignment
+     * are not modified.
+     * <p>
+     * This is faster than calling
+     * {@link #setAlignSelf(Alignment, HasElement...)} for each child, for
+     * example when restoring a saved arrangement of the children.
+     *
+     * @param perChildValues
+     *            the individual alignment of each child element,
+     *            <code>null</code> to reset the alignment to its default. The
+     *            length must be the same as the amount of child elements
+     * @see #getFlexSnapshot()
+     */
+    default public void setChildrenAlignSelf(Alignment[] perChildValues) {
+        if (perChildValues == null) {
+            throw new IllegalArgumentException(
+                    "The 'perChildValues' argument can not be null");
+        }
+        Element element = getElement();
+        int childCount = element.getChildCount();
+        if (perChildValues.length != childCount) {
+            throw new IllegalArgumentException("Expected " + childCount
+                    + " alignments, got " + perChildValues.length);
+        }
+        Object event = LayoutEvents.beginBulkOperation();
+        int changed = 0;
+        for (int i = 0; i < childCount; i++) {
+            Alignment alignment = perChildValues[i];
+            if (LayoutWrites.setStyle(element.getChild(i).getStyle(),
+                    FlexConstants.ALIGN_SELF_CSS_PROPERTY,
+                    alignment == null ? null : alignment.getFlexValue())) {
+                changed++;
             }
         }
+        LayoutEvents.endBulkOperation(event, this, "setChildrenAlignSelf",
+                childCount);
+        LayoutEvents.writesSuppressed(this, "setChildrenAlignSelf",
+                childCount - changed);
     }
 
     /**
@@ -256,18 +313,66 @@ public interface FlexComponent<C extends Component>
             throw new IllegalArgumentException(
                     "Flex grow property cannot be negative");
         }
-        if (flexGrow == 0) {
-            for (HasElement container : elementContainers) {
-                container.getElement().getStyle()
-                        .remove(FlexConstants.FLEX_GROW_CSS_PROPERTY);
+        Object event = LayoutEvents.beginBulkOperation();
+        String value = flexGrow == 0 ? null : String.valueOf(flexGrow);
+        int suppressed = 0;
+        for (HasElement container : elementContainers) {
+            if (!LayoutWrites.setStyle(container.getElement().getStyle(),
+                    FlexConstants.FLEX_GROW_CSS_PROPERTY, value)) {
+                suppressed++;
             }
-        } else {
-            for (HasElement container : elementContainers) {
-                container.getElement().getStyle().set(
-                        FlexConstants.FLEX_GROW_CSS_PROPERTY,
-                        String.valueOf(flexGrow));
+        }
+        LayoutEvents.endBulkOperation(event, this, "setFlexGrow",
+                elementContainers.length);
+        LayoutEvents.writesSuppressed(this, "setFlexGrow", suppressed);
+    }
+
+    /**
+     * Sets the flex grow property of each child of the layout, in child order,
+     * in one batch. Children whose flex grow already has the given value are
+     * not modified.
+     * <p>
+     * This is faster than calling {@link #setFlexGrow(double, HasElement...)}
+     * for each child, for example when restoring a saved arrangement of the
+     * children.
+     *
+     * @param perChildValues
+     *            the flex grow of each child element, 0 to remove the flex
+     *            grow. The length must be the same as the amount of child
+     *            elements, and negative values are not allowed
+     * @see #getFlexSnapshot()
+     */
+    default public void setChildrenFlexGrow(double[] perChildValues) {
+        if (perChildValues == null) {
+            throw new IllegalArgumentException(
+                    "The 'perChildValues' argument can not be null");
+        }
+        Element element = getElement();
+        int childCount = element.getChildCount();
+        if (perChildValues.length != childCount) {
+            throw new IllegalArgumentException("Expected " + childCount
+                    + " flex grow values, got " + perChildValues.length);
+        }
+        for (double flexGrow : perChildValues) {
+            if (!(flexGrow >= 0)) {
+                throw new IllegalArgumentException(
+                        "Flex grow property cannot be negative");
+            }
+        }
+        Object event = LayoutEvents.beginBulkOperation();
+        int changed = 0;
+        for (int i = 0; i < childCount; i++) {
+            double flexGrow = perChildValues[i];
+            if (LayoutWrites.setStyle(element.getChild(i).getStyle(),
+                    FlexConstants.FLEX_GROW_CSS_PROPERTY,
+                    flexGrow == 0 ? null : String.valueOf(flexGrow))) {
+                changed++;
             }
         }
+        LayoutEvents.endBulkOperation(event, this, "setChildrenFlexGrow",
+                childCount);
+        LayoutEvents.writesSuppressed(this, "setChildrenFlexGrow",
+                childCount - changed);
     }
 
     /**
@@ -308,7 +413,8 @@ public interface FlexComponent<C extends Component>
             throw new IllegalArgumentException(
                     "The 'justifyContentMode' argument can not be null");
         }
-        getElement().getStyle().set(FlexConstants.JUSTIFY_CONTENT_CSS_PROPERTY,
+        LayoutWrites.setStyle(this, "setJustifyContentMode",
+                FlexConstants.JUSTIFY_CONTENT_CSS_PROPERTY,
                 justifyContentMode.getFlexValue());
     }
 
@@ -340,20 +446,317 @@ public interface FlexComponent<C extends Component>
         setFlexGrow(1.0d, componentsToExpand);
     }
 
+    @Override
+    default public void add(Component... components) {
+        Object event = LayoutEvents.beginMutation();
+        HasOrderedComponents.super.add(components);
+        LayoutEvents.endMutation(event, this, "add", components.length);
+    }
+
+    @Override
+    default public void addComponentAtIndex(int index, Component component) {
+        Object event = LayoutEvents.beginMutation();
+        HasOrderedComponents.super.addComponentAtIndex(index, component);
+        LayoutEvents.endMutation(event, this, "addComponentAtIndex", 1);
+    }
+
+    @Override
+    default public void remove(Component... components) {
+        Object event = LayoutEvents.beginMutation();
+        HasOrderedComponents.super.remove(components);
+        LayoutEvents.endMutation(event, this, "remove", components.length);
+    }
+
+    @Override
+    default public void removeAll() {
+        Object event = LayoutEvents.beginMutation();
+        int childCount = getElement().getChildCount();
+        HasOrderedComponents.super.removeAll();
+        LayoutEvents.endMutation(event, this, "removeAll", childCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The new component takes over the flex grow and the individual alignment
+     * of the old component. When the new component is not a child of this
+     * layout, it is set in place of the old component at the same index, and
+     * the style values are copied as they are, before the new component is
+     * attached.
+     */
     @Override
     default public void replace(Component oldComponent,
             Component newComponent) {
-        Alignment alignSelf = null;
-        double flexGrow = 0;
-        if (oldComponent != null) {
-            alignSelf = getAlignSelf(oldComponent);
-            flexGrow = getFlexGrow(oldComponent);
+        Object event = LayoutEvents.beginMutation();
+        if (oldComponent != null && newComponent != null) {
+            Element oldElement = oldComponent.getElement();
+            Element newElement = newComponent.getElement();
+            Style oldStyle = oldElement.getStyle();
+            Style newStyle = newElement.getStyle();
+            String alignSelf = oldStyle
+                    .get(FlexConstants.ALIGN_SELF_CSS_PROPERTY);
+            String flexGrow = oldStyle.get(FlexConstants.FLEX_GROW_CSS_PROPERTY);
+            if (alignSelf == null) {
+                newStyle.remove(FlexConstants.ALIGN_SELF_CSS_PROPERTY);
+            } else {
+                newStyle.set(FlexConstants.ALIGN_SELF_CSS_PROPERTY, alignSelf);
+            }
+            if (flexGrow == null) {
+                newStyle.remove(FlexConstants.FLEX_GROW_CSS_PROPERTY);
+            } else {
+                newStyle.set(FlexConstants.FLEX_GROW_CSS_PROPERTY, flexGrow);
+            }
+
+            int oldIndex = getElement().indexOfChild(oldElement);
+            if (oldIndex >= 0 && getElement().indexOfChild(newElement) < 0) {
+                getElement().setChild(oldIndex, newElement);
+            } else {
+                HasOrderedComponents.super.replace(oldComponent,
+                        newComponent);
+            }
+        } else {
+            HasOrderedComponents.super.replace(oldComponent, newComponent);
+        }
+        LayoutEvents.endMutation(event, this, "replace", 1);
+    }
+
+    /**
+     * Adds the given elements as children of this layout, after the existing
+     * children.
+     * <p>
+     * Elements are lighter than components for static content, such as labels
+     * that never change, since they have no component instance, listeners or
+     * attach and detach handling. They are ordered, aligned and expanded the
+     * same way as components, using the {@link Element} overloads of the flex
+     * methods, but they are not included in {@link #getChildren()}.
+     *
+     * @param elements
+     *            the elements to add, not <code>null</code>
+     * @see Element#createText(String)
+     */
+    default public void addElements(Element... elements) {
+        Object event = LayoutEvents.beginMutation();
+        for (Element element : elements) {
+            if (element == null) {
+                throw new IllegalArgumentException(
+                        "Element to add cannot be null");
+            }
+            getElement().appendChild(element);
         }
-        HasOrderedComponents.super.replace(oldComponent, newComponent);
-        if (newComponent != null && oldComponent != null) {
-            setAlignSelf(alignSelf, newComponent);
-            setFlexGrow(flexGrow, newComponent);
+        LayoutEvents.endMutation(event, this, "addElements", elements.length);
+    }
+
+    /**
+     * Adds the given element as a child of this layout at the specific index.
+     * The index is the index among all the child elements of the layout,
+     * including the elements of the child components.
+     *
+     * @param index
+     *            the index, where the element will be added. The index must be
+     *            non-negative and may not exceed the child element count
+     * @param element
+     *            the element to add, not <code>null</code>
+     * @see #addElements(Element...)
+     */
+    default public void addElementAtIndex(int index, Element element) {
+        if (element == null) {
+            throw new IllegalArgumentException(
+                    "Element to add cannot be null");
         }
+        if (index < 0 || index > getElement().getChildCount()) {
+            throw new IllegalArgumentException(
+                    "Cannot add an element with index " + index
+                            + " to a layout with "
+                            + getElement().getChildCount() + " children");
+        }
+        Object event = LayoutEvents.beginMutation();
+        getElement().insertChild(index, element);
+        LayoutEvents.endMutation(event, this, "addElementAtIndex", 1);
+    }
+
+    /**
+     * Adds a static fragment of HTML as a child of this layout, after the
+     * existing children. The fragment must have exactly one root element,
+     * whose tag and attributes are used for the added element, and whose
+     * content is set as the inner HTML of the element.
+     * <p>
+     * The HTML is not sanitized, so it must come from a trusted source. The
+     * element is marked as trusted on the server, so that
+     * {@link LayoutHtmlRenderer} writes its content as is.
+     *
+     * @param html
+     *            the HTML of the fragment, not <code>null</code>
+     * @return the added element, never <code>null</code>
+     * @see #addElements(Element...)
+     */
+    default public Element addHtml(String html) {
+        if (html == null) {
+            throw new IllegalArgumentException(
+                    "The 'html' argument can not be null");
+        }
+        Elements roots = Jsoup.parseBodyFragment(html).body().children();
+        if (roots.size() != 1) {
+            throw new IllegalArgumentException(
+                    "The HTML must contain exactly one root element, found "
+                            + roots.size());
+        }
+        org.jsoup.nodes.Element root = roots.get(0);
+        Element element = new Element(root.tagName());
+        for (Attribute attribute : root.attributes()) {
+            element.setAttribute(attribute.getKey(), attribute.getValue());
+        }
+        if (!root.childNodes().isEmpty()) {
+            element.setProperty("innerHTML", root.html());
+            LayoutHtmlRenderer.markTrusted(element);
+        }
+        addElements(element);
+        return element;
+    }
+
+    /**
+     * Removes the given child elements from this layout.
+     *
+     * @param elements
+     *            the elements to remove, not <code>null</code>
+     * @throws IllegalArgumentException
+     *             if any of the elements is not a child of this layout
+     */
+    default public void removeElements(Element... elements) {
+        Object event = LayoutEvents.beginMutation();
+        for (Element element : elements) {
+            if (element == null) {
+                throw new IllegalArgumentException(
+                        "Element to remove cannot be null");
+            }
+            if (!getElement().equals(element.getParent())) {
+                throw new IllegalArgumentException("The given element ("
+                        + element + ") is not a child of this layout");
+            }
+            getElement().removeChild(element);
+        }
+        LayoutEvents.endMutation(event, this, "removeElements",
+                elements.length);
+    }
+
+    /**
+     * Sets the flex grow property of the given child elements.
+     *
+     * @param flexGrow
+     *            the proportion of the available space the elements should
+     *            take up
+     * @param elements
+     *            the elements to apply the flex grow property
+     * @see #setFlexGrow(double, HasElement...)
+     */
+    default public void setElementFlexGrow(double flexGrow,
+            Element... elements) {
+        HasElement[] containers = new HasElement[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            Element element = elements[i];
+            containers[i] = () -> element;
+        }
+        setFlexGrow(flexGrow, containers);
+    }
+
+    /**
+     * Gets the flex grow property of the given child element.
+     *
+     * @param element
+     *            the element to read the flex grow property from
+     * @return the flex grow property, or 0 if none was set
+     * @see #getFlexGrow(HasElement)
+     */
+    default public double getElementFlexGrow(Element element) {
+        return getFlexGrow(() -> element);
+    }
+
+    /**
+     * Sets an individual alignment for the given child elements.
+     *
+     * @param alignment
+     *            the individual alignment for the elements. Setting
+     *            <code>null</code> will reset the alignment to its default
+     * @param elements
+     *            the elements to which the individual alignment should be set
+     * @see #setAlignSelf(Alignment, HasElement...)
+     */
+    default public void setElementAlignSelf(Alignment alignment,
+            Element... elements) {
+        HasElement[] containers = new HasElement[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            Element element = elements[i];
+            containers[i] = () -> element;
+        }
+        setAlignSelf(alignment, containers);
+    }
+
+    /**
+     * Gets the individual alignment of the given child element.
+     *
+     * @param element
+     *            the element which individual alignment should be read
+     * @return the alignment of the element, never <code>null</code>
+     * @see #getAlignSelf(HasElement)
+     */
+    default public Alignment getElementAlignSelf(Element element) {
+        return getAlignSelf(() -> element);
+    }
+
+    /**
+     * Adds a child built from the given input by the given builder, which is
+     * rebuilt only when the input changes. Use {@link LayoutMemo#update(Object)}
+     * to pass new input to the memo.
+     *
+     * @param <T>
+     *            the type of the input
+     * @param input
+     *            the initial input, may be <code>null</code>
+     * @param builder
+     *            the function building the child from an input, not
+     *            <code>null</code>
+     * @return the memo of the added child, never <code>null</code>
+     */
+    default public <T> LayoutMemo<T> addMemo(T input,
+            SerializableFunction<T, ? extends Component> builder) {
+        return addMemo(input, builder, null);
+    }
+
+    /**
+     * Adds a child built from the given input by the given builder, which is
+     * rebuilt only when the fingerprint of the input changes. Use
+     * {@link LayoutMemo#update(Object)} to pass new input to the memo.
+     *
+     * @param <T>
+     *            the type of the input
+     * @param input
+     *            the initial input, may be <code>null</code>
+     * @param builder
+     *            the function building the child from an input, not
+     *            <code>null</code>
+     * @param fingerprint
+     *            the function computing the fingerprint of an input, or
+     *            <code>null</code> to compare the inputs with
+     *            {@link Object#equals(Object)}
+     * @return the memo of the added child, never <code>null</code>
+     */
+    default public <T> LayoutMemo<T> addMemo(T input,
+            SerializableFunction<T, ? extends Component> builder,
+            SerializableFunction<T, ?> fingerprint) {
+        LayoutMemo<T> memo = new LayoutMemo<>(this, builder, fingerprint);
+        memo.update(input);
+        return memo;
+    }
+
+    /**
+     * Reads the flex properties of this layout and of all its children in a
+     * single pass over the children. This is faster than calling
+     * {@link #getFlexGrow(HasElement)} and {@link #getAlignSelf(HasElement)}
+     * for each child.
+     *
+     * @return a snapshot of the flex properties, never <code>null</code>
+     */
+    default public FlexSnapshot getFlexSnapshot() {
+        return FlexSnapshot.of(this);
     }
 
 }
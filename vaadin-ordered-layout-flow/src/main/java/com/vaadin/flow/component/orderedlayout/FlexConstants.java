@@ -20,7 +20,15 @@ class FlexConstants {
     static final String JUSTIFY_CONTENT_CSS_PROPERTY = "justifyContent";
     static final String FLEX_WRAP_CSS_PROPERTY = "flexWrap";
     static final String FLEX_GROW_CSS_PROPERTY = "flexGrow";
+    static final String FLEX_SHRINK_CSS_PROPERTY = "flexShrink";
+    static final String FLEX_DIRECTION_CSS_PROPERTY = "flexDirection";
     static final String ALIGN_SELF_CSS_PROPERTY = "alignSelf";
     static final String ALIGN_ITEMS_CSS_PROPERTY = "alignItems";
+    static final String CONTAIN_CSS_PROPERTY = "contain";
+    static final String CONTENT_VISIBILITY_CSS_PROPERTY = "contentVisibility";
+    static final String CONTAIN_INTRINSIC_SIZE_CSS_PROPERTY = "containIntrinsicSize";
+
+    static final String NATIVE_VERTICAL_LAYOUT_CLASS_NAME = "vaadin-native-vertical-layout";
+    static final String NATIVE_HORIZONTAL_LAYOUT_CLASS_NAME = "vaadin-native-horizontal-layout";
 
 }
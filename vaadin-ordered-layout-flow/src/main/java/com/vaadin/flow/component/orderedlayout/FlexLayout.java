@@ -15,8 +15,11 @@
  */
 package com.vaadin.flow.component.orderedlayout;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ClickNotifier;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Tag;
 
 import java.util.Arrays;
@@ -33,7 +36,8 @@ import java.util.Arrays;
  */
 @Tag(Tag.DIV)
 public class FlexLayout extends Component
-        implements FlexComponent<FlexLayout>, ClickNotifier<FlexLayout> {
+        implements FlexComponent<FlexLayout>, ClickNotifier<FlexLayout>,
+        HasContainment {
 
     /**
      * Possible values for the {@code flex-wrap} CSS property, which determines how the elements inside the layout
@@ -81,7 +85,9 @@ public class FlexLayout extends Component
      * Default constructor. Creates an empty layout.
      */
     public FlexLayout() {
+        Object event = LayoutEvents.beginConstruction();
         getStyle().set("display", "flex");
+        LayoutEvents.endConstruction(event, this);
     }
 
     /**
@@ -110,8 +116,8 @@ public class FlexLayout extends Component
             throw new IllegalArgumentException(
                     "The 'wrapMode' argument can not be null");
         }
-        getElement().getStyle().set(FlexConstants.FLEX_WRAP_CSS_PROPERTY,
-                wrapMode.getFlexValue());
+        LayoutWrites.setStyle(this, "setWrapMode",
+                FlexConstants.FLEX_WRAP_CSS_PROPERTY, wrapMode.getFlexValue());
     }
 
     /**
@@ -129,4 +135,28 @@ public class FlexLayout extends Component
                 WrapMode.NOWRAP);
     }
 
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        LayoutEvents.attached(this);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        LayoutEvents.detached(this);
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Checks whether the layout has listeners for the given event type, for
+     * {@link LayoutListeners}.
+     *
+     * @param eventType
+     *            the event type
+     * @return <code>true</code> if there are listeners for the event type,
+     *         <code>false</code> otherwise
+     */
+    boolean isListening(Class<? extends ComponentEvent<?>> eventType) {
+        return hasListener(eventType);
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.Style;
+
+/**
+ * The flex properties of a layout and all its children, read in a single pass
+ * over the children with {@link FlexComponent#getFlexSnapshot()}.
+ * <p>
+ * The flex grow values of the children are available as a {@code double[]}
+ * and their individual alignments as an array of {@link Alignment} ordinals,
+ * indexed by the child element index. The arrays are owned by the snapshot
+ * and returned without copying; modifying them only affects the snapshot. The
+ * snapshot does not follow later changes of the layout.
+ *
+ * @author Vaadin Ltd.
+ */
+public final class FlexSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The ordinal of a child without an individual alignment.
+     */
+    public static final int NOT_SET = -1;
+
+    private final Alignment alignItems;
+    private final JustifyContentMode justifyContentMode;
+    private final WrapMode wrapMode;
+    private final double[] flexGrow;
+    private final int[] alignSelf;
+
+    private FlexSnapshot(Alignment alignItems,
+            JustifyContentMode justifyContentMode, WrapMode wrapMode,
+            double[] flexGrow, int[] alignSelf) {
+        this.alignItems = alignItems;
+        this.justifyContentMode = justifyContentMode;
+        this.wrapMode = wrapMode;
+        this.flexGrow = flexGrow;
+        this.alignSelf = alignSelf;
+    }
+
+    static FlexSnapshot of(FlexComponent<?> layout) {
+        Element element = layout.getElement();
+        Style style = element.getStyle();
+        Alignment alignItems = Alignment.toAlignment(
+                style.get(FlexConstants.ALIGN_ITEMS_CSS_PROPERTY),
+                Alignment.STRETCH);
+        JustifyContentMode justifyContentMode = JustifyContentMode
+                .toJustifyContentMode(
+                        style.get(FlexConstants.JUSTIFY_CONTENT_CSS_PROPERTY),
+                        JustifyContentMode.START);
+        WrapMode wrapMode = layout instanceof FlexLayout
+                ? WrapMode.toWrapMode(
+                        style.get(FlexConstants.FLEX_WRAP_CSS_PROPERTY),
+                        WrapMode.NOWRAP)
+                : null;
+
+        int childCount = element.getChildCount();
+        double[] flexGrow = new double[childCount];
+        int[] alignSelf = new int[childCount];
+        for (int i = 0; i < childCount; i++) {
+            Style childStyle = element.getChild(i).getStyle();
+            String grow = childStyle.get(FlexConstants.FLEX_GROW_CSS_PROPERTY);
+            if (grow != null && !grow.isEmpty()) {
+                try {
+                    flexGrow[i] = Double.parseDouble(grow);
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException(
+                            "The flex grow property of the element container is not parseable to double: "
+                                    + grow,
+                            e);
+                }
+            }
+            Alignment alignment = Alignment.toAlignment(
+                    childStyle.get(FlexConstants.ALIGN_SELF_CSS_PROPERTY),
+                    null);
+            alignSelf[i] = alignment == null ? NOT_SET : alignment.ordinal();
+        }
+        return new FlexSnapshot(alignItems, justifyContentMode, wrapMode,
+                flexGrow, alignSelf);
+    }
+
+    /**
+     * Gets the number of child elements of the layout.
+     *
+     * @return the number of children
+     */
+    public int getChildCount() {
+        return flexGrow.length;
+    }
+
+    /**
+     * Gets the flex grow values of the children, 0 for the children without a
+     * flex grow.
+     *
+     * @return the flex grow values in child order, never <code>null</code>
+     */
+    public double[] getFlexGrow() {
+        return flexGrow;
+    }
+
+    /**
+     * Gets the {@link Alignment} ordinals of the individual alignments of the
+     * children, {@link #NOT_SET} for the children without an individual
+     * alignment.
+     *
+     * @return the alignment ordinals in child order, never <code>null</code>
+     */
+    public int[] getAlignSelfOrdinals() {
+        return alignSelf;
+    }
+
+    /**
+     * Gets the individual alignment of a child.
+     *
+     * @param index
+     *            the index of the child
+     * @return the alignment, {@link Alignment#AUTO} if the child has no
+     *         individual alignment
+     */
+    public Alignment getAlignSelf(int index) {
+        int ordinal = alignSelf[index];
+        return ordinal == NOT_SET ? Alignment.AUTO : Alignment.fromOrdinal(ordinal);
+    }
+
+    /**
+     * Gets the default alignment of the children of the layout.
+     *
+     * @return the alignment, never <code>null</code>
+     * @see FlexComponent#getAlignItems()
+     */
+    public Alignment getAlignItems() {
+        return alignItems;
+    }
+
+    /**
+     * Gets the justify content mode of the layout.
+     *
+     * @return the justify content mode, never <code>null</code>
+     * @see FlexComponent#getJustifyContentMode()
+     */
+    public JustifyContentMode getJustifyContentMode() {
+        return justifyContentMode;
+    }
+
+    /**
+     * Gets the wrap mode of the layout.
+     *
+     * @return the wrap mode, or <code>null</code> if the layout is not a
+     *         {@link FlexLayout}
+     */
+    public WrapMode getWrapMode() {
+        return wrapMode;
+    }
+}
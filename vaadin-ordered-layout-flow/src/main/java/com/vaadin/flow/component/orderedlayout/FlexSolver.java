@@ -0,0 +1,822 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.Style;
+
+/**
+ * Computes the geometry of the children of a flex container on the server,
+ * following the CSS flexbox layout algorithm. This makes the positions and
+ * sizes of the children available for example for PDF export, print layouts
+ * and hit testing, without measuring them in the browser.
+ * <p>
+ * The solver does not know the content of the children, so the size of a
+ * child is given as a hint: a child without a hint for an axis has an
+ * automatic size, which is treated as zero before growing and stretching.
+ * Sizes are in pixels and positions are relative to the content box of the
+ * container, so padding and borders are not part of the container size passed
+ * to {@link #solve(double, double)}.
+ * <p>
+ * The supported subset of flexbox is the one configurable through the layout
+ * API: direction, {@link WrapMode}, {@link JustifyContentMode},
+ * {@link Alignment} for the items and the individual children, flex grow,
+ * flex shrink and a gap between adjacent children on a line. Lines are
+ * stretched along the cross axis as with the default {@code align-content}.
+ * {@link Alignment#BASELINE} behaves as {@link Alignment#START}, since the
+ * baselines of the children are not known. Minimum and maximum sizes are not
+ * supported, except that no child shrinks below zero.
+ * <p>
+ * A solver reuses its internal arrays between calls, so solving the same
+ * container repeatedly does not allocate. A solver is not thread safe.
+ *
+ * @author Vaadin Ltd.
+ */
+public class FlexSolver implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Possible values for the {@code flex-direction} CSS property, which
+     * determines the main axis of a flex container.
+     */
+    public enum Direction {
+
+        /**
+         * Children are placed from left to right.
+         */
+        ROW("row"),
+
+        /**
+         * Children are placed from right to left.
+         */
+        ROW_REVERSE("row-reverse"),
+
+        /**
+         * Children are placed from top to bottom.
+         */
+        COLUMN("column"),
+
+        /**
+         * Children are placed from bottom to top.
+         */
+        COLUMN_REVERSE("column-reverse");
+
+        private final String flexValue;
+
+        Direction(String flexValue) {
+            this.flexValue = flexValue;
+        }
+
+        String getFlexValue() {
+            return flexValue;
+        }
+
+        boolean isColumn() {
+            return this == COLUMN || this == COLUMN_REVERSE;
+        }
+
+        boolean isReverse() {
+            return this == ROW_REVERSE || this == COLUMN_REVERSE;
+        }
+
+        static Direction toDirection(String flexValue, Direction defaultValue) {
+            return Arrays.stream(values())
+                    .filter(direction -> direction.getFlexValue()
+                            .equals(flexValue))
+                    .findFirst().orElse(defaultValue);
+        }
+    }
+
+    private static final double AUTO = Double.NaN;
+
+    private Direction direction = Direction.ROW;
+    private WrapMode wrapMode = WrapMode.NOWRAP;
+    private JustifyContentMode justifyContentMode = JustifyContentMode.START;
+    private Alignment alignItems = Alignment.STRETCH;
+    private double gap;
+
+    private int childCount;
+    private double[] widths = new double[0];
+    private double[] heights = new double[0];
+    private double[] flexGrow = new double[0];
+    private double[] flexShrink = new double[0];
+    private Alignment[] alignSelf = new Alignment[0];
+
+    // Results along the main and cross axes of the last solve
+    private boolean column;
+    private double[] mainPosition = new double[0];
+    private double[] mainSize = new double[0];
+    private double[] crossPosition = new double[0];
+    private double[] crossSize = new double[0];
+
+    // Scratch space
+    private boolean[] frozen = new boolean[0];
+    private int[] lineStarts = new int[1];
+    private double[] lineCrossSizes = new double[0];
+    private int lineCount;
+
+    /**
+     * Creates a new solver for a row container without children.
+     */
+    public FlexSolver() {
+        // Defaults are set in the field declarations
+    }
+
+    /**
+     * Creates a new solver configured from the given layout.
+     *
+     * @param layout
+     *            the layout to read the configuration from, not
+     *            <code>null</code>
+     * @return a new configured solver, never <code>null</code>
+     * @see #configure(FlexComponent)
+     */
+    public static FlexSolver forLayout(FlexComponent<?> layout) {
+        FlexSolver solver = new FlexSolver();
+        solver.configure(layout);
+        return solver;
+    }
+
+    /**
+     * Reads the direction, wrap mode, justify content mode and alignment of
+     * the given layout, and the flex values and pixel sizes of its children.
+     * Children sized in other units than pixels get an automatic size.
+     * <p>
+     * The gap is not read, since the spacing of the layout themes is defined
+     * by the client side theme. Use {@link #setGap(double)} to set it.
+     *
+     * @param layout
+     *            the layout to read the configuration from, not
+     *            <code>null</code>
+     */
+    public void configure(FlexComponent<?> layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException(
+                    "The 'layout' argument can not be null");
+        }
+        Style style = layout.getStyle();
+        if (layout instanceof VerticalLayout
+                || layout instanceof NativeVerticalLayout) {
+            direction = Direction.COLUMN;
+        } else if (layout instanceof HorizontalLayout
+                || layout instanceof NativeHorizontalLayout) {
+            direction = Direction.ROW;
+        } else {
+            direction = Direction.toDirection(
+                    style.get(FlexConstants.FLEX_DIRECTION_CSS_PROPERTY),
+                    Direction.ROW);
+        }
+        wrapMode = layout instanceof FlexLayout
+                ? ((FlexLayout) layout).getWrapMode()
+                : WrapMode.NOWRAP;
+        justifyContentMode = layout.getJustifyContentMode();
+        if (style.get(FlexConstants.ALIGN_ITEMS_CSS_PROPERTY) != null) {
+            alignItems = layout.getAlignItems();
+        } else if (direction.isColumn() && !(layout instanceof FlexLayout)) {
+            // The vertical layouts align to the start by default
+            alignItems = Alignment.START;
+        } else if (!(layout instanceof FlexLayout)) {
+            // and the horizontal layouts to the baseline
+            alignItems = Alignment.BASELINE;
+        } else {
+            alignItems = Alignment.STRETCH;
+        }
+
+        Element element = layout.getElement();
+        setChildCount(element.getChildCount());
+        for (int i = 0; i < childCount; i++) {
+            Style childStyle = element.getChild(i).getStyle();
+            widths[i] = parsePixels(childStyle.get("width"));
+            heights[i] = parsePixels(childStyle.get("height"));
+            flexGrow[i] = parseNumber(
+                    childStyle.get(FlexConstants.FLEX_GROW_CSS_PROPERTY), 0);
+            flexShrink[i] = parseNumber(
+                    childStyle.get(FlexConstants.FLEX_SHRINK_CSS_PROPERTY), 1);
+            alignSelf[i] = Alignment.toAlignment(
+                    childStyle.get(FlexConstants.ALIGN_SELF_CSS_PROPERTY),
+                    Alignment.AUTO);
+        }
+    }
+
+    /**
+     * Sets the direction of the main axis. The default is
+     * {@link Direction#ROW}.
+     *
+     * @param direction
+     *            the direction, not <code>null</code>
+     */
+    public void setDirection(Direction direction) {
+        if (direction == null) {
+            throw new IllegalArgumentException(
+                    "The 'direction' argument can not be null");
+        }
+        this.direction = direction;
+    }
+
+    /**
+     * Gets the direction of the main axis.
+     *
+     * @return the direction, never <code>null</code>
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Sets the wrap mode. The default is {@link WrapMode#NOWRAP}.
+     *
+     * @param wrapMode
+     *            the wrap mode, not <code>null</code>
+     */
+    public void setWrapMode(WrapMode wrapMode) {
+        if (wrapMode == null) {
+            throw new IllegalArgumentException(
+                    "The 'wrapMode' argument can not be null");
+        }
+        this.wrapMode = wrapMode;
+    }
+
+    /**
+     * Gets the wrap mode.
+     *
+     * @return the wrap mode, never <code>null</code>
+     */
+    public WrapMode getWrapMode() {
+        return wrapMode;
+    }
+
+    /**
+     * Sets the justify content mode. The default is
+     * {@link JustifyContentMode#START}.
+     *
+     * @param justifyContentMode
+     *            the justify content mode, not <code>null</code>
+     */
+    public void setJustifyContentMode(JustifyContentMode justifyContentMode) {
+        if (justifyContentMode == null) {
+            throw new IllegalArgumentException(
+                    "The 'justifyContentMode' argument can not be null");
+        }
+        this.justifyContentMode = justifyContentMode;
+    }
+
+    /**
+     * Gets the justify content mode.
+     *
+     * @return the justify content mode, never <code>null</code>
+     */
+    public JustifyContentMode getJustifyContentMode() {
+        return justifyContentMode;
+    }
+
+    /**
+     * Sets the alignment of the children without an individual alignment. The
+     * default is {@link Alignment#STRETCH}, and {@link Alignment#AUTO} is
+     * treated as {@link Alignment#STRETCH}.
+     *
+     * @param alignItems
+     *            the alignment, not <code>null</code>
+     */
+    public void setAlignItems(Alignment alignItems) {
+        if (alignItems == null) {
+            throw new IllegalArgumentException(
+                    "The 'alignItems' argument can not be null");
+        }
+        this.alignItems = alignItems;
+    }
+
+    /**
+     * Gets the alignment of the children without an individual alignment.
+     *
+     * @return the alignment, never <code>null</code>
+     */
+    public Alignment getAlignItems() {
+        return alignItems;
+    }
+
+    /**
+     * Sets the gap between adjacent children on the same line. The default is
+     * 0.
+     *
+     * @param gap
+     *            the gap in pixels, not negative
+     */
+    public void setGap(double gap) {
+        if (!(gap >= 0)) {
+            throw new IllegalArgumentException(
+                    "The gap cannot be negative: " + gap);
+        }
+        this.gap = gap;
+    }
+
+    /**
+     * Gets the gap between adjacent children on the same line.
+     *
+     * @return the gap in pixels
+     */
+    public double getGap() {
+        return gap;
+    }
+
+    /**
+     * Sets the number of children, and resets every child to an automatic
+     * size, a flex grow of 0, a flex shrink of 1 and {@link Alignment#AUTO}.
+     *
+     * @param childCount
+     *            the number of children, not negative
+     */
+    public void setChildCount(int childCount) {
+        if (childCount < 0) {
+            throw new IllegalArgumentException(
+                    "The child count cannot be negative: " + childCount);
+        }
+        if (childCount > widths.length) {
+            int capacity = Math.max(childCount, widths.length * 2);
+            widths = new double[capacity];
+            heights = new double[capacity];
+            flexGrow = new double[capacity];
+            flexShrink = new double[capacity];
+            alignSelf = new Alignment[capacity];
+            mainPosition = new double[capacity];
+            mainSize = new double[capacity];
+            crossPosition = new double[capacity];
+            crossSize = new double[capacity];
+            frozen = new boolean[capacity];
+            lineStarts = new int[capacity + 1];
+            lineCrossSizes = new double[capacity];
+        }
+        this.childCount = childCount;
+        Arrays.fill(widths, 0, childCount, AUTO);
+        Arrays.fill(heights, 0, childCount, AUTO);
+        Arrays.fill(flexGrow, 0, childCount, 0);
+        Arrays.fill(flexShrink, 0, childCount, 1);
+        Arrays.fill(alignSelf, 0, childCount, Alignment.AUTO);
+        lineCount = 0;
+    }
+
+    /**
+     * Gets the number of children.
+     *
+     * @return the number of children
+     */
+    public int getChildCount() {
+        return childCount;
+    }
+
+    /**
+     * Sets the size hint of a child. A {@link Double#NaN} size is automatic.
+     *
+     * @param index
+     *            the index of the child
+     * @param width
+     *            the width in pixels, or {@link Double#NaN} for an automatic
+     *            width
+     * @param height
+     *            the height in pixels, or {@link Double#NaN} for an automatic
+     *            height
+     */
+    public void setChildSize(int index, double width, double height) {
+        checkIndex(index);
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException(
+                    "The size of a child cannot be negative: " + width + "x"
+                            + height);
+        }
+        widths[index] = width;
+        heights[index] = height;
+    }
+
+    /**
+     * Sets the flex grow of a child. The default is 0.
+     *
+     * @param index
+     *            the index of the child
+     * @param flexGrow
+     *            the flex grow, not negative
+     */
+    public void setFlexGrow(int index, double flexGrow) {
+        checkIndex(index);
+        if (!(flexGrow >= 0)) {
+            throw new IllegalArgumentException(
+                    "Flex grow property cannot be negative");
+        }
+        this.flexGrow[index] = flexGrow;
+    }
+
+    /**
+     * Sets the flex shrink of a child. The default is 1.
+     *
+     * @param index
+     *            the index of the child
+     * @param flexShrink
+     *            the flex shrink, not negative
+     */
+    public void setFlexShrink(int index, double flexShrink) {
+        checkIndex(index);
+        if (!(flexShrink >= 0)) {
+            throw new IllegalArgumentException(
+                    "Flex shrink property cannot be negative");
+        }
+        this.flexShrink[index] = flexShrink;
+    }
+
+    /**
+     * Sets the individual alignment of a child. The default is
+     * {@link Alignment#AUTO}, which uses the alignment of the items.
+     *
+     * @param index
+     *            the index of the child
+     * @param alignment
+     *            the alignment, not <code>null</code>
+     */
+    public void setAlignSelf(int index, Alignment alignment) {
+        checkIndex(index);
+        if (alignment == null) {
+            throw new IllegalArgumentException(
+                    "The 'alignment' argument can not be null");
+        }
+        alignSelf[index] = alignment;
+    }
+
+    /**
+     * Computes the positions and sizes of the children in a container of the
+     * given content size.
+     *
+     * @param width
+     *            the content width of the container in pixels
+     * @param height
+     *            the content height of the container in pixels
+     */
+    public void solve(double width, double height) {
+        if (!(width >= 0) || !(height >= 0)) {
+            throw new IllegalArgumentException(
+                    "The container size must be a non-negative number: "
+                            + width + "x" + height);
+        }
+        column = direction.isColumn();
+        double containerMain = column ? height : width;
+        double containerCross = column ? width : height;
+        double[] mainHints = column ? heights : widths;
+
+        breakLines(containerMain, mainHints);
+        for (int line = 0; line < lineCount; line++) {
+            int start = lineStarts[line];
+            int end = lineStarts[line + 1];
+            resolveFlexibleLengths(start, end, containerMain, mainHints);
+            justify(start, end, containerMain);
+        }
+        alignCross(containerCross, column ? widths : heights);
+    }
+
+    /**
+     * Gets the number of lines of the last solve.
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the horizontal position of a child computed by the last solve,
+     * relative to the content box of the container.
+     *
+     * @param index
+     *            the index of the child
+     * @return the horizontal position in pixels
+     */
+    public double getX(int index) {
+        checkSolved(index);
+        return column ? crossPosition[index] : mainPosition[index];
+    }
+
+    /**
+     * Gets the vertical position of a child computed by the last solve,
+     * relative to the content box of the container.
+     *
+     * @param index
+     *            the index of the child
+     * @return the vertical position in pixels
+     */
+    public double getY(int index) {
+        checkSolved(index);
+        return column ? mainPosition[index] : crossPosition[index];
+    }
+
+    /**
+     * Gets the width of a child computed by the last solve.
+     *
+     * @param index
+     *            the index of the child
+     * @return the width in pixels
+     */
+    public double getWidth(int index) {
+        checkSolved(index);
+        return column ? crossSize[index] : mainSize[index];
+    }
+
+    /**
+     * Gets the height of a child computed by the last solve.
+     *
+     * @param index
+     *            the index of the child
+     * @return the height in pixels
+     */
+    public double getHeight(int index) {
+        checkSolved(index);
+        return column ? mainSize[index] : crossSize[index];
+    }
+
+    /**
+     * Gets the index of the child at the given position in the last solve.
+     * When children overlap, the last one in child order is returned.
+     *
+     * @param x
+     *            the horizontal position in pixels
+     * @param y
+     *            the vertical position in pixels
+     * @return the index of the child, or -1 if there is no child at the
+     *         position
+     */
+    public int getChildAt(double x, double y) {
+        for (int i = childCount - 1; i >= 0 && lineCount > 0; i--) {
+            double left = getX(i);
+            double top = getY(i);
+            if (x >= left && x < left + getWidth(i) && y >= top
+                    && y < top + getHeight(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void breakLines(double containerMain, double[] mainHints) {
+        lineCount = 0;
+        lineStarts[0] = 0;
+        if (childCount == 0) {
+            return;
+        }
+        if (wrapMode == WrapMode.NOWRAP) {
+            lineCount = 1;
+            lineStarts[1] = childCount;
+            return;
+        }
+        double used = 0;
+        int start = 0;
+        for (int i = 0; i < childCount; i++) {
+            double base = baseSize(mainHints[i]);
+            if (i > start && used + gap + base > containerMain) {
+                lineStarts[++lineCount] = i;
+                start = i;
+                used = base;
+            } else {
+                used = i == start ? base : used + gap + base;
+            }
+        }
+        lineStarts[++lineCount] = childCount;
+    }
+
+    private void resolveFlexibleLengths(int start, int end,
+            double containerMain, double[] mainHints) {
+        double free = containerMain - gap * (end - start - 1);
+        double growSum = 0;
+        for (int i = start; i < end; i++) {
+            mainSize[i] = baseSize(mainHints[i]);
+            free -= mainSize[i];
+            growSum += flexGrow[i];
+        }
+        if (free > 0 && growSum > 0) {
+            // A grow sum below one only distributes that part of the space
+            double distributed = growSum < 1 ? free * growSum : free;
+            for (int i = start; i < end; i++) {
+                mainSize[i] += distributed * flexGrow[i] / growSum;
+            }
+        } else if (free < 0) {
+            shrink(start, end, containerMain, mainHints);
+        }
+    }
+
+    private void shrink(int start, int end, double containerMain,
+            double[] mainHints) {
+        for (int i = start; i < end; i++) {
+            frozen[i] = flexShrink[i] == 0 || mainSize[i] == 0;
+        }
+        boolean violated = true;
+        while (violated) {
+            violated = false;
+            double free = containerMain - gap * (end - start - 1);
+            double scaledSum = 0;
+            for (int i = start; i < end; i++) {
+                if (frozen[i]) {
+                    free -= mainSize[i];
+                } else {
+                    double base = baseSize(mainHints[i]);
+                    free -= base;
+                    scaledSum += flexShrink[i] * base;
+                }
+            }
+            if (free >= 0 || scaledSum == 0) {
+                for (int i = start; i < end; i++) {
+                    if (!frozen[i]) {
+                        mainSize[i] = baseSize(mainHints[i]);
+                    }
+                }
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                if (!frozen[i]) {
+                    double base = baseSize(mainHints[i]);
+                    mainSize[i] = base + free * flexShrink[i] * base / scaledSum;
+                    if (mainSize[i] < 0) {
+                        mainSize[i] = 0;
+                        frozen[i] = true;
+                        violated = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private void justify(int start, int end, double containerMain) {
+        int count = end - start;
+        double remaining = containerMain - gap * (count - 1);
+        for (int i = start; i < end; i++) {
+            remaining -= mainSize[i];
+        }
+        double leading = 0;
+        double between = 0;
+        switch (justifyContentMode) {
+        case END:
+            leading = remaining;
+            break;
+        case CENTER:
+            leading = remaining / 2;
+            break;
+        case BETWEEN:
+            if (remaining > 0 && count > 1) {
+                between = remaining / (count - 1);
+            }
+            break;
+        case AROUND:
+            if (remaining > 0) {
+                between = remaining / count;
+                leading = between / 2;
+            } else {
+                leading = remaining / 2;
+            }
+            break;
+        case EVENLY:
+            if (remaining > 0) {
+                between = remaining / (count + 1);
+                leading = between;
+            } else {
+                leading = remaining / 2;
+            }
+            break;
+        default:
+            break;
+        }
+        double position = leading;
+        boolean reverse = direction.isReverse();
+        for (int i = start; i < end; i++) {
+            mainPosition[i] = reverse ? containerMain - position - mainSize[i]
+                    : position;
+            position += mainSize[i] + gap + between;
+        }
+    }
+
+    private void alignCross(double containerCross, double[] crossHints) {
+        if (lineCount == 0) {
+            return;
+        }
+        if (wrapMode == WrapMode.NOWRAP) {
+            lineCrossSizes[0] = containerCross;
+        } else {
+            double extra = containerCross;
+            for (int line = 0; line < lineCount; line++) {
+                double lineCross = 0;
+                for (int i = lineStarts[line]; i < lineStarts[line
+                        + 1]; i++) {
+                    lineCross = Math.max(lineCross, baseSize(crossHints[i]));
+                }
+                lineCrossSizes[line] = lineCross;
+                extra -= lineCross;
+            }
+            if (extra > 0) {
+                // Lines are stretched as with the default align-content
+                for (int line = 0; line < lineCount; line++) {
+                    lineCrossSizes[line] += extra / lineCount;
+                }
+            }
+        }
+
+        boolean reverse = wrapMode == WrapMode.WRAP_REVERSE;
+        double lineOffset = 0;
+        for (int line = 0; line < lineCount; line++) {
+            double lineCross = lineCrossSizes[line];
+            double lineStart = reverse
+                    ? containerCross - lineOffset - lineCross
+                    : lineOffset;
+            for (int i = lineStarts[line]; i < lineStarts[line + 1]; i++) {
+                alignItem(i, lineStart, lineCross, crossHints[i], reverse);
+            }
+            lineOffset += lineCross;
+        }
+    }
+
+    private void alignItem(int index, double lineStart, double lineCross,
+            double crossHint, boolean reverse) {
+        Alignment alignment = alignSelf[index] == Alignment.AUTO ? alignItems
+                : alignSelf[index];
+        if (alignment == Alignment.AUTO) {
+            alignment = Alignment.STRETCH;
+        } else if (alignment == Alignment.BASELINE) {
+            alignment = Alignment.START;
+        }
+        if (alignment == Alignment.STRETCH) {
+            if (Double.isNaN(crossHint)) {
+                crossPosition[index] = lineStart;
+                crossSize[index] = lineCross;
+                return;
+            }
+            alignment = Alignment.START;
+        }
+        // The cross start and end are swapped when wrapping in reverse
+        if (reverse && alignment != Alignment.CENTER) {
+            alignment = alignment == Alignment.START ? Alignment.END
+                    : Alignment.START;
+        }
+        double size = baseSize(crossHint);
+        crossSize[index] = size;
+        switch (alignment) {
+        case END:
+            crossPosition[index] = lineStart + lineCross - size;
+            break;
+        case CENTER:
+            crossPosition[index] = lineStart + (lineCross - size) / 2;
+            break;
+        default:
+            crossPosition[index] = lineStart;
+            break;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= childCount) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", child count: " + childCount);
+        }
+    }
+
+    private void checkSolved(int index) {
+        checkIndex(index);
+        if (lineCount == 0) {
+            throw new IllegalStateException(
+                    "The layout has not been solved since the children were set");
+        }
+    }
+
+    private static double baseSize(double hint) {
+        return Double.isNaN(hint) ? 0 : hint;
+    }
+
+    private static double parsePixels(String value) {
+        if (value == null || !value.endsWith("px")) {
+            return AUTO;
+        }
+        double pixels = parseNumber(value.substring(0, value.length() - 2),
+                AUTO);
+        return pixels >= 0 ? pixels : AUTO;
+    }
+
+    private static double parseNumber(String value, double defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.util.EnumSet;
+
+import com.vaadin.flow.component.HasElement;
+
+/**
+ * Rendering hints for layouts, which let the browser skip the style, layout
+ * and paint work of the layout contents while they are not needed.
+ * <p>
+ * The hints are useful for long pages built of many independent sections,
+ * e.g. a {@link VerticalLayout} with hundreds of child layouts: with
+ * {@link #setContentVisibilityAuto(boolean) content-visibility: auto} the
+ * sections outside of the viewport are not rendered at all until they are
+ * scrolled into view, without any changes to the server-side component tree.
+ * <p>
+ * <b>Note:</b> The hints have effect only in browsers which support the
+ * corresponding CSS properties, other browsers ignore them.
+ *
+ * @author Vaadin Ltd.
+ */
+public interface HasContainment extends HasElement {
+
+    /**
+     * Sets the {@code contain} CSS property of the layout.
+     *
+     * @param containment
+     *            the containment types to apply, not <code>null</code>. An
+     *            empty set removes the containment
+     * @throws IllegalArgumentException
+     *             if {@link Containment#CONTENT} is combined with other types,
+     *             which is not a valid CSS value
+     * @see Containment
+     */
+    default void setContainment(EnumSet<Containment> containment) {
+        if (containment == null) {
+            throw new IllegalArgumentException(
+                    "The 'containment' argument can not be null");
+        }
+        if (containment.contains(Containment.CONTENT)
+                && containment.size() > 1) {
+            throw new IllegalArgumentException(
+                    "Containment CONTENT can not be combined with other types: "
+                            + containment);
+        }
+        String value = null;
+        if (!containment.isEmpty()) {
+            StringBuilder builder = new StringBuilder();
+            for (Containment type : containment) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(type.getCssValue());
+            }
+            value = builder.toString();
+        }
+        LayoutWrites.setStyle(this, "setContainment",
+                FlexConstants.CONTAIN_CSS_PROPERTY, value);
+    }
+
+    /**
+     * Gets the containment types defined for the layout on the server-side.
+     * Values not defined by {@link Containment} are ignored.
+     *
+     * @return the containment types, never <code>null</code>
+     */
+    default EnumSet<Containment> getContainment() {
+        EnumSet<Containment> containment = EnumSet.noneOf(Containment.class);
+        String value = getElement().getStyle()
+                .get(FlexConstants.CONTAIN_CSS_PROPERTY);
+        if (value != null) {
+            for (String cssValue : value.trim().split("\\s+")) {
+                Containment type = Containment.toContainment(cssValue);
+                if (type != null) {
+                    containment.add(type);
+                }
+            }
+        }
+        return containment;
+    }
+
+    /**
+     * Toggles {@code content-visibility: auto} for the layout. The browser
+     * then skips rendering the contents of the layout while it is off-screen,
+     * and applies layout, paint and style containment to it.
+     * <p>
+     * While the contents are skipped, the layout is sized as if it was empty.
+     * Use {@link #setContainIntrinsicSize(String)} to give it a placeholder
+     * size, so that the scroll position doesn't jump when the contents are
+     * rendered.
+     *
+     * @param auto
+     *            <code>true</code> to set {@code content-visibility: auto},
+     *            <code>false</code> to remove it
+     */
+    default void setContentVisibilityAuto(boolean auto) {
+        LayoutWrites.setStyle(this, "setContentVisibilityAuto",
+                FlexConstants.CONTENT_VISIBILITY_CSS_PROPERTY,
+                auto ? "auto" : null);
+    }
+
+    /**
+     * Checks whether {@code content-visibility: auto} is set for the layout.
+     *
+     * @return <code>true</code> if the contents are rendered only when the
+     *         layout is on-screen, <code>false</code> otherwise
+     */
+    default boolean isContentVisibilityAuto() {
+        return "auto".equals(getElement().getStyle()
+                .get(FlexConstants.CONTENT_VISIBILITY_CSS_PROPERTY));
+    }
+
+    /**
+     * Sets the {@code contain-intrinsic-size} CSS property of the layout, the
+     * placeholder size used while the contents are not rendered, e.g.
+     * {@code "auto 300px"} to use the last rendered size and 300 pixels before
+     * the first rendering.
+     *
+     * @param intrinsicSize
+     *            the CSS value of the placeholder size, or <code>null</code>
+     *            to remove it
+     * @see #setContentVisibilityAuto(boolean)
+     */
+    default void setContainIntrinsicSize(String intrinsicSize) {
+        LayoutWrites.setStyle(this, "setContainIntrinsicSize",
+                FlexConstants.CONTAIN_INTRINSIC_SIZE_CSS_PROPERTY,
+                intrinsicSize);
+    }
+
+    /**
+     * Gets the {@code contain-intrinsic-size} CSS property of the layout.
+     *
+     * @return the CSS value of the placeholder size, or <code>null</code> if
+     *         none was set
+     */
+    default String getContainIntrinsicSize() {
+        return getElement().getStyle()
+                .get(FlexConstants.CONTAIN_INTRINSIC_SIZE_CSS_PROPERTY);
+    }
+}
@@ -15,8 +15,11 @@
  */
 package com.vaadin.flow.component.orderedlayout;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ClickNotifier;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.HasElement;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.dependency.HtmlImport;
@@ -28,6 +31,7 @@ import com.vaadin.flow.component.dependency.HtmlImport;
  */
 @Tag("vaadin-horizontal-layout")
 @HtmlImport("frontend://bower_components/vaadin-ordered-layout/src/vaadin-horizontal-layout.html")
+@HtmlImport("frontend://vaadin-ordered-layout-flow/layout-density.html")
 public class HorizontalLayout extends Component
         implements ThemableLayout, FlexComponent<HorizontalLayout>, ClickNotifier<HorizontalLayout> {
 
@@ -35,7 +39,9 @@ public class HorizontalLayout extends Component
      * Constructs an empty layout with spacing on by default.
      */
     public HorizontalLayout() {
+        Object event = LayoutEvents.beginConstruction();
         setSpacing(true);
+        LayoutEvents.endConstruction(event, this);
     }
 
     /**
@@ -208,4 +214,29 @@ public class HorizontalLayout extends Component
         // that should be used and has better javadocs.
         return FlexComponent.super.getAlignSelf(container);
     }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        LayoutEvents.attached(this);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        LayoutEvents.detached(this);
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Checks whether the layout has listeners for the given event type, for
+     * {@link LayoutListeners}.
+     *
+     * @param eventType
+     *            the event type
+     * @return <code>true</code> if there are listeners for the event type,
+     *         <code>false</code> otherwise
+     */
+    boolean isListening(Class<? extends ComponentEvent<?>> eventType) {
+        return hasListener(eventType);
+    }
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.vaadin.flow.component.Component;
+
+/**
+ * A {@link LayoutMetrics} implementation which aggregates the metrics of all
+ * the layouts in the JVM and exposes them as a JMX MBean named
+ * {@value #OBJECT_NAME}.
+ * <p>
+ * Use {@link #install()} to register the MBean and to activate the metrics.
+ * Since the amounts of live layouts are counted on attach and detach, layouts
+ * which are already attached when the metrics are installed are not counted.
+ *
+ * @author Vaadin Ltd.
+ * @see JmxLayoutMetricsMXBean
+ */
+public class JmxLayoutMetrics implements LayoutMetrics, JmxLayoutMetricsMXBean {
+
+    /**
+     * The object name of the MBean.
+     */
+    public static final String OBJECT_NAME = "com.vaadin.flow.component.orderedlayout:type=LayoutMetrics";
+
+    private static final int[] BUCKET_LIMITS = { 0, 1, 5, 10, 50, 100, 500,
+            1000 };
+
+    private final Map<Class<?>, LongAdder> liveLayouts = new ConcurrentHashMap<>();
+    private final LongAdder[] childCountHistogram = new LongAdder[BUCKET_LIMITS.length
+            + 1];
+    private final LongAdder mutationCount = new LongAdder();
+    private final LongAdder mutationTime = new LongAdder();
+    private final LongAdder bulkOperationCount = new LongAdder();
+    private final LongAdder bulkOperationElementCount = new LongAdder();
+    private final LongAdder bulkOperationTime = new LongAdder();
+    private final Map<String, LongAdder> suppressedWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new metrics instance. The instance is not active until it is
+     * set with {@link LayoutMetrics#setInstance(LayoutMetrics)}.
+     *
+     * @see #install()
+     */
+    public JmxLayoutMetrics() {
+        for (int i = 0; i < childCountHistogram.length; i++) {
+            childCountHistogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Creates a new metrics instance, registers it as the MBean
+     * {@value #OBJECT_NAME} to the platform MBean server, replacing any
+     * previously registered one, and sets it as the active
+     * {@link LayoutMetrics}.
+     *
+     * @return the installed metrics instance, never <code>null</code>
+     */
+    public static JmxLayoutMetrics install() {
+        JmxLayoutMetrics metrics = new JmxLayoutMetrics();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(metrics, name);
+        } catch (JMException e) {
+            throw new IllegalStateException(
+                    "Unable to register the layout metrics MBean", e);
+        }
+        LayoutMetrics.setInstance(metrics);
+        return metrics;
+    }
+
+    /**
+     * Unregisters the MBean {@value #OBJECT_NAME}, and deactivates the metrics
+     * if a {@link JmxLayoutMetrics} instance is active.
+     */
+    public static void uninstall() {
+        if (LayoutMetrics.getInstance()
+                .filter(JmxLayoutMetrics.class::isInstance).isPresent()) {
+            LayoutMetrics.setInstance(null);
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(
+                    "Unable to unregister the layout metrics MBean", e);
+        }
+    }
+
+    @Override
+    public void layoutAttached(Class<? extends Component> layoutType,
+            int childCount) {
+        liveLayouts.computeIfAbsent(layoutType, type -> new LongAdder())
+                .increment();
+        sampleChildCount(childCount);
+    }
+
+    @Override
+    public void layoutDetached(Class<? extends Component> layoutType,
+            int childCount) {
+        liveLayouts.computeIfAbsent(layoutType, type -> new LongAdder())
+                .decrement();
+    }
+
+    @Override
+    public void childrenChanged(Class<? extends Component> layoutType,
+            String operation, int affectedCount, int childCount, long nanos) {
+        mutationCount.increment();
+        mutationTime.add(nanos);
+        sampleChildCount(childCount);
+    }
+
+    @Override
+    public void bulkOperation(Class<? extends Component> layoutType,
+            String operation, int elementCount, long nanos) {
+        bulkOperationCount.increment();
+        bulkOperationElementCount.add(elementCount);
+        bulkOperationTime.add(nanos);
+    }
+
+    @Override
+    public void writesSuppressed(Class<? extends Component> layoutType,
+            String operation, int count) {
+        suppressedWrites.computeIfAbsent(operation, key -> new LongAdder())
+                .add(count);
+    }
+
+    @Override
+    public Map<String, Long> getLiveLayouts() {
+        Map<String, Long> result = new TreeMap<>();
+        liveLayouts.forEach((type, count) -> result.put(type.getName(),
+                count.sum()));
+        return result;
+    }
+
+    @Override
+    public long getLiveVerticalLayouts() {
+        return getLiveLayouts(VerticalLayout.class);
+    }
+
+    @Override
+    public long getLiveHorizontalLayouts() {
+        return getLiveLayouts(HorizontalLayout.class);
+    }
+
+    @Override
+    public long getLiveFlexLayouts() {
+        return getLiveLayouts(FlexLayout.class);
+    }
+
+    @Override
+    public Map<String, Long> getChildCountHistogram() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        int lower = 0;
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            int upper = BUCKET_LIMITS[i];
+            result.put(lower == upper ? String.valueOf(upper)
+                    : lower + "-" + upper, childCountHistogram[i].sum());
+            lower = upper + 1;
+        }
+        result.put(lower + "+",
+                childCountHistogram[BUCKET_LIMITS.length].sum());
+        return result;
+    }
+
+    @Override
+    public long getMutationCount() {
+        return mutationCount.sum();
+    }
+
+    @Override
+    public long getMutationTimeNanos() {
+        return mutationTime.sum();
+    }
+
+    @Override
+    public long getBulkOperationCount() {
+        return bulkOperationCount.sum();
+    }
+
+    @Override
+    public long getBulkOperationElementCount() {
+        return bulkOperationElementCount.sum();
+    }
+
+    @Override
+    public long getBulkOperationTimeNanos() {
+        return bulkOperationTime.sum();
+    }
+
+    @Override
+    public long getSuppressedWriteCount() {
+        return suppressedWrites.values().stream().mapToLong(LongAdder::sum)
+                .sum();
+    }
+
+    @Override
+    public Map<String, Long> getSuppressedWrites() {
+        Map<String, Long> result = new TreeMap<>();
+        suppressedWrites.forEach(
+                (operation, count) -> result.put(operation, count.sum()));
+        return result;
+    }
+
+    @Override
+    public void resetCounters() {
+        for (LongAdder bucket : childCountHistogram) {
+            bucket.reset();
+        }
+        mutationCount.reset();
+        mutationTime.reset();
+        bulkOperationCount.reset();
+        bulkOperationElementCount.reset();
+        bulkOperationTime.reset();
+        suppressedWrites.values().forEach(LongAdder::reset);
+    }
+
+    private long getLiveLayouts(Class<?> layoutType) {
+        LongAdder count = liveLayouts.get(layoutType);
+        return count == null ? 0 : count.sum();
+    }
+
+    private void sampleChildCount(int childCount) {
+        int bucket = 0;
+        while (bucket < BUCKET_LIMITS.length
+                && childCount > BUCKET_LIMITS[bucket]) {
+            bucket++;
+        }
+        childCountHistogram[bucket].increment();
+    }
+}
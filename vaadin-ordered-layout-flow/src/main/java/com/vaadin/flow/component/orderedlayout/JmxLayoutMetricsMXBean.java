@@ -0,0 +1,122 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link JmxLayoutMetrics}. All the values are
+ * aggregated over the whole JVM.
+ *
+ * @author Vaadin Ltd.
+ */
+public interface JmxLayoutMetricsMXBean {
+
+    /**
+     * Gets the amount of attached layouts, by the class name of the layout.
+     *
+     * @return the amount of attached layouts by type
+     */
+    Map<String, Long> getLiveLayouts();
+
+    /**
+     * Gets the amount of attached {@link VerticalLayout} instances.
+     *
+     * @return the amount of attached vertical layouts
+     */
+    long getLiveVerticalLayouts();
+
+    /**
+     * Gets the amount of attached {@link HorizontalLayout} instances.
+     *
+     * @return the amount of attached horizontal layouts
+     */
+    long getLiveHorizontalLayouts();
+
+    /**
+     * Gets the amount of attached {@link FlexLayout} instances.
+     *
+     * @return the amount of attached flex layouts
+     */
+    long getLiveFlexLayouts();
+
+    /**
+     * Gets the histogram of the amount of children per layout, sampled when a
+     * layout is attached and after each change of its children. The keys are
+     * the bucket ranges, e.g. {@code "6-10"}.
+     *
+     * @return the amount of samples by bucket
+     */
+    Map<String, Long> getChildCountHistogram();
+
+    /**
+     * Gets the total amount of child additions, removals and replacements.
+     *
+     * @return the amount of mutations
+     */
+    long getMutationCount();
+
+    /**
+     * Gets the total time spent in child additions, removals and replacements.
+     *
+     * @return the time spent in mutations, in nanoseconds
+     */
+    long getMutationTimeNanos();
+
+    /**
+     * Gets the total amount of bulk flex property operations.
+     *
+     * @return the amount of bulk operations
+     */
+    long getBulkOperationCount();
+
+    /**
+     * Gets the total amount of element containers affected by bulk flex
+     * property operations.
+     *
+     * @return the amount of elements affected by bulk operations
+     */
+    long getBulkOperationElementCount();
+
+    /**
+     * Gets the total time spent in bulk flex property operations.
+     *
+     * @return the time spent in bulk operations, in nanoseconds
+     */
+    long getBulkOperationTimeNanos();
+
+    /**
+     * Gets the total amount of style and theme writes skipped by the layout
+     * setters because the value didn't change.
+     *
+     * @return the amount of suppressed writes
+     */
+    long getSuppressedWriteCount();
+
+    /**
+     * Gets the amounts of suppressed writes by the name of the setter, e.g.
+     * {@code "setAlignItems"}.
+     *
+     * @return the amounts of suppressed writes by setter name
+     */
+    Map<String, Long> getSuppressedWrites();
+
+    /**
+     * Resets the histogram, the mutation counters, the bulk operation counters
+     * and the suppressed write counters. The amounts of live layouts are kept.
+     */
+    void resetCounters();
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableRunnable;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Binds the flex properties and the theme variants of a layout to
+ * {@link LayoutValue}s, coalescing the changes of each property.
+ * <p>
+ * A bound property is written once when it is bound. After that, the changes
+ * of the value are not written right away: the latest value of each changed
+ * property is written once before the next response to the client, so any
+ * amount of changes to the same property during a request or a push cycle
+ * results in a single write. The changes of all the bound theme variants are
+ * written as a single update of the {@code theme} attribute. {@link #flush()}
+ * writes the pending changes immediately.
+ * <p>
+ * Each property can be bound to one value at a time; binding a property again
+ * replaces the previous binding.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutBindings implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object THEME_KEY = "theme";
+
+    private static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object target;
+        private final String property;
+
+        private Key(Object target, String property) {
+            this.target = target;
+            this.property = property;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return target.equals(other.target)
+                    && property.equals(other.property);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, property);
+        }
+    }
+
+    private final FlexComponent<?> layout;
+    private final Map<Object, Registration> bindings = new LinkedHashMap<>();
+    private final Map<Object, SerializableRunnable> pendingWrites = new LinkedHashMap<>();
+    private final Map<LayoutTheme, LayoutValue<Boolean>> themeVariants = new EnumMap<>(
+            LayoutTheme.class);
+    private boolean flushScheduled;
+
+    /**
+     * Creates bindings for the given layout.
+     *
+     * @param layout
+     *            the layout to bind, not <code>null</code>
+     */
+    public LayoutBindings(FlexComponent<?> layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException(
+                    "The 'layout' argument can not be null");
+        }
+        this.layout = layout;
+    }
+
+    /**
+     * Binds the flex grow of a child of the layout to the given value. A
+     * <code>null</code> value is written as 0.
+     *
+     * @param child
+     *            the child to bind, not <code>null</code>
+     * @param flexGrow
+     *            the value to bind to, not <code>null</code>
+     * @return a registration for removing the binding
+     * @see FlexComponent#setFlexGrow(double, HasElement...)
+     */
+    public Registration bindFlexGrow(HasElement child,
+            LayoutValue<? extends Number> flexGrow) {
+        return bind(new Key(getElement(child), "flexGrow"), flexGrow,
+                value -> layout.setFlexGrow(
+                        value == null ? 0 : value.doubleValue(), child));
+    }
+
+    /**
+     * Binds the individual alignment of a child of the layout to the given
+     * value. A <code>null</code> value resets the alignment.
+     *
+     * @param child
+     *            the child to bind, not <code>null</code>
+     * @param alignSelf
+     *            the value to bind to, not <code>null</code>
+     * @return a registration for removing the binding
+     * @see FlexComponent#setAlignSelf(Alignment, HasElement...)
+     */
+    public Registration bindAlignSelf(HasElement child,
+            LayoutValue<Alignment> alignSelf) {
+        return bind(new Key(getElement(child), "alignSelf"), alignSelf,
+                value -> layout.setAlignSelf(value, child));
+    }
+
+    /**
+     * Binds the default alignment of the children of the layout to the given
+     * value. A <code>null</code> value resets the alignment.
+     *
+     * @param alignItems
+     *            the value to bind to, not <code>null</code>
+     * @return a registration for removing the binding
+     * @see FlexComponent#setAlignItems(Alignment)
+     */
+    public Registration bindAlignItems(LayoutValue<Alignment> alignItems) {
+        return bind(new Key(layout.getElement(), "alignItems"), alignItems,
+                layout::setAlignItems);
+    }
+
+    /**
+     * Binds the justify content mode of the layout to the given value. A
+     * <code>null</code> value is written as {@link JustifyContentMode#START}.
+     *
+     * @param justifyContentMode
+     *            the value to bind to, not <code>null</code>
+     * @return a registration for removing the binding
+     * @see FlexComponent#setJustifyContentMode(JustifyContentMode)
+     */
+    public Registration bindJustifyContentMode(
+            LayoutValue<JustifyContentMode> justifyContentMode) {
+        return bind(new Key(layout.getElement(), "justifyContentMode"),
+                justifyContentMode,
+                value -> layout.setJustifyContentMode(
+                        value == null ? JustifyContentMode.START : value));
+    }
+
+    /**
+     * Binds the wrap mode of the layout, which must be a {@link FlexLayout},
+     * to the given value. A <code>null</code> value is written as
+     * {@link WrapMode#NOWRAP}.
+     *
+     * @param wrapMode
+     *            the value to bind to, not <code>null</code>
+     * @return a registration for removing the binding
+     * @see FlexLayout#setWrapMode(WrapMode)
+     */
+    public Registration bindWrapMode(LayoutValue<WrapMode> wrapMode) {
+        if (!(layout instanceof FlexLayout)) {
+            throw new IllegalArgumentException(
+                    "Only the wrap mode of a FlexLayout can be bound");
+        }
+        FlexLayout flexLayout = (FlexLayout) layout;
+        return bind(new Key(layout.getElement(), "wrapMode"), wrapMode,
+                value -> flexLayout.setWrapMode(
+                        value == null ? WrapMode.NOWRAP : value));
+    }
+
+    /**
+     * Binds a theme variant of the layout, which must be a
+     * {@link ThemableLayout}, to the given value. The variant is applied when
+     * the value is <code>true</code>. Applying a spacing variant removes the
+     * other spacing variants.
+     *
+     * @param variant
+     *            the variant to bind, not <code>null</code>
+     * @param enabled
+     *            the value to bind to, not <code>null</code>
+     * @return a registration for removing the binding
+     * @see ThemableLayout#setThemeVariants(EnumSet)
+     */
+    public Registration bindThemeVariant(LayoutTheme variant,
+            LayoutValue<Boolean> enabled) {
+        if (!(layout instanceof ThemableLayout)) {
+            throw new IllegalArgumentException(
+                    "Only the theme variants of a ThemableLayout can be bound");
+        }
+        if (variant == null) {
+            throw new IllegalArgumentException(
+                    "The 'variant' argument can not be null");
+        }
+        if (enabled == null) {
+            throw new IllegalArgumentException(
+                    "The 'enabled' argument can not be null");
+        }
+        Key key = new Key(variant, "themeVariant");
+        removeBinding(key);
+        themeVariants.put(variant, enabled);
+        writeThemeVariants();
+        Registration listener = enabled.addValueChangeListener(
+                value -> schedule(THEME_KEY, this::writeThemeVariants));
+        bindings.put(key, () -> {
+            listener.remove();
+            themeVariants.remove(variant);
+        });
+        return () -> removeBinding(key);
+    }
+
+    /**
+     * Writes the pending changes immediately, instead of before the next
+     * response to the client.
+     */
+    public void flush() {
+        flushScheduled = false;
+        while (!pendingWrites.isEmpty()) {
+            Object key = pendingWrites.keySet().iterator().next();
+            pendingWrites.remove(key).run();
+        }
+    }
+
+    /**
+     * Checks whether there are changes which have not been written yet.
+     *
+     * @return <code>true</code> if there are pending changes,
+     *         <code>false</code> otherwise
+     */
+    public boolean hasPendingChanges() {
+        return !pendingWrites.isEmpty();
+    }
+
+    private <T> Registration bind(Key key, LayoutValue<T> value,
+            SerializableConsumer<T> writer) {
+        if (value == null) {
+            throw new IllegalArgumentException(
+                    "The bound value can not be null");
+        }
+        removeBinding(key);
+        SerializableRunnable write = () -> writer.accept(value.get());
+        write.run();
+        Registration listener = value
+                .addValueChangeListener(changed -> schedule(key, write));
+        bindings.put(key, () -> {
+            listener.remove();
+            pendingWrites.remove(key);
+        });
+        return () -> removeBinding(key);
+    }
+
+    private void removeBinding(Object key) {
+        Registration binding = bindings.remove(key);
+        if (binding != null) {
+            binding.remove();
+        }
+    }
+
+    private void schedule(Object key, SerializableRunnable write) {
+        pendingWrites.put(key, write);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            StateNode node = layout.getElement().getNode();
+            node.runWhenAttached(ui -> ui.getInternals().getStateTree()
+                    .beforeClientResponse(node, context -> flush()));
+        }
+    }
+
+    private void writeThemeVariants() {
+        ThemableLayout themable = (ThemableLayout) layout;
+        EnumSet<LayoutTheme> variants = themable.getThemeVariants();
+        themeVariants.forEach((variant, enabled) -> {
+            if (Boolean.TRUE.equals(enabled.get())) {
+                if (variant.isSpacing()) {
+                    variants.removeIf(LayoutTheme::isSpacing);
+                }
+                variants.add(variant);
+            } else {
+                variants.remove(variant);
+            }
+        });
+        themable.setThemeVariants(variants);
+    }
+
+    private static Object getElement(HasElement child) {
+        if (child == null) {
+            throw new IllegalArgumentException(
+                    "The 'child' argument can not be null");
+        }
+        return child.getElement();
+    }
+}
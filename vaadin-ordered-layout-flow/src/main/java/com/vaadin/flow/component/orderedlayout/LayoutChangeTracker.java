@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateNode;
+
+/**
+ * Tracks the changes of a layout between checkpoints, for replicating the
+ * layout incrementally.
+ * <p>
+ * The tracker keeps the {@link LayoutState} of the latest checkpoint.
+ * {@link #createDelta()} compares the current state of the layout with it and
+ * returns only the changed layout level values, the new child order and the
+ * flex values of the changed children, and makes the current state the new
+ * checkpoint. The replica applies the delta to its copy of the previous
+ * checkpoint with {@link LayoutDelta#applyTo(LayoutState)}. When most of the
+ * state changed, the delta falls back to a full snapshot.
+ * <p>
+ * Changes are detected by comparing states, so any change is tracked
+ * regardless of how it was made, at the cost of one pass over the children per
+ * delta.
+ * <p>
+ * The tracker is not serializable, since it holds the layout and the identity
+ * of its children at the latest checkpoint. Keep it in a transient field, and
+ * after deserialization create a new tracker and send its checkpoint to the
+ * replica as a full snapshot.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutChangeTracker {
+
+    private final FlexComponent<?> layout;
+    private LayoutState checkpoint;
+    private StateNode[] checkpointChildren;
+
+    /**
+     * Creates a tracker for a layout, with its current state as the first
+     * checkpoint.
+     *
+     * @param layout
+     *            the layout to track, not <code>null</code>
+     * @see #getCheckpoint()
+     */
+    public LayoutChangeTracker(FlexComponent<?> layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException(
+                    "The 'layout' argument can not be null");
+        }
+        this.layout = layout;
+        checkpoint();
+    }
+
+    /**
+     * Makes the current state of the layout the checkpoint, discarding any
+     * changes since the previous one.
+     *
+     * @return the state of the new checkpoint, to be sent as a full snapshot
+     */
+    public LayoutState checkpoint() {
+        checkpoint = LayoutState.capture(layout);
+        checkpointChildren = getChildren();
+        return checkpoint;
+    }
+
+    /**
+     * Gets the state of the latest checkpoint.
+     *
+     * @return the state of the latest checkpoint, never <code>null</code>
+     */
+    public LayoutState getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Creates a delta of the changes since the latest checkpoint, and makes
+     * the current state the checkpoint.
+     *
+     * @return the changes since the previous checkpoint, never
+     *         <code>null</code>
+     */
+    public LayoutDelta createDelta() {
+        LayoutState current = LayoutState.capture(layout);
+        StateNode[] children = getChildren();
+
+        Map<StateNode, Integer> previousIndices = new IdentityHashMap<>(
+                checkpointChildren.length);
+        for (int i = 0; i < checkpointChildren.length; i++) {
+            previousIndices.put(checkpointChildren[i], i);
+        }
+        int[] order = new int[children.length];
+        for (int i = 0; i < children.length; i++) {
+            order[i] = previousIndices.getOrDefault(children[i], -1);
+        }
+
+        LayoutDelta delta = LayoutDelta.create(checkpoint, current, order);
+        checkpoint = current;
+        checkpointChildren = children;
+        return delta;
+    }
+
+    private StateNode[] getChildren() {
+        Element element = layout.getElement();
+        int[] indices = LayoutState.getComponentChildIndices(element);
+        StateNode[] children = new StateNode[indices.length];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = element.getChild(indices[i]).getNode();
+        }
+        return children;
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * The changes of a layout between two checkpoints of a
+ * {@link LayoutChangeTracker}: the layout level values if any of them
+ * changed, the new child order if it changed, and the flex values of the
+ * changed children. When the changes would take more space than the whole
+ * state, the delta contains a full {@link LayoutState} snapshot instead.
+ * <p>
+ * A replica keeping the {@link LayoutState} of the previous checkpoint gets the
+ * state of the new checkpoint with {@link #applyTo(LayoutState)}.
+ *
+ * @author Vaadin Ltd.
+ * @see LayoutChangeTracker
+ */
+public final class LayoutDelta implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int KIND_DELTA = 0;
+    private static final int KIND_SNAPSHOT = 1;
+
+    private static final int HEADER_CHANGED = 1;
+    private static final int ORDER_CHANGED = 1 << 1;
+
+    private LayoutState snapshot;
+    private LayoutState header;
+    private int[] order;
+    private LayoutState values;
+    private int[] changed = new int[0];
+
+    /**
+     * Creates an empty delta. Only for deserialization, deltas are created
+     * with {@link LayoutChangeTracker#createDelta()}.
+     */
+    public LayoutDelta() {
+        // for Externalizable
+    }
+
+    /**
+     * Creates a delta, or a snapshot if the delta would not be smaller.
+     *
+     * @param base
+     *            the state of the previous checkpoint
+     * @param current
+     *            the current state
+     * @param order
+     *            for each current child the index of the same child in the
+     *            base state, or {@code -1} for new children
+     * @return the delta
+     */
+    static LayoutDelta create(LayoutState base, LayoutState current,
+            int[] order) {
+        LayoutDelta delta = new LayoutDelta();
+        if (!current.headerEquals(base)) {
+            delta.header = current;
+        }
+        boolean orderChanged = order.length != base.getChildCount();
+        int[] changed = new int[order.length];
+        int changedCount = 0;
+        for (int i = 0; i < order.length; i++) {
+            orderChanged |= order[i] != i;
+            boolean childChanged = order[i] < 0 ? !current.isDefaultChild(i)
+                    : !current.childEquals(i, base, order[i]);
+            if (childChanged) {
+                changed[changedCount++] = i;
+            }
+        }
+        if (orderChanged) {
+            delta.order = order;
+        }
+        delta.changed = Arrays.copyOf(changed, changedCount);
+        delta.values = new LayoutState().copyHeader(changedCount);
+        for (int i = 0; i < changedCount; i++) {
+            delta.values.copyChild(i, current, changed[i]);
+        }
+
+        if (delta.getSize() >= current.getSize()) {
+            LayoutDelta snapshot = new LayoutDelta();
+            snapshot.snapshot = current;
+            return snapshot;
+        }
+        return delta;
+    }
+
+    /**
+     * Applies this delta to the state of the previous checkpoint.
+     *
+     * @param base
+     *            the state of the previous checkpoint, not <code>null</code>
+     * @return the state of the checkpoint this delta leads to
+     * @throws IllegalArgumentException
+     *             if the base state does not match the delta
+     */
+    public LayoutState applyTo(LayoutState base) {
+        if (base == null) {
+            throw new IllegalArgumentException(
+                    "The 'base' argument can not be null");
+        }
+        if (snapshot != null) {
+            return snapshot;
+        }
+        int childCount = getChildCount(base);
+        LayoutState result = (header == null ? base : header)
+                .copyHeader(childCount);
+        for (int i = 0; i < childCount; i++) {
+            int source = order == null ? i : order[i];
+            if (source >= base.getChildCount()) {
+                throw new IllegalArgumentException(
+                        "The delta refers to child " + source
+                                + " but the base state has only "
+                                + base.getChildCount() + " children");
+            }
+            if (source >= 0) {
+                result.copyChild(i, base, source);
+            }
+        }
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i] >= childCount) {
+                throw new IllegalArgumentException("The delta changes child "
+                        + changed[i] + " but the state has only " + childCount
+                        + " children");
+            }
+            result.copyChild(changed[i], values, i);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether this delta contains a full snapshot instead of the
+     * changes.
+     *
+     * @return <code>true</code> if this delta is a snapshot
+     */
+    public boolean isSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * Checks whether nothing changed between the checkpoints.
+     *
+     * @return <code>true</code> if this delta contains no changes
+     */
+    public boolean isEmpty() {
+        return snapshot == null && header == null && order == null
+                && changed.length == 0;
+    }
+
+    /**
+     * Gets the order of the children in the new checkpoint, as the indices of
+     * the same children in the previous checkpoint. New children have the
+     * index {@code -1}.
+     *
+     * @return the child order, or <code>null</code> if the children did not
+     *         change or this delta is a snapshot
+     */
+    public int[] getChildOrder() {
+        return order == null ? null : order.clone();
+    }
+
+    /**
+     * Writes this delta in its binary form.
+     *
+     * @param out
+     *            the output to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing fails
+     * @see #readFrom(DataInput)
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(LayoutState.VERSION);
+        if (snapshot != null) {
+            out.writeByte(KIND_SNAPSHOT);
+            snapshot.writeTo(out);
+            return;
+        }
+        out.writeByte(KIND_DELTA);
+        out.writeByte((header == null ? 0 : HEADER_CHANGED)
+                | (order == null ? 0 : ORDER_CHANGED));
+        if (header != null) {
+            header.writeHeader(out);
+        }
+        if (order != null) {
+            writeOrder(out);
+        }
+        LayoutState.writeVarInt(out, changed.length);
+        int previous = -1;
+        for (int i = 0; i < changed.length; i++) {
+            LayoutState.writeVarInt(out, changed[i] - previous - 1);
+            values.writeChild(out, i);
+            previous = changed[i];
+        }
+    }
+
+    /**
+     * Reads a delta from its binary form.
+     *
+     * @param in
+     *            the input to read from, not <code>null</code>
+     * @return the delta
+     * @throws IOException
+     *             if reading fails, or the input is not a delta of a supported
+     *             version
+     * @see #writeTo(DataOutput)
+     */
+    public static LayoutDelta readFrom(DataInput in) throws IOException {
+        LayoutDelta delta = new LayoutDelta();
+        delta.read(in);
+        return delta;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        writeTo(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        read(in);
+    }
+
+    private void read(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != LayoutState.VERSION) {
+            throw new IOException(
+                    "Unsupported layout delta version: " + version);
+        }
+        int kind = in.readUnsignedByte();
+        if (kind == KIND_SNAPSHOT) {
+            snapshot = LayoutState.readFrom(in);
+            return;
+        } else if (kind != KIND_DELTA) {
+            throw new IOException("Invalid layout delta kind: " + kind);
+        }
+        int flags = in.readUnsignedByte();
+        if ((flags & HEADER_CHANGED) != 0) {
+            header = new LayoutState();
+            header.readHeader(in);
+        }
+        if ((flags & ORDER_CHANGED) != 0) {
+            readOrder(in);
+        }
+        changed = new int[LayoutState.readCount(in,
+                LayoutState.MAX_CHILD_COUNT)];
+        values = new LayoutState().copyHeader(changed.length);
+        int index = -1;
+        for (int i = 0; i < changed.length; i++) {
+            index += LayoutState.readCount(in,
+                    LayoutState.MAX_CHILD_COUNT - index - 2) + 1;
+            changed[i] = index;
+            values.readChild(in, i);
+        }
+    }
+
+    /**
+     * Writes the child order as runs of consecutive indices, so that moving,
+     * adding or removing a few children takes a few bytes regardless of the
+     * amount of children.
+     */
+    private void writeOrder(DataOutput out) throws IOException {
+        int runs = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || !continuesRun(i)) {
+                runs++;
+            }
+        }
+        LayoutState.writeVarInt(out, order.length);
+        LayoutState.writeVarInt(out, runs);
+        int start = 0;
+        for (int i = 1; i <= order.length; i++) {
+            if (i == order.length || !continuesRun(i)) {
+                LayoutState.writeVarInt(out, order[start] + 1);
+                LayoutState.writeVarInt(out, i - start);
+                start = i;
+            }
+        }
+    }
+
+    private boolean continuesRun(int index) {
+        int previous = order[index - 1];
+        return previous < 0 ? order[index] < 0
+                : order[index] == previous + 1;
+    }
+
+    private void readOrder(DataInput in) throws IOException {
+        order = new int[LayoutState.readCount(in,
+                LayoutState.MAX_CHILD_COUNT)];
+        int runs = LayoutState.readCount(in, order.length);
+        int index = 0;
+        for (int run = 0; run < runs; run++) {
+            int start = LayoutState.readCount(in,
+                    LayoutState.MAX_CHILD_COUNT) - 1;
+            int length = LayoutState.readCount(in, order.length - index);
+            if (start >= 0 && start + length > LayoutState.MAX_CHILD_COUNT) {
+                throw new IOException("Invalid child order");
+            }
+            for (int i = 0; i < length; i++) {
+                order[index++] = start < 0 ? -1 : start + i;
+            }
+        }
+        if (index != order.length) {
+            throw new IOException("Invalid child order");
+        }
+    }
+
+    private int getChildCount(LayoutState base) {
+        return order == null ? base.getChildCount() : order.length;
+    }
+
+    /**
+     * Computes the size of the binary form written by
+     * {@link #writeTo(DataOutput)} without writing it.
+     */
+    private int getSize() {
+        int size = 3;
+        if (header != null) {
+            size += header.getHeaderSize();
+        }
+        if (order != null) {
+            int runs = 0;
+            int runSizes = 0;
+            int start = 0;
+            for (int i = 1; i <= order.length; i++) {
+                if (i == order.length || !continuesRun(i)) {
+                    runs++;
+                    runSizes += LayoutState.getVarIntSize(order[start] + 1)
+                            + LayoutState.getVarIntSize(i - start);
+                    start = i;
+                }
+            }
+            size += LayoutState.getVarIntSize(order.length)
+                    + LayoutState.getVarIntSize(runs) + runSizes;
+        }
+        size += LayoutState.getVarIntSize(changed.length);
+        int previous = -1;
+        for (int i = 0; i < changed.length; i++) {
+            size += LayoutState.getVarIntSize(changed[i] - previous - 1)
+                    + values.getChildSize(i);
+            previous = changed[i];
+        }
+        return size;
+    }
+}
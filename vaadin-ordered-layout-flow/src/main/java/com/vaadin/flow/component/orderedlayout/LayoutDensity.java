@@ -0,0 +1,112 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import com.vaadin.flow.component.UI;
+
+/**
+ * Enum for the density of the margin, padding and spacing of all the
+ * {@link ThemableLayout} instances inside a {@link UI}.
+ * <p>
+ * The density is applied with a single {@code layout-density} attribute on the
+ * root element of the UI, so changing it has the same cost regardless of the
+ * amount of layouts in the UI, and the theme list of each individual layout is
+ * left untouched. The layouts keep their own {@link LayoutTheme} variants;
+ * the density only scales the size of the spacing those variants apply.
+ * <p>
+ * The density sets the layout specific {@code --vaadin-layout-space-*} CSS
+ * custom properties, which are only used for the margin, padding and spacing
+ * of the layouts. The Lumo space custom properties are not modified, so the
+ * components inside the layouts keep their own sizes.
+ * <p>
+ * The density rules only apply while the attribute is present, so with
+ * {@link #DEFAULT} the layouts use the margin, padding and spacing of the
+ * active theme, whichever theme that is.
+ *
+ * @author Vaadin Ltd.
+ */
+public enum LayoutDensity {
+
+    /**
+     * Half of the default margin, padding and spacing.
+     */
+    COMPACT("compact"),
+
+    /**
+     * The default margin, padding and spacing defined by the theme.
+     */
+    DEFAULT(null),
+
+    /**
+     * One and a half times the default margin, padding and spacing.
+     */
+    COMFORTABLE("comfortable");
+
+    static final String DENSITY_ATTRIBUTE = "layout-density";
+
+    private static final String DENSITY_STYLES = "frontend://vaadin-ordered-layout-flow/layout-density.html";
+
+    private final String attributeValue;
+
+    LayoutDensity(String attributeValue) {
+        this.attributeValue = attributeValue;
+    }
+
+    /**
+     * Sets the density of all the layouts inside the given UI.
+     *
+     * @param ui
+     *            the UI to set the density for, not <code>null</code>
+     * @param density
+     *            the density to use. <code>null</code> is interpreted as
+     *            {@link #DEFAULT}
+     */
+    public static void setDensity(UI ui, LayoutDensity density) {
+        if (ui == null) {
+            throw new IllegalArgumentException(
+                    "The 'ui' argument can not be null");
+        }
+        if (density == null || density == DEFAULT) {
+            ui.getElement().removeAttribute(DENSITY_ATTRIBUTE);
+        } else {
+            ui.getPage().addHtmlImport(DENSITY_STYLES);
+            ui.getElement().setAttribute(DENSITY_ATTRIBUTE,
+                    density.attributeValue);
+        }
+    }
+
+    /**
+     * Gets the density of the layouts inside the given UI.
+     *
+     * @param ui
+     *            the UI to get the density for, not <code>null</code>
+     * @return the density of the UI, never <code>null</code>
+     */
+    public static LayoutDensity getDensity(UI ui) {
+        if (ui == null) {
+            throw new IllegalArgumentException(
+                    "The 'ui' argument can not be null");
+        }
+        String value = ui.getElement().getAttribute(DENSITY_ATTRIBUTE);
+        for (LayoutDensity density : values()) {
+            if (density.attributeValue != null
+                    && density.attributeValue.equals(value)) {
+                return density;
+            }
+        }
+        return DEFAULT;
+    }
+}
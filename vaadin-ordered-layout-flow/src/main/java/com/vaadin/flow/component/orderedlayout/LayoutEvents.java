@@ -0,0 +1,253 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasElement;
+
+/**
+ * Records the diagnostic events of the layouts as JDK Flight Recorder events,
+ * and reports them to the active {@link LayoutMetrics}.
+ * <p>
+ * Each {@code begin} method returns a token for the operation, or
+ * <code>null</code> if neither the Flight Recorder event is enabled nor a
+ * {@link LayoutMetrics} implementation is active; the corresponding
+ * {@code end} method does nothing for <code>null</code>.
+ * <p>
+ * The signatures don't refer to any Flight Recorder class, so the layouts work
+ * also on JVMs without the {@code jdk.jfr} module. The events themselves are
+ * defined in {@code LayoutJfrEvents}, which is only compiled by the
+ * {@code flight-recorder} build profile on JDK 11 and newer, and is loaded
+ * reflectively when both the class and the {@code jdk.jfr} module are
+ * available.
+ *
+ * @author Vaadin Ltd.
+ */
+final class LayoutEvents {
+
+    private static final String RECORDER_CLASS = LayoutEvents.class
+            .getPackage().getName() + ".LayoutJfrEvents";
+
+    private static final Recorder RECORDER = loadRecorder();
+
+    private static volatile LayoutMetrics metrics = loadMetrics();
+
+    /**
+     * Token of an operation measured for the {@link LayoutMetrics}.
+     */
+    private static class Measurement {
+        private final Object jfrEvent;
+        private final long start = System.nanoTime();
+
+        private Measurement(Object jfrEvent) {
+            this.jfrEvent = jfrEvent;
+        }
+    }
+
+    /**
+     * Creates and commits the Flight Recorder events. Implemented by
+     * {@code LayoutJfrEvents}; the {@code begin} methods return
+     * <code>null</code> if the event is not enabled.
+     */
+    interface Recorder {
+
+        Object beginMutation();
+
+        Object beginBulkOperation();
+
+        Object beginThemeChange();
+
+        Object beginConstruction();
+
+        void commitMutation(Object event, String layoutType, String operation,
+                int affectedCount, int childCount);
+
+        void commitBulkOperation(Object event, String layoutType,
+                String operation, int elementCount);
+
+        void commitThemeChange(Object event, String layoutType,
+                String operation, String theme);
+
+        void commitConstruction(Object event, String layoutType,
+                int childCount);
+    }
+
+    private LayoutEvents() {
+        // only static helpers
+    }
+
+    static void setMetrics(LayoutMetrics metrics) {
+        LayoutEvents.metrics = metrics;
+    }
+
+    static LayoutMetrics getMetrics() {
+        return metrics;
+    }
+
+    static Object beginMutation() {
+        return measure(RECORDER != null ? RECORDER.beginMutation() : null);
+    }
+
+    static void endMutation(Object token, HasElement layout, String operation,
+            int affectedCount) {
+        if (token == null) {
+            return;
+        }
+        int childCount = layout.getElement().getChildCount();
+        LayoutMetrics current = metrics;
+        if (current != null && token instanceof Measurement
+                && layout instanceof Component) {
+            current.childrenChanged(getComponentType(layout), operation,
+                    affectedCount, childCount, elapsed(token));
+        }
+        Object jfrEvent = getJfrEvent(token);
+        if (jfrEvent != null) {
+            RECORDER.commitMutation(jfrEvent, getType(layout),
+                    operation, affectedCount, childCount);
+        }
+    }
+
+    static Object beginBulkOperation() {
+        return measure(
+                RECORDER != null ? RECORDER.beginBulkOperation() : null);
+    }
+
+    static void endBulkOperation(Object token, HasElement layout,
+            String operation, int elementCount) {
+        if (token == null) {
+            return;
+        }
+        LayoutMetrics current = metrics;
+        if (current != null && token instanceof Measurement
+                && layout instanceof Component) {
+            current.bulkOperation(getComponentType(layout), operation,
+                    elementCount, elapsed(token));
+        }
+        Object jfrEvent = getJfrEvent(token);
+        if (jfrEvent != null) {
+            RECORDER.commitBulkOperation(jfrEvent, getType(layout),
+                    operation, elementCount);
+        }
+    }
+
+    static void writesSuppressed(HasElement layout, String operation,
+            int count) {
+        LayoutMetrics current = metrics;
+        if (current != null && count > 0 && layout instanceof Component) {
+            current.writesSuppressed(getComponentType(layout), operation,
+                    count);
+        }
+    }
+
+    static Object beginThemeChange() {
+        return RECORDER != null ? RECORDER.beginThemeChange() : null;
+    }
+
+    static void endThemeChange(Object event, HasElement layout,
+            String operation) {
+        if (event != null) {
+            RECORDER.commitThemeChange(event, getType(layout),
+                    operation, layout.getElement().getAttribute("theme"));
+        }
+    }
+
+    static Object beginConstruction() {
+        return RECORDER != null ? RECORDER.beginConstruction() : null;
+    }
+
+    static void endConstruction(Object event, HasElement layout) {
+        if (event != null) {
+            RECORDER.commitConstruction(event, getType(layout),
+                    layout.getElement().getChildCount());
+        }
+    }
+
+    static void attached(Component layout) {
+        LayoutMetrics current = metrics;
+        if (current != null) {
+            current.layoutAttached(layout.getClass(),
+                    layout.getElement().getChildCount());
+        }
+    }
+
+    static void detached(Component layout) {
+        LayoutMetrics current = metrics;
+        if (current != null) {
+            current.layoutDetached(layout.getClass(),
+                    layout.getElement().getChildCount());
+        }
+    }
+
+    private static Object measure(Object jfrEvent) {
+        if (metrics == null) {
+            return jfrEvent;
+        }
+        return new Measurement(jfrEvent);
+    }
+
+    private static long elapsed(Object token) {
+        return System.nanoTime() - ((Measurement) token).start;
+    }
+
+    private static Object getJfrEvent(Object token) {
+        if (token instanceof Measurement) {
+            return ((Measurement) token).jfrEvent;
+        }
+        return token;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Component> getComponentType(
+            HasElement layout) {
+        return (Class<? extends Component>) layout.getClass();
+    }
+
+    private static String getType(HasElement layout) {
+        return layout.getClass().getName();
+    }
+
+    private static Recorder loadRecorder() {
+        ClassLoader classLoader = LayoutEvents.class.getClassLoader();
+        try {
+            Class.forName("jdk.jfr.Event", false, classLoader);
+            return (Recorder) Class.forName(RECORDER_CLASS, true, classLoader)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // No Flight Recorder in the JVM, or built without the
+            // flight-recorder profile
+            return null;
+        }
+    }
+
+    private static LayoutMetrics loadMetrics() {
+        try {
+            Iterator<LayoutMetrics> implementations = ServiceLoader
+                    .load(LayoutMetrics.class, LayoutEvents.class.getClassLoader())
+                    .iterator();
+            return implementations.hasNext() ? implementations.next() : null;
+        } catch (ServiceConfigurationError | RuntimeException e) {
+            LoggerFactory.getLogger(LayoutEvents.class).warn(
+                    "Failed to load the layout metrics implementation", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.Style;
+
+/**
+ * Finds and removes redundant nested ordered layouts in a component tree.
+ * <p>
+ * A {@link VerticalLayout} directly inside another {@link VerticalLayout}, or
+ * a {@link HorizontalLayout} directly inside another {@link HorizontalLayout},
+ * is redundant when removing it and adding its children to the parent layout
+ * in its place doesn't change the rendered result. That is the case when the
+ * nested layout:
+ * <ul>
+ * <li>is visible and has no id, class names, extra attributes or click,
+ * attach or detach listeners
+ * <li>has no margin or padding and the same spacing as the parent layout
+ * <li>has no styles besides the defaults of the layout, so no alignment,
+ * justify content mode, size, flex grow or align self
+ * <li>has no children with a flex grow, which would start to grow inside the
+ * parent layout
+ * </ul>
+ * In addition the parent layout must use the default alignment and a justify
+ * content mode which treats the nested layout as a single block.
+ * <p>
+ * When the redundant layouts are removed, the order of the children is kept,
+ * as are their individual alignments.
+ * <p>
+ * Listeners added directly to the element of a nested layout with
+ * {@code Element.addEventListener} can not be detected, so such a layout
+ * should be given an id or a class name to keep it in the tree.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutFlattener implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final EnumSet<JustifyContentMode> BLOCK_JUSTIFY_CONTENT_MODES = EnumSet
+            .of(JustifyContentMode.START, JustifyContentMode.CENTER,
+                    JustifyContentMode.END);
+
+    private static final List<Class<? extends ComponentEvent<?>>> LISTENED_EVENT_TYPES = Arrays
+            .asList(LayoutListeners.CLICK_EVENT, AttachEvent.class,
+                    DetachEvent.class);
+
+    /**
+     * The result of analyzing or flattening a component tree.
+     */
+    public static class Report implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean applied;
+        private final List<Component> redundantLayouts;
+        private final int movedChildCount;
+
+        private Report(boolean applied, List<Component> redundantLayouts,
+                int movedChildCount) {
+            this.applied = applied;
+            this.redundantLayouts = Collections
+                    .unmodifiableList(redundantLayouts);
+            this.movedChildCount = movedChildCount;
+        }
+
+        /**
+         * Gets whether the redundant layouts were removed from the tree, or
+         * the tree was only analyzed.
+         *
+         * @return {@code true} if the layouts were removed, {@code false} for
+         *         a dry run
+         */
+        public boolean isApplied() {
+            return applied;
+        }
+
+        /**
+         * Gets the redundant layouts, in the order they were found.
+         *
+         * @return an unmodifiable list of the redundant layouts, never
+         *         <code>null</code>
+         */
+        public List<Component> getRedundantLayouts() {
+            return redundantLayouts;
+        }
+
+        /**
+         * Gets the amount of children the redundant layouts originally had,
+         * which are, or would be, moved to the parent layouts.
+         *
+         * @return the amount of moved children
+         */
+        public int getMovedChildCount() {
+            return movedChildCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d redundant layout(s), %d moved child(ren): %s",
+                    applied ? "Removed" : "Found", redundantLayouts.size(),
+                    movedChildCount,
+                    redundantLayouts.stream()
+                            .map(layout -> layout.getClass().getSimpleName())
+                            .collect(Collectors.joining(", ", "[", "]")));
+        }
+    }
+
+    private final boolean apply;
+    private final List<Component> redundantLayouts = new ArrayList<>();
+    private int movedChildCount;
+
+    private LayoutFlattener(boolean apply) {
+        this.apply = apply;
+    }
+
+    /**
+     * Finds the redundant nested layouts in the given component tree without
+     * modifying it.
+     *
+     * @param root
+     *            the root of the component tree to analyze, not
+     *            <code>null</code>
+     * @return the report of the redundant layouts, never <code>null</code>
+     */
+    public static Report analyze(Component root) {
+        return new LayoutFlattener(false).run(root);
+    }
+
+    /**
+     * Removes the redundant nested layouts in the given component tree,
+     * moving their children to the parent layouts.
+     *
+     * @param root
+     *            the root of the component tree to flatten, not
+     *            <code>null</code>
+     * @return the report of the removed layouts, never <code>null</code>
+     */
+    public static Report flatten(Component root) {
+        return new LayoutFlattener(true).run(root);
+    }
+
+    private Report run(Component root) {
+        if (root == null) {
+            throw new IllegalArgumentException(
+                    "The 'root' argument can not be null");
+        }
+        visit(root);
+        return new Report(apply, redundantLayouts, movedChildCount);
+    }
+
+    private void visit(Component component) {
+        List<Component> children = component.getChildren()
+                .collect(Collectors.toList());
+        for (Component child : children) {
+            // counted before visiting, since flattening the child moves its
+            // own redundant children to it
+            int childCount = (int) child.getChildren().count();
+            visit(child);
+            if (isRedundant(component, child)) {
+                redundantLayouts.add(child);
+                movedChildCount += childCount;
+                if (apply) {
+                    splice((FlexComponent<?>) component, child);
+                }
+            }
+        }
+    }
+
+    private static void splice(FlexComponent<?> parent, Component nested) {
+        int index = parent.indexOf(nested);
+        List<Component> children = nested.getChildren()
+                .collect(Collectors.toList());
+        for (Component child : children) {
+            parent.addComponentAtIndex(index++, child);
+        }
+        parent.remove(nested);
+    }
+
+    private static boolean isRedundant(Component parent, Component child) {
+        if (parent.getClass() != child.getClass()) {
+            return false;
+        }
+        if (child.getClass() == VerticalLayout.class) {
+            VerticalLayout nested = (VerticalLayout) child;
+            return !hasListeners(nested)
+                    && isRedundant((VerticalLayout) parent, nested, true);
+        }
+        if (child.getClass() == HorizontalLayout.class) {
+            HorizontalLayout nested = (HorizontalLayout) child;
+            return !hasListeners(nested)
+                    && isRedundant((HorizontalLayout) parent, nested, false);
+        }
+        return false;
+    }
+
+    private static boolean hasListeners(Component component) {
+        return LISTENED_EVENT_TYPES.stream().anyMatch(
+                eventType -> LayoutListeners.isListening(component,
+                        eventType));
+    }
+
+    private static <L extends Component & FlexComponent<?> & ThemableLayout> boolean isRedundant(
+            L parent, L nested, boolean fullWidthByDefault) {
+        Element element = nested.getElement();
+        if (!nested.isVisible() || nested.getId().isPresent()
+                || !element.getClassList().isEmpty()
+                || element.getAttributeNames().anyMatch(
+                        name -> !"theme".equals(name) && !"style".equals(name))
+                || element.getChildCount() != nested.getChildren().count()) {
+            return false;
+        }
+
+        if (!hasDefaultStyles(element.getStyle(), fullWidthByDefault)) {
+            return false;
+        }
+
+        EnumSet<LayoutTheme> variants = nested.getThemeVariants();
+        if (variants.contains(LayoutTheme.MARGIN)
+                || variants.contains(LayoutTheme.PADDING)
+                || variants.size() != nested.getThemeList().size()
+                || !getSpacing(variants)
+                        .equals(getSpacing(parent.getThemeVariants()))) {
+            return false;
+        }
+
+        if (parent.getStyle()
+                .get(FlexConstants.ALIGN_ITEMS_CSS_PROPERTY) != null
+                || !BLOCK_JUSTIFY_CONTENT_MODES
+                        .contains(parent.getJustifyContentMode())) {
+            return false;
+        }
+
+        return nested.getChildren()
+                .noneMatch(grandChild -> nested.getFlexGrow(grandChild) > 0);
+    }
+
+    private static boolean hasDefaultStyles(Style style,
+            boolean fullWidthByDefault) {
+        return style.getNames().allMatch(name -> fullWidthByDefault
+                && "width".equals(name) && "100%".equals(style.get(name)));
+    }
+
+    private static EnumSet<LayoutTheme> getSpacing(
+            EnumSet<LayoutTheme> variants) {
+        EnumSet<LayoutTheme> spacing = EnumSet.copyOf(variants);
+        spacing.removeIf(variant -> !variant.isSpacing());
+        return spacing;
+    }
+}
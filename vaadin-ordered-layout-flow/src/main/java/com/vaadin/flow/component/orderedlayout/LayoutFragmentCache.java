@@ -0,0 +1,263 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.function.SerializableSupplier;
+
+/**
+ * A bounded cache of immutable layout fragments shared by all the sessions.
+ * <p>
+ * Static content which is the same for every user, such as a footer, a help
+ * panel or a legal notice, is rendered once to HTML with
+ * {@link LayoutHtmlRenderer}, stored in the cache and shown in each session as
+ * a {@link StaticFragment}, which only references the shared HTML. The
+ * component tree the content was rendered from is discarded, so the sessions
+ * don't keep their own copies of it.
+ * <p>
+ * The cache keeps at most the configured amount of fragments, and evicts the
+ * least recently used fragment when full. Hits, misses and evictions are
+ * counted for monitoring the efficiency of the cache.
+ * <p>
+ * Only content which never changes and has no listeners should be cached,
+ * since the cached HTML is not interactive.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutFragmentCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum size of the shared cache.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private static final LayoutFragmentCache SHARED = new LayoutFragmentCache(
+            DEFAULT_MAXIMUM_SIZE);
+
+    private static class Fragment implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String fingerprint;
+        private final String html;
+
+        private Fragment(String fingerprint, String html) {
+            this.fingerprint = fingerprint;
+            this.html = html;
+        }
+    }
+
+    private final int maximumSize;
+    private final LayoutHtmlRenderer renderer = new LayoutHtmlRenderer();
+    private final Map<String, Fragment> fragments;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a new cache of the given maximum size.
+     *
+     * @param maximumSize
+     *            the maximum amount of cached fragments, at least 1
+     */
+    public LayoutFragmentCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum size must be at least 1: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        fragments = new LinkedHashMap<String, Fragment>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, Fragment> eldest) {
+                if (size() > LayoutFragmentCache.this.maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache shared by all the sessions in the JVM, with a maximum
+     * size of {@value #DEFAULT_MAXIMUM_SIZE} fragments.
+     *
+     * @return the shared cache, never <code>null</code>
+     */
+    public static LayoutFragmentCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets a fragment for the content with the given key, creating and
+     * rendering the content only if it is not cached.
+     * <p>
+     * The key must identify the content, including everything the content
+     * depends on, such as a version or a locale.
+     *
+     * @param key
+     *            the key of the content, not <code>null</code>
+     * @param contentFactory
+     *            the factory creating the content when it is not cached, not
+     *            <code>null</code>
+     * @return a new fragment showing the content, never <code>null</code>
+     */
+    public StaticFragment get(String key,
+            SerializableSupplier<? extends Component> contentFactory) {
+        if (key == null) {
+            throw new IllegalArgumentException(
+                    "The 'key' argument can not be null");
+        }
+        if (contentFactory == null) {
+            throw new IllegalArgumentException(
+                    "The 'contentFactory' argument can not be null");
+        }
+        Fragment fragment = lookup(key);
+        if (fragment == null) {
+            fragment = store(key, render(contentFactory.get()));
+        }
+        return new StaticFragment(fragment.fingerprint, fragment.html);
+    }
+
+    /**
+     * Gets a fragment for the given content, keyed by the fingerprint of its
+     * rendered HTML. The content is rendered on every call, but a single copy
+     * of the HTML is kept for all the fragments with the same content.
+     *
+     * @param content
+     *            the content to show, not <code>null</code>
+     * @return a new fragment showing the content, never <code>null</code>
+     */
+    public StaticFragment get(Component content) {
+        Fragment rendered = render(content);
+        Fragment fragment = lookup(rendered.fingerprint);
+        if (fragment == null) {
+            fragment = store(rendered.fingerprint, rendered);
+        }
+        return new StaticFragment(fragment.fingerprint, fragment.html);
+    }
+
+    /**
+     * Removes all the fragments from the cache. The counters are not reset.
+     */
+    public synchronized void clear() {
+        fragments.clear();
+    }
+
+    /**
+     * Gets the amount of cached fragments.
+     *
+     * @return the amount of cached fragments
+     */
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    /**
+     * Gets the maximum amount of cached fragments.
+     *
+     * @return the maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets the amount of lookups which found a cached fragment.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the amount of lookups which did not find a cached fragment.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the amount of fragments evicted because the cache was full.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the ratio of lookups which found a cached fragment.
+     *
+     * @return the hit rate between 0 and 1, or 0 if there have been no
+     *         lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    private synchronized Fragment lookup(String key) {
+        Fragment fragment = fragments.get(key);
+        if (fragment == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return fragment;
+    }
+
+    private synchronized Fragment store(String key, Fragment fragment) {
+        // Another thread may have rendered the same content meanwhile
+        return fragments.computeIfAbsent(key, k -> fragment);
+    }
+
+    private Fragment render(Component content) {
+        if (content == null) {
+            throw new IllegalArgumentException(
+                    "The content can not be null");
+        }
+        String html = renderer.renderToString(content);
+        return new Fragment(fingerprint(html), html);
+    }
+
+    private static String fingerprint(String html) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(html.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(
+                    "SHA-256 is not supported by the JVM", e);
+        }
+    }
+}
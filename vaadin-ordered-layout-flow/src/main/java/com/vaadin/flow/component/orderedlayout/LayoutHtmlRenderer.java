@@ -0,0 +1,320 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document.OutputSettings;
+import org.jsoup.safety.Whitelist;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.dom.Element;
+
+/**
+ * Renders a component tree as static HTML, for painting a view in the browser
+ * before the client engine has built it from the UIDL.
+ * <p>
+ * The HTML is written element by element to an {@link Appendable}, so the
+ * whole document is never built in memory. Elements are written with their
+ * attributes, including the inline styles and the theme attributes, and text
+ * nodes with their text. The {@code innerHTML} property of an element without
+ * children is written as its content: as is when the element was created by
+ * {@link FlexComponent#addHtml(String)} or {@link LayoutFragmentCache}, and
+ * sanitized with the relaxed jsoup whitelist otherwise. The trust is tracked
+ * on the server only, so it can not be forged with an attribute, and elements
+ * added with {@code addHtml} are sanitized again after the session has been
+ * deserialized. Other properties,
+ * virtual children, invisible elements and ids, which would be duplicated once
+ * the client engine has rendered the real elements, are not written.
+ * <p>
+ * The styles of the ordered layouts come from the web components or style
+ * sheets that are not yet loaded when the snapshot is painted. The defaults of
+ * {@link VerticalLayout}, {@link HorizontalLayout} and their native variants,
+ * and their margin, padding and spacing theme variants, are therefore written
+ * as inline styles, using the Lumo sizes with the same fallbacks as the native
+ * layouts. {@link FlexLayout} only uses inline styles already.
+ *
+ * @author Vaadin Ltd.
+ * @see LayoutPrerenderListener
+ */
+public class LayoutHtmlRenderer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Set<String> VOID_ELEMENTS = new HashSet<>(
+            Arrays.asList("area", "base", "br", "col", "embed", "hr", "img",
+                    "input", "link", "meta", "param", "source", "track",
+                    "wbr"));
+
+    private static final Map<LayoutTheme, String> SPACING_SIZES = new EnumMap<>(
+            LayoutTheme.class);
+    static {
+        SPACING_SIZES.put(LayoutTheme.SPACING_XS,
+                "var(--lumo-space-xs, 0.25rem)");
+        SPACING_SIZES.put(LayoutTheme.SPACING_S, "var(--lumo-space-s, 0.5rem)");
+        SPACING_SIZES.put(LayoutTheme.SPACING, "var(--lumo-space-m, 1rem)");
+        SPACING_SIZES.put(LayoutTheme.SPACING_L, "var(--lumo-space-l, 1.5rem)");
+        SPACING_SIZES.put(LayoutTheme.SPACING_XL,
+                "var(--lumo-space-xl, 2.5rem)");
+    }
+
+    /**
+     * The state nodes of the elements created by
+     * {@link FlexComponent#addHtml(String)}, weakly referenced so that removed
+     * elements are not kept in memory.
+     */
+    private static final Set<Object> TRUSTED_NODES = Collections
+            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final String VERTICAL_STYLE = "display:flex;flex-direction:column;align-items:flex-start;box-sizing:border-box;";
+    private static final String HORIZONTAL_STYLE = "display:flex;align-items:baseline;box-sizing:border-box;";
+
+    /**
+     * Renders the given component and its descendants as HTML.
+     *
+     * @param component
+     *            the root of the rendered tree, not <code>null</code>
+     * @param out
+     *            the target to write the HTML to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the target fails
+     */
+    public void render(Component component, Appendable out)
+            throws IOException {
+        if (component == null) {
+            throw new IllegalArgumentException(
+                    "The 'component' argument can not be null");
+        }
+        render(component.getElement(), out);
+    }
+
+    /**
+     * Renders the given element and its descendants as HTML.
+     *
+     * @param element
+     *            the root of the rendered tree, not <code>null</code>
+     * @param out
+     *            the target to write the HTML to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the target fails
+     */
+    public void render(Element element, Appendable out) throws IOException {
+        if (element == null) {
+            throw new IllegalArgumentException(
+                    "The 'element' argument can not be null");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException(
+                    "The 'out' argument can not be null");
+        }
+        renderElement(element, null, out);
+    }
+
+    /**
+     * Renders the given component and its descendants as an HTML string.
+     *
+     * @param component
+     *            the root of the rendered tree, not <code>null</code>
+     * @return the HTML, never <code>null</code>
+     */
+    public String renderToString(Component component) {
+        StringBuilder html = new StringBuilder();
+        try {
+            render(component, html);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Marks the content of the given element as trusted, so that its
+     * {@code innerHTML} is written as is.
+     *
+     * @param element
+     *            the element to mark
+     */
+    static void markTrusted(Element element) {
+        TRUSTED_NODES.add(element.getNode());
+    }
+
+    private static boolean isTrusted(Element element) {
+        return element.getComponent().filter(StaticFragment.class::isInstance)
+                .isPresent() || TRUSTED_NODES.contains(element.getNode());
+    }
+
+    private void renderElement(Element element, String inheritedStyle,
+            Appendable out) throws IOException {
+        if (element.isTextNode()) {
+            escape(element.getText(), false, out);
+            return;
+        }
+        if (!element.isVisible()) {
+            return;
+        }
+        String tag = element.getTag();
+        out.append('<').append(tag);
+        String layoutStyle = getLayoutStyle(element);
+        if (layoutStyle != null || inheritedStyle != null) {
+            out.append(" style=\"");
+            if (inheritedStyle != null) {
+                out.append(inheritedStyle);
+            }
+            if (layoutStyle != null) {
+                out.append(layoutStyle);
+            }
+            String style = element.getAttribute("style");
+            if (style != null) {
+                escape(style, true, out);
+            }
+            out.append('"');
+        }
+        Iterator<String> names = element.getAttributeNames().iterator();
+        while (names.hasNext()) {
+            String name = names.next();
+            boolean styleWritten = "style".equals(name)
+                    && (layoutStyle != null || inheritedStyle != null);
+            if (!"id".equals(name) && !styleWritten) {
+                renderAttribute(name, element.getAttribute(name), out);
+            }
+        }
+        out.append('>');
+        if (VOID_ELEMENTS.contains(tag)) {
+            return;
+        }
+
+        if (element.getChildCount() == 0
+                && element.hasProperty("innerHTML")) {
+            String html = element.getProperty("innerHTML");
+            if (!isTrusted(element)) {
+                html = Jsoup.clean(html, "", Whitelist.relaxed(),
+                        new OutputSettings().prettyPrint(false));
+            }
+            out.append(html).append("</").append(tag).append('>');
+            return;
+        }
+
+        String spacingStyle = getSpacingStyle(element);
+        boolean first = true;
+        for (int i = 0; i < element.getChildCount(); i++) {
+            Element child = element.getChild(i);
+            boolean rendered = child.isTextNode() || child.isVisible();
+            renderElement(child,
+                    first || child.isTextNode() ? null : spacingStyle, out);
+            first = first && !rendered;
+        }
+        out.append("</").append(tag).append('>');
+    }
+
+    private static void renderAttribute(String name, String value,
+            Appendable out) throws IOException {
+        out.append(' ').append(name);
+        if (value != null && !value.isEmpty()) {
+            out.append("=\"");
+            escape(value, true, out);
+            out.append('"');
+        }
+    }
+
+    private static String getLayoutStyle(Element element) {
+        Direction direction = getDirection(element);
+        if (direction == null) {
+            return null;
+        }
+        String style = direction == Direction.VERTICAL ? VERTICAL_STYLE
+                : HORIZONTAL_STYLE;
+        if (element.getThemeList().contains(LayoutTheme.MARGIN.getThemeName())) {
+            style += "margin:var(--lumo-space-m, 1rem);";
+        }
+        if (element.getThemeList()
+                .contains(LayoutTheme.PADDING.getThemeName())) {
+            style += "padding:var(--lumo-space-m, 1rem);";
+        }
+        return style;
+    }
+
+    private static String getSpacingStyle(Element element) {
+        Direction direction = getDirection(element);
+        if (direction == null) {
+            return null;
+        }
+        String size = null;
+        for (Map.Entry<LayoutTheme, String> spacing : SPACING_SIZES
+                .entrySet()) {
+            if (element.getThemeList()
+                    .contains(spacing.getKey().getThemeName())) {
+                size = spacing.getValue();
+            }
+        }
+        if (size == null) {
+            return null;
+        }
+        return (direction == Direction.VERTICAL ? "margin-top:"
+                : "margin-left:") + size + ";";
+    }
+
+    private enum Direction {
+        VERTICAL, HORIZONTAL
+    }
+
+    private static Direction getDirection(Element element) {
+        String tag = element.getTag();
+        if ("vaadin-vertical-layout".equals(tag) || element.getClassList()
+                .contains(FlexConstants.NATIVE_VERTICAL_LAYOUT_CLASS_NAME)) {
+            return Direction.VERTICAL;
+        }
+        if ("vaadin-horizontal-layout".equals(tag) || element.getClassList()
+                .contains(FlexConstants.NATIVE_HORIZONTAL_LAYOUT_CLASS_NAME)) {
+            return Direction.HORIZONTAL;
+        }
+        return null;
+    }
+
+    private static void escape(String value, boolean attribute, Appendable out)
+            throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '&':
+                out.append("&amp;");
+                break;
+            case '<':
+                out.append("&lt;");
+                break;
+            case '>':
+                out.append("&gt;");
+                break;
+            case '"':
+                out.append(attribute ? "&quot;" : "\"");
+                break;
+            default:
+                out.append(c);
+            }
+        }
+    }
+}
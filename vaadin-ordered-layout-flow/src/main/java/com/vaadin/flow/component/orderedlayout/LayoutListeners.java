@@ -0,0 +1,81 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+
+/**
+ * Gives the tools of this package, such as {@link LayoutProfiler} and
+ * {@link LayoutFlattener}, access to the listeners of the layouts of this
+ * package.
+ * <p>
+ * {@link Component#hasListener(Class)} is protected, so each layout exposes it
+ * to this package with a package-private {@code isListening} method. Other
+ * components are reported as having no listeners.
+ *
+ * @author Vaadin Ltd.
+ */
+final class LayoutListeners {
+
+    /**
+     * The type of click events, typed for
+     * {@link #isListening(Component, Class)}.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static final Class<? extends ComponentEvent<?>> CLICK_EVENT = (Class) ClickEvent.class;
+
+    private LayoutListeners() {
+        // only static helpers
+    }
+
+    /**
+     * Checks whether the given component is a layout of this package with
+     * listeners for the given event type.
+     *
+     * @param component
+     *            the component to check
+     * @param eventType
+     *            the event type
+     * @return <code>true</code> if there are listeners for the event type,
+     *         <code>false</code> otherwise or if the component is not a
+     *         layout of this package
+     */
+    static boolean isListening(Component component,
+            Class<? extends ComponentEvent<?>> eventType) {
+        if (component instanceof VerticalLayout) {
+            return ((VerticalLayout) component).isListening(eventType);
+        }
+        if (component instanceof HorizontalLayout) {
+            return ((HorizontalLayout) component).isListening(eventType);
+        }
+        if (component instanceof FlexLayout) {
+            return ((FlexLayout) component).isListening(eventType);
+        }
+        if (component instanceof NativeVerticalLayout) {
+            return ((NativeVerticalLayout) component).isListening(eventType);
+        }
+        if (component instanceof NativeHorizontalLayout) {
+            return ((NativeHorizontalLayout) component)
+                    .isListening(eventType);
+        }
+        if (component instanceof DashboardLayout) {
+            return ((DashboardLayout) component).isListening(eventType);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.function.SerializableFunction;
+
+/**
+ * A child of a layout which is built from an input value, and rebuilt only
+ * when the input changes.
+ * <p>
+ * A memo is created with {@link FlexComponent#addMemo(Object,
+ * SerializableFunction)}, which builds the child from the initial input and
+ * adds it to the layout. Calling {@link #update(Object)} with a new input
+ * keeps the existing child if the input is equal to the previous one, and
+ * otherwise builds a new child and replaces the previous one at the same
+ * position, keeping its flex grow and individual alignment.
+ * <p>
+ * When the input is mutable and updated in place, a fingerprint function can
+ * be given with {@link FlexComponent#addMemo(Object, SerializableFunction,
+ * SerializableFunction)}. The child is then kept as long as the fingerprint of
+ * the input, for example a version number or a hash of the displayed values,
+ * stays the same.
+ *
+ * @param <T>
+ *            the type of the input
+ * @author Vaadin Ltd.
+ */
+public class LayoutMemo<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FlexComponent<?> layout;
+    private final SerializableFunction<T, ? extends Component> builder;
+    private final SerializableFunction<T, ?> fingerprint;
+
+    private T input;
+    private Object inputFingerprint;
+    private Component component;
+    private int buildCount;
+
+    LayoutMemo(FlexComponent<?> layout,
+            SerializableFunction<T, ? extends Component> builder,
+            SerializableFunction<T, ?> fingerprint) {
+        if (builder == null) {
+            throw new IllegalArgumentException(
+                    "The 'builder' argument can not be null");
+        }
+        this.layout = layout;
+        this.builder = builder;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Updates the input of this memo, rebuilding the child if the input has
+     * changed.
+     *
+     * @param input
+     *            the new input, may be <code>null</code>
+     * @return <code>true</code> if the child was rebuilt, <code>false</code>
+     *         if the existing child was kept
+     */
+    public boolean update(T input) {
+        Object newFingerprint = fingerprint == null ? null
+                : fingerprint.apply(input);
+        if (component != null) {
+            boolean unchanged = fingerprint == null
+                    ? Objects.equals(this.input, input)
+                    : Objects.equals(inputFingerprint, newFingerprint);
+            if (unchanged) {
+                this.input = input;
+                return false;
+            }
+        }
+        Component built = builder.apply(input);
+        if (built == null) {
+            throw new IllegalStateException(
+                    "The builder of the memo returned null");
+        }
+        layout.replace(component, built);
+        component = built;
+        this.input = input;
+        inputFingerprint = newFingerprint;
+        buildCount++;
+        return true;
+    }
+
+    /**
+     * Gets the current child built by this memo.
+     *
+     * @return the current child, or <code>null</code> if the memo has been
+     *         removed
+     */
+    public Component getComponent() {
+        return component;
+    }
+
+    /**
+     * Gets the input the current child was built or kept for.
+     *
+     * @return the latest input
+     */
+    public T getInput() {
+        return input;
+    }
+
+    /**
+     * Gets the number of times the child has been built, including the
+     * initial build.
+     *
+     * @return the build count
+     */
+    public int getBuildCount() {
+        return buildCount;
+    }
+
+    /**
+     * Removes the current child from the layout. A later
+     * {@link #update(Object)} builds and adds the child again.
+     */
+    public void remove() {
+        if (component != null) {
+            layout.remove(component);
+            component = null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.util.Optional;
+
+import com.vaadin.flow.component.Component;
+
+/**
+ * Service interface for collecting metrics of the layouts of this module:
+ * {@link VerticalLayout}, {@link HorizontalLayout}, {@link FlexLayout},
+ * {@link NativeVerticalLayout} and {@link NativeHorizontalLayout}.
+ * <p>
+ * A single implementation is active in the JVM. It is either registered with
+ * {@link #setInstance(LayoutMetrics)}, or discovered with
+ * {@link java.util.ServiceLoader} when the layouts are first used. When no
+ * implementation is active, the layouts don't measure anything.
+ * <p>
+ * The methods are called from the threads which modify the layouts, so the
+ * implementations must be thread safe and should return quickly. All methods
+ * do nothing by default.
+ *
+ * @author Vaadin Ltd.
+ * @see JmxLayoutMetrics
+ */
+public interface LayoutMetrics {
+
+    /**
+     * Called when a layout is attached to a UI.
+     *
+     * @param layoutType
+     *            the class of the layout
+     * @param childCount
+     *            the amount of children of the layout
+     */
+    default void layoutAttached(Class<? extends Component> layoutType,
+            int childCount) {
+    }
+
+    /**
+     * Called when a layout is detached from a UI.
+     *
+     * @param layoutType
+     *            the class of the layout
+     * @param childCount
+     *            the amount of children of the layout
+     */
+    default void layoutDetached(Class<? extends Component> layoutType,
+            int childCount) {
+    }
+
+    /**
+     * Called after children have been added to, removed from or replaced in a
+     * layout.
+     *
+     * @param layoutType
+     *            the class of the layout
+     * @param operation
+     *            the name of the operation, e.g. {@code "add"}
+     * @param affectedCount
+     *            the amount of children the operation affected
+     * @param childCount
+     *            the amount of children of the layout after the operation
+     * @param nanos
+     *            the duration of the operation, in nanoseconds
+     */
+    default void childrenChanged(Class<? extends Component> layoutType,
+            String operation, int affectedCount, int childCount, long nanos) {
+    }
+
+    /**
+     * Called after a flex property has been applied to several element
+     * containers at once, e.g. with
+     * {@link FlexComponent#setFlexGrow(double, com.vaadin.flow.component.HasElement...)}.
+     *
+     * @param layoutType
+     *            the class of the layout
+     * @param operation
+     *            the name of the operation, e.g. {@code "setFlexGrow"}
+     * @param elementCount
+     *            the amount of element containers
+     * @param nanos
+     *            the duration of the operation, in nanoseconds
+     */
+    default void bulkOperation(Class<? extends Component> layoutType,
+            String operation, int elementCount, long nanos) {
+    }
+
+    /**
+     * Called when a layout setter skipped writes because the style properties
+     * or theme names already had the requested values.
+     *
+     * @param layoutType
+     *            the class of the layout
+     * @param operation
+     *            the name of the setter, e.g. {@code "setAlignItems"}
+     * @param count
+     *            the amount of suppressed writes, at least 1
+     */
+    default void writesSuppressed(Class<? extends Component> layoutType,
+            String operation, int count) {
+    }
+
+    /**
+     * Sets the active metrics implementation, replacing any previous one.
+     *
+     * @param metrics
+     *            the metrics implementation, or <code>null</code> to stop
+     *            collecting metrics
+     */
+    static void setInstance(LayoutMetrics metrics) {
+        LayoutEvents.setMetrics(metrics);
+    }
+
+    /**
+     * Gets the active metrics implementation.
+     *
+     * @return the metrics implementation, or an empty optional if none is
+     *         active
+     */
+    static Optional<LayoutMetrics> getInstance() {
+        return Optional.ofNullable(LayoutEvents.getMetrics());
+    }
+}
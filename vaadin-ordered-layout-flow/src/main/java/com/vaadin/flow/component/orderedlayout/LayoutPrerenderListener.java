@@ -0,0 +1,146 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+import org.jsoup.nodes.DataNode;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.BootstrapListener;
+import com.vaadin.flow.server.BootstrapPageResponse;
+import com.vaadin.flow.server.UIInitEvent;
+import com.vaadin.flow.server.UIInitListener;
+
+/**
+ * A {@link BootstrapListener} which adds a static HTML snapshot of the initial
+ * view to the bootstrap page, so that the browser can paint the view before
+ * the client engine has started and built the real elements.
+ * <p>
+ * The snapshot is rendered with {@link LayoutHtmlRenderer} into a container
+ * with the id {@value #SNAPSHOT_ID} at the start of the body. A small script
+ * removes the container as soon as the client engine adds the root element of
+ * the view to the body. The snapshot is not interactive.
+ * <p>
+ * The root element is recognized by the {@value #ROOT_ATTRIBUTE} attribute,
+ * which the listener sets after each navigation of a UI. The attribute has to
+ * be part of the initial response, which is created before the bootstrap page
+ * is modified, so the listener must also be registered as a
+ * {@link UIInitListener}. Without the attribute no snapshot is added. Register
+ * the listener in a {@code VaadinServiceInitListener}:
+ *
+ * <pre>
+ * LayoutPrerenderListener listener = new LayoutPrerenderListener();
+ * event.addBootstrapListener(listener);
+ * event.getSource().addUIInitListener(listener);
+ * </pre>
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutPrerenderListener
+        implements BootstrapListener, UIInitListener {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the element containing the snapshot.
+     */
+    public static final String SNAPSHOT_ID = "layout-prerender";
+
+    /**
+     * The attribute marking the root element of the view, which replaces the
+     * snapshot.
+     */
+    public static final String ROOT_ATTRIBUTE = "layout-prerender-root";
+
+    private static final String REMOVE_SCRIPT = "<script>(function() {"
+            + "var snapshot = document.getElementById('" + SNAPSHOT_ID
+            + "');" + "new MutationObserver(function(mutations, observer) {"
+            + "for (var i = 0; i < mutations.length; i++) {"
+            + "var added = mutations[i].addedNodes;"
+            + "for (var j = 0; j < added.length; j++) {"
+            + "if (added[j].hasAttribute"
+            + " && added[j].hasAttribute('" + ROOT_ATTRIBUTE + "')) {"
+            + "if (snapshot.parentNode) {"
+            + "snapshot.parentNode.removeChild(snapshot);}"
+            + "observer.disconnect(); return;}}}"
+            + "}).observe(document.body, {childList: true});" + "})();"
+            + "</script>";
+
+    private final LayoutHtmlRenderer renderer;
+
+    /**
+     * Creates a new listener using the default renderer.
+     */
+    public LayoutPrerenderListener() {
+        this(new LayoutHtmlRenderer());
+    }
+
+    /**
+     * Creates a new listener using the given renderer.
+     *
+     * @param renderer
+     *            the renderer to use, not <code>null</code>
+     */
+    public LayoutPrerenderListener(LayoutHtmlRenderer renderer) {
+        if (renderer == null) {
+            throw new IllegalArgumentException(
+                    "The 'renderer' argument can not be null");
+        }
+        this.renderer = renderer;
+    }
+
+    @Override
+    public void uiInit(UIInitEvent event) {
+        UI ui = event.getUI();
+        ui.addAfterNavigationListener(navigation -> getRoot(ui)
+                .ifPresent(root -> root.setAttribute(ROOT_ATTRIBUTE, true)));
+    }
+
+    @Override
+    public void modifyBootstrapPage(BootstrapPageResponse response) {
+        UI ui = response.getUI();
+        Optional<Element> root = getRoot(ui);
+        if (!root.isPresent() || !root.get().hasAttribute(ROOT_ATTRIBUTE)) {
+            // without the marker the snapshot could never be removed
+            return;
+        }
+        // jsoup only accepts the snapshot as a whole, so it is buffered here
+        // instead of being written to the response
+        StringBuilder html = new StringBuilder();
+        html.append("<div id=\"").append(SNAPSHOT_ID)
+                .append("\" aria-hidden=\"true\">");
+        try {
+            for (int i = 0; i < ui.getElement().getChildCount(); i++) {
+                renderer.render(ui.getElement().getChild(i), html);
+            }
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        html.append("</div>");
+        html.append(REMOVE_SCRIPT);
+        response.getDocument().body().prependChild(new DataNode(html.toString()));
+    }
+
+    private static Optional<Element> getRoot(UI ui) {
+        return ui.getElement().getChildren().filter(Element::isVisible)
+                .findFirst();
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.Component;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * The result of analyzing a component tree with a {@link LayoutProfiler}.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutProfile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The profile of a single layout in the analyzed tree. The entry doesn't
+     * refer to the layout itself, so profiles can be kept e.g. for sampled
+     * sessions without keeping their component trees in memory.
+     */
+    public static class LayoutEntry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Class<? extends Component> layoutType;
+        private final String path;
+        private final int depth;
+        private final int childCount;
+
+        LayoutEntry(Class<? extends Component> layoutType, String path,
+                int depth, int childCount) {
+            this.layoutType = layoutType;
+            this.path = path;
+            this.depth = depth;
+            this.childCount = childCount;
+        }
+
+        /**
+         * Gets the class of the layout.
+         *
+         * @return the class of the layout, never <code>null</code>
+         */
+        public Class<? extends Component> getLayoutType() {
+            return layoutType;
+        }
+
+        /**
+         * Gets the simple class name of the layout.
+         *
+         * @return the type of the layout, never <code>null</code>
+         */
+        public String getType() {
+            return layoutType.getSimpleName();
+        }
+
+        /**
+         * Gets the path of the layout from the root of the analyzed tree, as
+         * the simple class names of the components with their child indexes,
+         * e.g. {@code "VerticalLayout/Div[1]/HorizontalLayout[0]"}.
+         *
+         * @return the path of the layout, never <code>null</code>
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Gets the layout nesting depth of the layout. The outermost layouts
+         * of the tree have depth 1.
+         *
+         * @return the nesting depth
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets the amount of children of the layout.
+         *
+         * @return the amount of children
+         */
+        public int getChildCount() {
+            return childCount;
+        }
+    }
+
+    int componentCount;
+    int maxDepth;
+    long styleEntryCount;
+    int flexStyleEntryCount;
+    int themeVariantCount;
+    int clickListenerCount;
+    final List<LayoutEntry> layouts = new ArrayList<>();
+    private List<String> warnings = Collections.emptyList();
+
+    LayoutProfile() {
+    }
+
+    /**
+     * Gets the total amount of components in the tree, including the root.
+     *
+     * @return the amount of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Gets the maximum layout nesting depth of the tree. Only the layouts are
+     * taken into account, so e.g. a layout inside a {@code Div} inside a
+     * layout has depth 2.
+     *
+     * @return the maximum layout nesting depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the profiles of all the layouts of the tree, in depth-first order.
+     *
+     * @return an unmodifiable list of the layouts, never <code>null</code>
+     */
+    public List<LayoutEntry> getLayouts() {
+        return Collections.unmodifiableList(layouts);
+    }
+
+    /**
+     * Gets the total amount of inline style entries of all the components in
+     * the tree.
+     *
+     * @return the amount of style entries
+     */
+    public long getStyleEntryCount() {
+        return styleEntryCount;
+    }
+
+    /**
+     * Gets the amount of inline style entries written through
+     * {@link FlexComponent} and {@link FlexLayout}: the alignment, justify
+     * content mode and wrap mode of the layouts and the flex grow and
+     * individual alignment of their children.
+     *
+     * @return the amount of flex style entries
+     */
+    public int getFlexStyleEntryCount() {
+        return flexStyleEntryCount;
+    }
+
+    /**
+     * Gets the total amount of {@link LayoutTheme} variants applied to the
+     * layouts of the tree.
+     *
+     * @return the amount of theme variants
+     */
+    public int getThemeVariantCount() {
+        return themeVariantCount;
+    }
+
+    /**
+     * Gets the amount of layouts of the tree with a click listener.
+     *
+     * @return the amount of layouts with a click listener
+     */
+    public int getClickListenerCount() {
+        return clickListenerCount;
+    }
+
+    /**
+     * Gets a rough estimate of the server side memory used by the tree, in
+     * bytes, based on {@link LayoutProfiler#COMPONENT_WEIGHT},
+     * {@link LayoutProfiler#STYLE_ENTRY_WEIGHT} and
+     * {@link LayoutProfiler#THEME_VARIANT_WEIGHT}.
+     *
+     * @return the estimated memory, in bytes
+     */
+    public long getEstimatedMemory() {
+        return (long) componentCount * LayoutProfiler.COMPONENT_WEIGHT
+                + styleEntryCount * LayoutProfiler.STYLE_ENTRY_WEIGHT
+                + (long) themeVariantCount
+                        * LayoutProfiler.THEME_VARIANT_WEIGHT;
+    }
+
+    /**
+     * Gets the warnings for the thresholds of the profiler which the tree
+     * exceeds.
+     *
+     * @return an unmodifiable list of the warnings, empty if no threshold was
+     *         exceeded, never <code>null</code>
+     */
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    void setWarnings(List<String> warnings) {
+        this.warnings = Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Writes the profile as a summary line on the info level and each warning
+     * on the warning level to the log.
+     */
+    public void log() {
+        Logger logger = LoggerFactory.getLogger(LayoutProfile.class);
+        logger.info(
+                "Layout profile: {} components, {} layouts, max depth {}, {} style entries ({} flex), {} theme variants, {} click listeners, ~{} bytes",
+                componentCount, layouts.size(), maxDepth, styleEntryCount,
+                flexStyleEntryCount, themeVariantCount, clickListenerCount,
+                getEstimatedMemory());
+        warnings.forEach(logger::warn);
+    }
+
+    /**
+     * Gets the profile as JSON.
+     *
+     * @return the profile as a JSON object, never <code>null</code>
+     */
+    public JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("componentCount", componentCount);
+        json.put("layoutCount", layouts.size());
+        json.put("maxDepth", maxDepth);
+        json.put("styleEntryCount", styleEntryCount);
+        json.put("flexStyleEntryCount", flexStyleEntryCount);
+        json.put("themeVariantCount", themeVariantCount);
+        json.put("clickListenerCount", clickListenerCount);
+        json.put("estimatedMemory", getEstimatedMemory());
+
+        JsonArray layoutsJson = Json.createArray();
+        for (LayoutEntry entry : layouts) {
+            JsonObject entryJson = Json.createObject();
+            entryJson.put("type", entry.getType());
+            entryJson.put("path", entry.getPath());
+            entryJson.put("depth", entry.getDepth());
+            entryJson.put("childCount", entry.getChildCount());
+            layoutsJson.set(layoutsJson.length(), entryJson);
+        }
+        json.put("layouts", layoutsJson);
+
+        JsonArray warningsJson = Json.createArray();
+        for (String warning : warnings) {
+            warningsJson.set(warningsJson.length(), warning);
+        }
+        json.put("warnings", warningsJson);
+        return json;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.dom.Style;
+
+/**
+ * Analyzes the structure of a component tree containing ordered layouts, and
+ * produces a {@link LayoutProfile} with the nesting depth, the amount of
+ * children of each layout, the amount of inline style entries and theme
+ * variants, the amount of click listeners and an estimate of the server side
+ * memory used by the tree.
+ * <p>
+ * The analysis is a single read-only pass over the tree, so it can be run also
+ * in production, e.g. for a sample of the sessions. Each threshold that the
+ * tree exceeds is reported as a warning in the profile.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutProfiler implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Estimated amount of bytes used by a component, including its element,
+     * state node and node features.
+     */
+    public static final int COMPONENT_WEIGHT = 1024;
+
+    /**
+     * Estimated amount of bytes used by an inline style entry.
+     */
+    public static final int STYLE_ENTRY_WEIGHT = 96;
+
+    /**
+     * Estimated amount of bytes used by a theme variant.
+     */
+    public static final int THEME_VARIANT_WEIGHT = 64;
+
+    private int maxDepth = 10;
+    private int maxChildCount = 500;
+    private int maxComponentCount = 10000;
+    private long maxEstimatedMemory = 10 * 1024 * 1024;
+
+    /**
+     * Sets the layout nesting depth above which a warning is reported.
+     * <p>
+     * The default is {@code 10}.
+     *
+     * @param maxDepth
+     *            the maximum layout nesting depth without a warning
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Gets the layout nesting depth above which a warning is reported.
+     *
+     * @return the maximum layout nesting depth without a warning
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the amount of children of a single layout above which a warning is
+     * reported.
+     * <p>
+     * The default is {@code 500}.
+     *
+     * @param maxChildCount
+     *            the maximum amount of children of a layout without a warning
+     */
+    public void setMaxChildCount(int maxChildCount) {
+        this.maxChildCount = maxChildCount;
+    }
+
+    /**
+     * Gets the amount of children of a single layout above which a warning is
+     * reported.
+     *
+     * @return the maximum amount of children of a layout without a warning
+     */
+    public int getMaxChildCount() {
+        return maxChildCount;
+    }
+
+    /**
+     * Sets the total amount of components in the tree above which a warning is
+     * reported.
+     * <p>
+     * The default is {@code 10000}.
+     *
+     * @param maxComponentCount
+     *            the maximum amount of components without a warning
+     */
+    public void setMaxComponentCount(int maxComponentCount) {
+        this.maxComponentCount = maxComponentCount;
+    }
+
+    /**
+     * Gets the total amount of components in the tree above which a warning is
+     * reported.
+     *
+     * @return the maximum amount of components without a warning
+     */
+    public int getMaxComponentCount() {
+        return maxComponentCount;
+    }
+
+    /**
+     * Sets the estimated memory of the tree, in bytes, above which a warning is
+     * reported.
+     * <p>
+     * The default is 10 MB.
+     *
+     * @param maxEstimatedMemory
+     *            the maximum estimated memory without a warning, in bytes
+     */
+    public void setMaxEstimatedMemory(long maxEstimatedMemory) {
+        this.maxEstimatedMemory = maxEstimatedMemory;
+    }
+
+    /**
+     * Gets the estimated memory of the tree, in bytes, above which a warning is
+     * reported.
+     *
+     * @return the maximum estimated memory without a warning, in bytes
+     */
+    public long getMaxEstimatedMemory() {
+        return maxEstimatedMemory;
+    }
+
+    /**
+     * Analyzes the component tree with the given root.
+     *
+     * @param root
+     *            the root of the tree to analyze, not <code>null</code>
+     * @return the profile of the tree, never <code>null</code>
+     */
+    public LayoutProfile profile(Component root) {
+        if (root == null) {
+            throw new IllegalArgumentException(
+                    "The 'root' argument can not be null");
+        }
+        LayoutProfile profile = new LayoutProfile();
+        visit(root, root.getClass().getSimpleName(), 0, profile);
+
+        List<String> warnings = new ArrayList<>();
+        if (profile.getMaxDepth() > maxDepth) {
+            warnings.add(String.format(
+                    "Layout nesting depth %d exceeds the threshold %d",
+                    profile.getMaxDepth(), maxDepth));
+        }
+        for (LayoutProfile.LayoutEntry entry : profile.getLayouts()) {
+            if (entry.getChildCount() > maxChildCount) {
+                warnings.add(String.format(
+                        "%s at depth %d has %d children, exceeding the threshold %d",
+                        entry.getType(), entry.getDepth(),
+                        entry.getChildCount(), maxChildCount));
+            }
+        }
+        if (profile.getComponentCount() > maxComponentCount) {
+            warnings.add(String.format(
+                    "Component count %d exceeds the threshold %d",
+                    profile.getComponentCount(), maxComponentCount));
+        }
+        if (profile.getEstimatedMemory() > maxEstimatedMemory) {
+            warnings.add(String.format(
+                    "Estimated memory %d bytes exceeds the threshold %d bytes",
+                    profile.getEstimatedMemory(), maxEstimatedMemory));
+        }
+        profile.setWarnings(warnings);
+        return profile;
+    }
+
+    private static void visit(Component component, String path,
+            int parentDepth, LayoutProfile profile) {
+        profile.componentCount++;
+        profile.styleEntryCount += component.getElement().getStyle()
+                .getNames().count();
+
+        boolean layout = isLayout(component);
+        int depth = layout ? parentDepth + 1 : parentDepth;
+        if (layout) {
+            profile.maxDepth = Math.max(profile.maxDepth, depth);
+            profile.layouts.add(new LayoutProfile.LayoutEntry(
+                    component.getClass(), path, depth,
+                    (int) component.getChildren().count()));
+            if (LayoutListeners.isListening(component,
+                    LayoutListeners.CLICK_EVENT)) {
+                profile.clickListenerCount++;
+            }
+        }
+        if (component instanceof ThemableLayout) {
+            profile.themeVariantCount += ((ThemableLayout) component)
+                    .getThemeVariants().size();
+        }
+        if (component instanceof FlexComponent) {
+            Style style = component.getElement().getStyle();
+            profile.flexStyleEntryCount += count(style,
+                    FlexConstants.ALIGN_ITEMS_CSS_PROPERTY,
+                    FlexConstants.JUSTIFY_CONTENT_CSS_PROPERTY,
+                    FlexConstants.FLEX_WRAP_CSS_PROPERTY);
+        }
+
+        boolean flexParent = component instanceof FlexComponent;
+        List<Component> children = component.getChildren()
+                .collect(Collectors.toList());
+        for (int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            if (flexParent) {
+                profile.flexStyleEntryCount += count(
+                        child.getElement().getStyle(),
+                        FlexConstants.FLEX_GROW_CSS_PROPERTY,
+                        FlexConstants.ALIGN_SELF_CSS_PROPERTY);
+            }
+            visit(child, path + '/' + child.getClass().getSimpleName() + '['
+                    + i + ']', depth, profile);
+        }
+    }
+
+    private static int count(Style style, String... properties) {
+        int count = 0;
+        for (String property : properties) {
+            if (style.has(property)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isLayout(Component component) {
+        return component instanceof FlexComponent
+                || component instanceof DashboardLayout;
+    }
+}
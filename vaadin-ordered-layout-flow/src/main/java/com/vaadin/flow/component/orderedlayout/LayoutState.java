@@ -0,0 +1,715 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.Style;
+
+/**
+ * A compact snapshot of the state of a single layout: its type, theme
+ * variants, alignments, wrap mode, box sizing, size, containment hints and the
+ * flex values of its children in child order.
+ * <p>
+ * The state of a layout lives in the state tree of its UI, so the layout
+ * itself can only be serialized together with the whole UI. To keep a layout
+ * out of a replicated session, a view can store the layout in a transient
+ * field, keep a {@code LayoutState} instead, and {@link #restore(Component...)
+ * restore} the layout after deserialization. The state is written in a binary
+ * form of a few bytes per layout and typically one byte per child, both as
+ * {@link Externalizable} and with {@link #writeTo(DataOutput)}.
+ * <p>
+ * Only the values applied through the layout API are captured; arbitrary
+ * styles, attributes and the children themselves are not. Only component
+ * children are counted: children added as plain elements, e.g. with
+ * {@link FlexComponent#addElements(Element...)} or
+ * {@link FlexComponent#addHtml(String)}, are skipped together with their flex
+ * values.
+ *
+ * @author Vaadin Ltd.
+ */
+public final class LayoutState implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The version of the binary form written by {@link #writeTo(DataOutput)}.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The largest amount of children accepted when reading the binary form,
+     * so that corrupt or hostile input can not make the reader allocate
+     * arbitrarily large arrays.
+     */
+    static final int MAX_CHILD_COUNT = 1 << 16;
+
+    private static final List<Class<?>> TYPES = Arrays.asList(
+            VerticalLayout.class, HorizontalLayout.class, FlexLayout.class,
+            NativeVerticalLayout.class, NativeHorizontalLayout.class);
+    private static final List<Supplier<FlexComponent<?>>> FACTORIES = Arrays
+            .asList(VerticalLayout::new, HorizontalLayout::new,
+                    FlexLayout::new, NativeVerticalLayout::new,
+                    NativeHorizontalLayout::new);
+
+    private static final int ALIGN_ITEMS = 1;
+    private static final int JUSTIFY_CONTENT = 1 << 1;
+    private static final int WRAP_MODE = 1 << 2;
+    private static final int WIDTH = 1 << 3;
+    private static final int HEIGHT = 1 << 4;
+    private static final int OTHER_THEMES = 1 << 5;
+    private static final int CONTAINMENT = 1 << 6;
+    private static final int CONTAIN_INTRINSIC_SIZE = 1 << 7;
+
+    private static final int CONTENT_VISIBILITY_AUTO = 1 << 4;
+
+    private static final int GROW_NONE = 0;
+    private static final int GROW_ONE = 1;
+    private static final int GROW_VALUE = 2;
+
+    private static final Alignment[] ALIGNMENTS = Alignment.values();
+
+    private int type;
+    private EnumSet<LayoutTheme> themeVariants = EnumSet
+            .noneOf(LayoutTheme.class);
+    private String otherThemes;
+    private Alignment alignItems;
+    private JustifyContentMode justifyContentMode;
+    private WrapMode wrapMode;
+    private BoxSizing boxSizing = BoxSizing.UNDEFINED;
+    private String width;
+    private String height;
+    private EnumSet<Containment> containment = EnumSet
+            .noneOf(Containment.class);
+    private boolean contentVisibilityAuto;
+    private String containIntrinsicSize;
+    private double[] flexGrow = new double[0];
+    private Alignment[] alignSelf = new Alignment[0];
+
+    /**
+     * Creates an empty state. Only for deserialization, use
+     * {@link #capture(FlexComponent)} to create a state of a layout.
+     */
+    public LayoutState() {
+        // for Externalizable
+    }
+
+    /**
+     * Captures the state of a layout.
+     *
+     * @param layout
+     *            the layout to capture, not <code>null</code>
+     * @return the state of the layout
+     * @throws IllegalArgumentException
+     *             if the layout is not a {@link VerticalLayout},
+     *             {@link HorizontalLayout}, {@link FlexLayout},
+     *             {@link NativeVerticalLayout} or
+     *             {@link NativeHorizontalLayout}
+     */
+    public static LayoutState capture(FlexComponent<?> layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException(
+                    "The 'layout' argument can not be null");
+        }
+        int type = TYPES.indexOf(layout.getClass());
+        if (type < 0) {
+            throw new IllegalArgumentException(
+                    "Unsupported layout type: " + layout.getClass().getName());
+        }
+        LayoutState state = new LayoutState();
+        state.type = type;
+
+        Element element = layout.getElement();
+        StringBuilder otherThemes = new StringBuilder();
+        for (String themeName : element.getThemeList()) {
+            LayoutTheme variant = LayoutTheme.toLayoutTheme(themeName);
+            if (variant != null) {
+                state.themeVariants.add(variant);
+            } else {
+                if (otherThemes.length() > 0) {
+                    otherThemes.append(' ');
+                }
+                otherThemes.append(themeName);
+            }
+        }
+        if (otherThemes.length() > 0) {
+            state.otherThemes = otherThemes.toString();
+        }
+
+        Style style = element.getStyle();
+        state.alignItems = Alignment.toAlignment(
+                style.get(FlexConstants.ALIGN_ITEMS_CSS_PROPERTY), null);
+        state.justifyContentMode = JustifyContentMode.toJustifyContentMode(
+                style.get(FlexConstants.JUSTIFY_CONTENT_CSS_PROPERTY), null);
+        state.wrapMode = WrapMode.toWrapMode(
+                style.get(FlexConstants.FLEX_WRAP_CSS_PROPERTY), null);
+        if (layout instanceof ThemableLayout) {
+            state.boxSizing = ((ThemableLayout) layout).getBoxSizing();
+        }
+        state.width = style.get("width");
+        state.height = style.get("height");
+        if (layout instanceof HasContainment) {
+            HasContainment hints = (HasContainment) layout;
+            state.containment = hints.getContainment();
+            state.contentVisibilityAuto = hints.isContentVisibilityAuto();
+            state.containIntrinsicSize = hints.getContainIntrinsicSize();
+        }
+
+        FlexSnapshot snapshot = layout.getFlexSnapshot();
+        double[] flexGrow = snapshot.getFlexGrow();
+        int[] alignSelf = snapshot.getAlignSelfOrdinals();
+        int[] indices = getComponentChildIndices(element);
+        state.setChildCount(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            state.flexGrow[i] = flexGrow[indices[i]];
+            if (alignSelf[indices[i]] != FlexSnapshot.NOT_SET) {
+                state.alignSelf[i] = Alignment
+                        .fromOrdinal(alignSelf[indices[i]]);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Gets the indices of the child elements of a layout which are mapped to
+     * a component, the children captured by a state.
+     */
+    static int[] getComponentChildIndices(Element element) {
+        int[] indices = new int[element.getChildCount()];
+        int count = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (element.getChild(i).getComponent().isPresent()) {
+                indices[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Checks whether the state of the given component can be captured.
+     */
+    static boolean isSupported(Component component) {
+        return TYPES.contains(component.getClass());
+    }
+
+    /**
+     * Creates a new layout of the captured type with the given children, and
+     * applies this state to it.
+     *
+     * @param children
+     *            the children of the layout, in the captured order
+     * @return the restored layout
+     * @see #applyTo(FlexComponent)
+     */
+    public FlexComponent<?> restore(Component... children) {
+        FlexComponent<?> layout = FACTORIES.get(type).get();
+        layout.add(children);
+        applyTo(layout);
+        return layout;
+    }
+
+    /**
+     * Applies this state to an existing layout. The flex values of the
+     * children are applied by index; if the layout has a different amount of
+     * children than the captured one, the extra values or children are
+     * ignored.
+     *
+     * @param layout
+     *            the layout to apply the state to, not <code>null</code>
+     */
+    public void applyTo(FlexComponent<?> layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException(
+                    "The 'layout' argument can not be null");
+        }
+        Element element = layout.getElement();
+        String theme = getThemeAttribute();
+        if (theme == null) {
+            if (element.hasAttribute("theme")) {
+                element.removeAttribute("theme");
+            }
+        } else if (!theme.equals(element.getAttribute("theme"))) {
+            element.setAttribute("theme", theme);
+        }
+
+        Style style = element.getStyle();
+        setStyle(style, FlexConstants.ALIGN_ITEMS_CSS_PROPERTY,
+                alignItems == null ? null : alignItems.getFlexValue());
+        setStyle(style, FlexConstants.JUSTIFY_CONTENT_CSS_PROPERTY,
+                justifyContentMode == null ? null
+                        : justifyContentMode.getFlexValue());
+        setStyle(style, FlexConstants.FLEX_WRAP_CSS_PROPERTY,
+                wrapMode == null ? null : wrapMode.getFlexValue());
+        if (layout instanceof ThemableLayout) {
+            ((ThemableLayout) layout).setBoxSizing(boxSizing);
+        }
+        setStyle(style, "width", width);
+        setStyle(style, "height", height);
+        if (layout instanceof HasContainment) {
+            HasContainment hints = (HasContainment) layout;
+            hints.setContainment(containment);
+            hints.setContentVisibilityAuto(contentVisibilityAuto);
+            hints.setContainIntrinsicSize(containIntrinsicSize);
+        }
+
+        int[] indices = getComponentChildIndices(element);
+        int count = Math.min(indices.length, flexGrow.length);
+        for (int i = 0; i < count; i++) {
+            Style childStyle = element.getChild(indices[i]).getStyle();
+            setStyle(childStyle, FlexConstants.FLEX_GROW_CSS_PROPERTY,
+                    flexGrow[i] == 0 ? null : String.valueOf(flexGrow[i]));
+            setStyle(childStyle, FlexConstants.ALIGN_SELF_CSS_PROPERTY,
+                    alignSelf[i] == null ? null
+                            : alignSelf[i].getFlexValue());
+        }
+    }
+
+    /**
+     * Gets the class of the captured layout.
+     *
+     * @return the layout class, never <code>null</code>
+     */
+    public Class<?> getLayoutType() {
+        return TYPES.get(type);
+    }
+
+    /**
+     * Gets the amount of children of the captured layout.
+     *
+     * @return the amount of children
+     */
+    public int getChildCount() {
+        return flexGrow.length;
+    }
+
+    /**
+     * Writes this state in its binary form.
+     *
+     * @param out
+     *            the output to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing fails
+     * @see #readFrom(DataInput)
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(VERSION);
+        writeHeader(out);
+        writeVarInt(out, flexGrow.length);
+        for (int i = 0; i < flexGrow.length; i++) {
+            writeChild(out, i);
+        }
+    }
+
+    /**
+     * Writes the layout level part of the state, everything except the
+     * children.
+     */
+    void writeHeader(DataOutput out) throws IOException {
+        int flags = (alignItems == null ? 0 : ALIGN_ITEMS)
+                | (justifyContentMode == null ? 0 : JUSTIFY_CONTENT)
+                | (wrapMode == null ? 0 : WRAP_MODE)
+                | (width == null ? 0 : WIDTH) | (height == null ? 0 : HEIGHT)
+                | (otherThemes == null ? 0 : OTHER_THEMES)
+                | (hasContainment() ? CONTAINMENT : 0)
+                | (containIntrinsicSize == null ? 0 : CONTAIN_INTRINSIC_SIZE);
+        int variants = 0;
+        for (LayoutTheme variant : themeVariants) {
+            variants |= 1 << variant.ordinal();
+        }
+        out.writeByte(type);
+        out.writeByte(flags);
+        out.writeByte(variants);
+        out.writeByte(boxSizing.ordinal());
+        if (alignItems != null) {
+            out.writeByte(alignItems.ordinal());
+        }
+        if (justifyContentMode != null) {
+            out.writeByte(justifyContentMode.ordinal());
+        }
+        if (wrapMode != null) {
+            out.writeByte(wrapMode.ordinal());
+        }
+        if (width != null) {
+            out.writeUTF(width);
+        }
+        if (height != null) {
+            out.writeUTF(height);
+        }
+        if (otherThemes != null) {
+            out.writeUTF(otherThemes);
+        }
+        if (hasContainment()) {
+            int hints = contentVisibilityAuto ? CONTENT_VISIBILITY_AUTO : 0;
+            for (Containment type : containment) {
+                hints |= 1 << type.ordinal();
+            }
+            out.writeByte(hints);
+        }
+        if (containIntrinsicSize != null) {
+            out.writeUTF(containIntrinsicSize);
+        }
+    }
+
+    /**
+     * Writes the flex values of the child at the given index.
+     */
+    void writeChild(DataOutput out, int index) throws IOException {
+        int grow = flexGrow[index] == 0 ? GROW_NONE
+                : flexGrow[index] == 1 ? GROW_ONE : GROW_VALUE;
+        int align = alignSelf[index] == null ? 0
+                : alignSelf[index].ordinal() + 1;
+        out.writeByte(grow << 4 | align);
+        if (grow == GROW_VALUE) {
+            out.writeDouble(flexGrow[index]);
+        }
+    }
+
+    /**
+     * Computes the size of the binary form written by
+     * {@link #writeTo(DataOutput)} without writing it.
+     */
+    int getSize() {
+        int size = 1 + getHeaderSize() + getVarIntSize(flexGrow.length);
+        for (int i = 0; i < flexGrow.length; i++) {
+            size += getChildSize(i);
+        }
+        return size;
+    }
+
+    /**
+     * Computes the size written by {@link #writeHeader(DataOutput)}.
+     */
+    int getHeaderSize() {
+        return 4 + (alignItems == null ? 0 : 1)
+                + (justifyContentMode == null ? 0 : 1)
+                + (wrapMode == null ? 0 : 1) + getUtfSize(width)
+                + getUtfSize(height) + getUtfSize(otherThemes)
+                + (hasContainment() ? 1 : 0)
+                + getUtfSize(containIntrinsicSize);
+    }
+
+    /**
+     * Computes the size written by {@link #writeChild(DataOutput, int)}.
+     */
+    int getChildSize(int index) {
+        return flexGrow[index] == 0 || flexGrow[index] == 1 ? 1 : 9;
+    }
+
+    /**
+     * Reads a state from its binary form.
+     *
+     * @param in
+     *            the input to read from, not <code>null</code>
+     * @return the state
+     * @throws IOException
+     *             if reading fails, or the input is not a layout state of a
+     *             supported version
+     * @see #writeTo(DataOutput)
+     */
+    public static LayoutState readFrom(DataInput in) throws IOException {
+        LayoutState state = new LayoutState();
+        state.read(in);
+        return state;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        writeTo(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        read(in);
+    }
+
+    private void read(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported layout state version: " + version);
+        }
+        readHeader(in);
+        setChildCount(readCount(in, MAX_CHILD_COUNT));
+        for (int i = 0; i < flexGrow.length; i++) {
+            readChild(in, i);
+        }
+    }
+
+    /**
+     * Reads the layout level part of the state written by
+     * {@link #writeHeader(DataOutput)}.
+     */
+    void readHeader(DataInput in) throws IOException {
+        type = readOrdinal(in, TYPES.size());
+        int flags = in.readUnsignedByte();
+        int variants = in.readUnsignedByte();
+        themeVariants = EnumSet.noneOf(LayoutTheme.class);
+        for (LayoutTheme variant : LayoutTheme.values()) {
+            if ((variants & 1 << variant.ordinal()) != 0) {
+                themeVariants.add(variant);
+            }
+        }
+        boxSizing = BoxSizing.values()[readOrdinal(in,
+                BoxSizing.values().length)];
+        alignItems = (flags & ALIGN_ITEMS) == 0 ? null
+                : ALIGNMENTS[readOrdinal(in, ALIGNMENTS.length)];
+        justifyContentMode = (flags & JUSTIFY_CONTENT) == 0 ? null
+                : JustifyContentMode.values()[readOrdinal(in,
+                        JustifyContentMode.values().length)];
+        wrapMode = (flags & WRAP_MODE) == 0 ? null
+                : WrapMode.values()[readOrdinal(in, WrapMode.values().length)];
+        width = (flags & WIDTH) == 0 ? null : in.readUTF();
+        height = (flags & HEIGHT) == 0 ? null : in.readUTF();
+        otherThemes = (flags & OTHER_THEMES) == 0 ? null : in.readUTF();
+        containment = EnumSet.noneOf(Containment.class);
+        contentVisibilityAuto = false;
+        if ((flags & CONTAINMENT) != 0) {
+            readContainment(in.readUnsignedByte());
+        }
+        containIntrinsicSize = (flags & CONTAIN_INTRINSIC_SIZE) == 0 ? null
+                : in.readUTF();
+    }
+
+    /**
+     * Reads the flex values of the child at the given index written by
+     * {@link #writeChild(DataOutput, int)}.
+     */
+    void readChild(DataInput in, int index) throws IOException {
+        int child = in.readUnsignedByte();
+        int grow = child >> 4;
+        int align = child & 0xF;
+        if (grow == GROW_ONE) {
+            flexGrow[index] = 1;
+        } else if (grow == GROW_VALUE) {
+            flexGrow[index] = in.readDouble();
+        } else if (grow == GROW_NONE) {
+            flexGrow[index] = 0;
+        } else {
+            throw new IOException("Invalid flex grow code: " + grow);
+        }
+        if (align > ALIGNMENTS.length) {
+            throw new IOException("Invalid alignment code: " + align);
+        }
+        alignSelf[index] = align == 0 ? null : ALIGNMENTS[align - 1];
+    }
+
+    /**
+     * Creates a state with the layout level values of this state and the
+     * given amount of children without flex values.
+     */
+    LayoutState copyHeader(int childCount) {
+        LayoutState copy = new LayoutState();
+        copy.type = type;
+        copy.themeVariants = EnumSet.copyOf(themeVariants);
+        copy.otherThemes = otherThemes;
+        copy.alignItems = alignItems;
+        copy.justifyContentMode = justifyContentMode;
+        copy.wrapMode = wrapMode;
+        copy.boxSizing = boxSizing;
+        copy.width = width;
+        copy.height = height;
+        copy.containment = EnumSet.copyOf(containment);
+        copy.contentVisibilityAuto = contentVisibilityAuto;
+        copy.containIntrinsicSize = containIntrinsicSize;
+        copy.setChildCount(childCount);
+        return copy;
+    }
+
+    /**
+     * Checks whether the layout level values of this state equal the ones of
+     * the given state.
+     */
+    boolean headerEquals(LayoutState other) {
+        return type == other.type && themeVariants.equals(other.themeVariants)
+                && Objects.equals(otherThemes, other.otherThemes)
+                && alignItems == other.alignItems
+                && justifyContentMode == other.justifyContentMode
+                && wrapMode == other.wrapMode && boxSizing == other.boxSizing
+                && Objects.equals(width, other.width)
+                && Objects.equals(height, other.height)
+                && containment.equals(other.containment)
+                && contentVisibilityAuto == other.contentVisibilityAuto
+                && Objects.equals(containIntrinsicSize,
+                        other.containIntrinsicSize);
+    }
+
+    /**
+     * Checks whether the flex values of the child at the given index equal
+     * the ones of a child of the given state.
+     */
+    boolean childEquals(int index, LayoutState other, int otherIndex) {
+        return Double.compare(flexGrow[index], other.flexGrow[otherIndex]) == 0
+                && alignSelf[index] == other.alignSelf[otherIndex];
+    }
+
+    /**
+     * Checks whether the child at the given index has no flex values.
+     */
+    boolean isDefaultChild(int index) {
+        return flexGrow[index] == 0 && alignSelf[index] == null;
+    }
+
+    /**
+     * Copies the flex values of a child of the given state to the child at
+     * the given index.
+     */
+    void copyChild(int index, LayoutState from, int fromIndex) {
+        flexGrow[index] = from.flexGrow[fromIndex];
+        alignSelf[index] = from.alignSelf[fromIndex];
+    }
+
+    private void setChildCount(int childCount) {
+        flexGrow = new double[childCount];
+        alignSelf = new Alignment[childCount];
+    }
+
+    private boolean hasContainment() {
+        return contentVisibilityAuto || !containment.isEmpty();
+    }
+
+    private void readContainment(int hints) throws IOException {
+        if (hints >= CONTENT_VISIBILITY_AUTO << 1) {
+            throw new IOException("Invalid containment: " + hints);
+        }
+        for (Containment type : Containment.values()) {
+            if ((hints & 1 << type.ordinal()) != 0) {
+                containment.add(type);
+            }
+        }
+        if (containment.contains(Containment.CONTENT)
+                && containment.size() > 1) {
+            throw new IOException("Invalid containment: " + containment);
+        }
+        contentVisibilityAuto = (hints & CONTENT_VISIBILITY_AUTO) != 0;
+    }
+
+    private String getThemeAttribute() {
+        List<String> names = new ArrayList<>();
+        for (LayoutTheme variant : themeVariants) {
+            names.add(variant.getThemeName());
+        }
+        if (otherThemes != null) {
+            names.add(otherThemes);
+        }
+        return names.isEmpty() ? null : String.join(" ", names);
+    }
+
+    private static void setStyle(Style style, String name, String value) {
+        if (value == null) {
+            if (style.has(name)) {
+                style.remove(name);
+            }
+        } else if (!value.equals(style.get(name))) {
+            style.set(name, value);
+        }
+    }
+
+    private static int readOrdinal(DataInput in, int count)
+            throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= count) {
+            throw new IOException("Invalid ordinal: " + ordinal);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Writes a non-negative integer in 7 bit groups, so that values below 128
+     * take a single byte.
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte(remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    /**
+     * Computes the size written by {@link #writeVarInt(DataOutput, int)}.
+     */
+    static int getVarIntSize(int value) {
+        int size = 1;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+
+    private static int getUtfSize(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int size = 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            size += c >= 0x1 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return size;
+    }
+
+    /**
+     * Reads an integer written with {@link #writeVarInt(DataOutput, int)}.
+     * Input longer than five bytes or encoding a negative value is rejected.
+     */
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 28; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        int last = in.readUnsignedByte();
+        if (last > 0x07) {
+            throw new IOException("Malformed variable length integer");
+        }
+        return value | last << 28;
+    }
+
+    /**
+     * Reads an amount written with {@link #writeVarInt(DataOutput, int)},
+     * rejecting values above the given maximum.
+     */
+    static int readCount(DataInput in, int max) throws IOException {
+        int count = readVarInt(in);
+        if (count > max) {
+            throw new IOException(
+                    "Invalid count: " + count + ", the maximum is " + max);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+/**
+ * Enum for the theme variants supported by {@link ThemableLayout}
+ * implementations. Each constant corresponds to one theme name in the
+ * {@code theme} attribute of the layout element.
+ * <p>
+ * At most one of the spacing variants ({@link #SPACING_XS},
+ * {@link #SPACING_S}, {@link #SPACING}, {@link #SPACING_L},
+ * {@link #SPACING_XL}) can be applied to a layout at a time.
+ *
+ * @author Vaadin Ltd.
+ * @see ThemableLayout#setThemeVariants(java.util.EnumSet)
+ */
+public enum LayoutTheme {
+
+    /**
+     * Applies margin around the layout.
+     */
+    MARGIN("margin"),
+
+    /**
+     * Applies padding inside the layout.
+     */
+    PADDING("padding"),
+
+    /**
+     * Applies extra small spacing between the children of the layout.
+     */
+    SPACING_XS("spacing-xs"),
+
+    /**
+     * Applies small spacing between the children of the layout.
+     */
+    SPACING_S("spacing-s"),
+
+    /**
+     * Applies medium spacing between the children of the layout.
+     */
+    SPACING("spacing"),
+
+    /**
+     * Applies large spacing between the children of the layout.
+     */
+    SPACING_L("spacing-l"),
+
+    /**
+     * Applies extra large spacing between the children of the layout.
+     */
+    SPACING_XL("spacing-xl");
+
+    private final String themeName;
+
+    LayoutTheme(String themeName) {
+        this.themeName = themeName;
+    }
+
+    /**
+     * Gets the theme name written to the {@code theme} attribute for this
+     * variant.
+     *
+     * @return the theme name, never <code>null</code>
+     */
+    public String getThemeName() {
+        return themeName;
+    }
+
+    boolean isSpacing() {
+        return ordinal() >= SPACING_XS.ordinal();
+    }
+
+    static LayoutTheme toLayoutTheme(String themeName) {
+        for (LayoutTheme theme : values()) {
+            if (theme.themeName.equals(themeName)) {
+                return theme;
+            }
+        }
+        return null;
+    }
+}
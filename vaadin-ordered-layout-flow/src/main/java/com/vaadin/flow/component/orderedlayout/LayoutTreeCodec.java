@@ -0,0 +1,361 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.function.SerializableFunction;
+
+/**
+ * Encodes a tree of layouts into a compact, versioned binary form or a URL
+ * safe token, and rebuilds the tree from it.
+ * <p>
+ * The {@link VerticalLayout}, {@link HorizontalLayout}, {@link FlexLayout},
+ * {@link NativeVerticalLayout} and {@link NativeHorizontalLayout} instances of
+ * the tree are encoded with their {@link LayoutState}: theme variants,
+ * alignments, justify content mode, wrap mode, box sizing, size, containment
+ * hints and the flex values of their children. Any other component is a leaf, which is encoded
+ * as a key given by the leaf key provider and rebuilt with the leaf factory.
+ * Repeated keys are written only once. Children added to a layout as plain
+ * elements are skipped, like in {@link LayoutState}.
+ * <p>
+ * Decoding needs no session state, so a view can for example be rebuilt from
+ * a token in the URL on any node. Data from an untrusted source is limited to
+ * {@value #MAX_DEPTH} levels of nesting and to as many nodes as its size can
+ * hold, and a codec created with a secret signs its tokens and rejects tokens
+ * that were not signed with the same secret.
+ *
+ * @author Vaadin Ltd.
+ */
+public class LayoutTreeCodec implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The deepest nesting of layouts accepted when decoding.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * The least amount of bytes a child takes: its flex values, its node kind
+     * and at least one byte of the node itself.
+     */
+    private static final int MIN_CHILD_SIZE = 3;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private static final int LAYOUT = 0;
+    private static final int LEAF = 1;
+    private static final int LEAF_REFERENCE = 2;
+
+    private final SerializableFunction<Component, String> leafKeyProvider;
+    private final SerializableFunction<String, Component> leafFactory;
+    private final byte[] secret;
+
+    /**
+     * Creates a codec.
+     *
+     * @param leafKeyProvider
+     *            the function giving the key of a leaf component, used when
+     *            encoding; it must not return <code>null</code>
+     * @param leafFactory
+     *            the function creating a leaf component from its key, used
+     *            when decoding
+     */
+    public LayoutTreeCodec(
+            SerializableFunction<Component, String> leafKeyProvider,
+            SerializableFunction<String, Component> leafFactory) {
+        this(leafKeyProvider, leafFactory, null);
+    }
+
+    /**
+     * Creates a codec signing its tokens with a server side secret. Tokens
+     * are checked against their signature before decoding, so that tokens
+     * coming back from the browser can not be forged or modified.
+     *
+     * @param leafKeyProvider
+     *            the function giving the key of a leaf component, used when
+     *            encoding; it must not return <code>null</code>
+     * @param leafFactory
+     *            the function creating a leaf component from its key, used
+     *            when decoding
+     * @param secret
+     *            the secret to sign the tokens with, or <code>null</code> to
+     *            not sign them
+     */
+    public LayoutTreeCodec(
+            SerializableFunction<Component, String> leafKeyProvider,
+            SerializableFunction<String, Component> leafFactory,
+            byte[] secret) {
+        if (leafKeyProvider == null || leafFactory == null) {
+            throw new IllegalArgumentException(
+                    "The leaf key provider and the leaf factory can not be null");
+        }
+        if (secret != null && secret.length == 0) {
+            throw new IllegalArgumentException("The secret can not be empty");
+        }
+        this.leafKeyProvider = leafKeyProvider;
+        this.leafFactory = leafFactory;
+        this.secret = secret == null ? null : secret.clone();
+    }
+
+    /**
+     * Encodes a component tree into its binary form.
+     *
+     * @param root
+     *            the root of the tree, not <code>null</code>
+     * @return the encoded tree
+     */
+    public byte[] encode(Component root) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTo(root, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Rebuilds a component tree from its binary form.
+     *
+     * @param data
+     *            the encoded tree, not <code>null</code>
+     * @return the root of the rebuilt tree
+     * @throws IllegalArgumentException
+     *             if the data is not a valid encoded tree
+     */
+    public Component decode(byte[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "The 'data' argument can not be null");
+        }
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(data)),
+                    data.length / MIN_CHILD_SIZE);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid layout tree data", e);
+        }
+    }
+
+    /**
+     * Encodes a component tree into a URL safe token.
+     *
+     * @param root
+     *            the root of the tree, not <code>null</code>
+     * @return the token
+     */
+    public String encodeToken(Component root) {
+        byte[] data = encode(root);
+        if (secret != null) {
+            byte[] signed = Arrays.copyOf(data, data.length + MAC_LENGTH);
+            System.arraycopy(sign(data), 0, signed, data.length, MAC_LENGTH);
+            data = signed;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+    }
+
+    /**
+     * Rebuilds a component tree from a token created with
+     * {@link #encodeToken(Component)}.
+     *
+     * @param token
+     *            the token, not <code>null</code>
+     * @return the root of the rebuilt tree
+     * @throws IllegalArgumentException
+     *             if the token is not a valid encoded tree, or this codec has
+     *             a secret and the token was not signed with it
+     */
+    public Component decodeToken(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException(
+                    "The 'token' argument can not be null");
+        }
+        byte[] data = Base64.getUrlDecoder().decode(token);
+        if (secret != null) {
+            int length = data.length - MAC_LENGTH;
+            if (length < 0 || !MessageDigest.isEqual(
+                    sign(Arrays.copyOf(data, length)),
+                    Arrays.copyOfRange(data, length, data.length))) {
+                throw new IllegalArgumentException(
+                        "Invalid layout tree token signature");
+            }
+            data = Arrays.copyOf(data, length);
+        }
+        return decode(data);
+    }
+
+    /**
+     * Writes a component tree in its binary form.
+     *
+     * @param root
+     *            the root of the tree, not <code>null</code>
+     * @param out
+     *            the output to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing fails
+     */
+    public void writeTo(Component root, DataOutput out) throws IOException {
+        if (root == null) {
+            throw new IllegalArgumentException(
+                    "The 'root' argument can not be null");
+        }
+        out.writeByte(LayoutState.VERSION);
+        writeNode(root, out, new HashMap<>());
+    }
+
+    /**
+     * Reads a component tree written with
+     * {@link #writeTo(Component, DataOutput)}.
+     *
+     * @param in
+     *            the input to read from, not <code>null</code>
+     * @return the root of the rebuilt tree
+     * @throws IOException
+     *             if reading fails, or the input is not an encoded tree of a
+     *             supported version
+     */
+    public Component readFrom(DataInput in) throws IOException {
+        return read(in, LayoutState.MAX_CHILD_COUNT);
+    }
+
+    private Component read(DataInput in, int maxNodes) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != LayoutState.VERSION) {
+            throw new IOException(
+                    "Unsupported layout tree version: " + version);
+        }
+        return readNode(in, new ArrayList<>(), 0, new int[] { maxNodes });
+    }
+
+    private void writeNode(Component component, DataOutput out,
+            Map<String, Integer> keys) throws IOException {
+        if (LayoutState.isSupported(component)) {
+            FlexComponent<?> layout = (FlexComponent<?>) component;
+            LayoutState state = LayoutState.capture(layout);
+            int[] indices = LayoutState
+                    .getComponentChildIndices(layout.getElement());
+            out.writeByte(LAYOUT);
+            state.writeHeader(out);
+            LayoutState.writeVarInt(out, state.getChildCount());
+            for (int i = 0; i < state.getChildCount(); i++) {
+                state.writeChild(out, i);
+                writeNode(layout.getElement().getChild(indices[i])
+                        .getComponent().get(), out, keys);
+            }
+            return;
+        }
+
+        String key = leafKeyProvider.apply(component);
+        if (key == null) {
+            throw new IllegalArgumentException(
+                    "No key for the leaf component " + component);
+        }
+        Integer index = keys.get(key);
+        if (index == null) {
+            keys.put(key, keys.size());
+            out.writeByte(LEAF);
+            out.writeUTF(key);
+        } else {
+            out.writeByte(LEAF_REFERENCE);
+            LayoutState.writeVarInt(out, index);
+        }
+    }
+
+    /**
+     * Reads a node and its descendants. The amount of nodes still allowed in
+     * the tree is kept in the single element of {@code nodesLeft}, so that
+     * the children of a layout can not claim more space than the input has.
+     */
+    private Component readNode(DataInput in, List<String> keys, int depth,
+            int[] nodesLeft) throws IOException {
+        int kind = in.readUnsignedByte();
+        switch (kind) {
+        case LAYOUT:
+            if (depth >= MAX_DEPTH) {
+                throw new IOException("Layout tree deeper than " + MAX_DEPTH
+                        + " levels");
+            }
+            LayoutState header = new LayoutState();
+            header.readHeader(in);
+            int childCount = LayoutState.readCount(in,
+                    Math.min(nodesLeft[0], LayoutState.MAX_CHILD_COUNT));
+            nodesLeft[0] -= childCount;
+            LayoutState state = header.copyHeader(childCount);
+            Component[] children = new Component[childCount];
+            for (int i = 0; i < children.length; i++) {
+                state.readChild(in, i);
+                children[i] = readNode(in, keys, depth + 1, nodesLeft);
+            }
+            return (Component) state.restore(children);
+        case LEAF:
+            String key = in.readUTF();
+            keys.add(key);
+            return createLeaf(key);
+        case LEAF_REFERENCE:
+            int index = LayoutState.readVarInt(in);
+            if (index < 0 || index >= keys.size()) {
+                throw new IOException("Invalid leaf reference: " + index);
+            }
+            return createLeaf(keys.get(index));
+        default:
+            throw new IOException("Invalid node kind: " + kind);
+        }
+    }
+
+    private Component createLeaf(String key) {
+        Component leaf = leafFactory.apply(key);
+        if (leaf == null) {
+            throw new IllegalArgumentException(
+                    "The leaf factory returned null for the key " + key);
+        }
+        return leaf;
+    }
+
+    private byte[] sign(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(
+                    "Can not sign with " + MAC_ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * An observable value which a layout property can be bound to with
+ * {@link LayoutBindings}.
+ * <p>
+ * Listeners are notified when the value changes to a value which is not equal
+ * to the previous one.
+ *
+ * @param <T>
+ *            the type of the value
+ * @author Vaadin Ltd.
+ */
+public class LayoutValue<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private T value;
+    private final List<SerializableConsumer<? super T>> listeners = new ArrayList<>(
+            1);
+
+    /**
+     * Creates a new value with the given initial value.
+     *
+     * @param initialValue
+     *            the initial value, may be <code>null</code>
+     */
+    public LayoutValue(T initialValue) {
+        value = initialValue;
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return the current value, may be <code>null</code>
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * Sets the value, and notifies the listeners if the value changed.
+     *
+     * @param value
+     *            the new value, may be <code>null</code>
+     */
+    public void set(T value) {
+        if (Objects.equals(this.value, value)) {
+            return;
+        }
+        this.value = value;
+        for (SerializableConsumer<? super T> listener : new ArrayList<>(
+                listeners)) {
+            listener.accept(value);
+        }
+    }
+
+    /**
+     * Adds a listener notified with the new value when the value changes.
+     *
+     * @param listener
+     *            the listener to add, not <code>null</code>
+     * @return a registration for removing the listener
+     */
+    public Registration addValueChangeListener(
+            SerializableConsumer<? super T> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(
+                    "The 'listener' argument can not be null");
+        }
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.util.Objects;
+
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.dom.ThemeList;
+
+/**
+ * Writes the style properties and theme names of the layouts and their
+ * children only when the value actually changes.
+ * <p>
+ * Re-applying the current value still goes through the style and theme
+ * handling of the element, so the layout setters use these helpers to skip
+ * such writes entirely. The skipped writes are reported to the active
+ * {@link LayoutMetrics} as suppressed writes.
+ *
+ * @author Vaadin Ltd.
+ */
+final class LayoutWrites {
+
+    private LayoutWrites() {
+        // only static helpers
+    }
+
+    /**
+     * Sets a style property of the layout itself, unless the property already
+     * has the given value.
+     *
+     * @param layout
+     *            the layout to modify
+     * @param operation
+     *            the name of the setter, reported if the write is suppressed
+     * @param property
+     *            the style property name
+     * @param value
+     *            the new value, or <code>null</code> to remove the property
+     */
+    static void setStyle(HasElement layout, String operation, String property,
+            String value) {
+        if (!setStyle(layout.getElement().getStyle(), property, value)) {
+            LayoutEvents.writesSuppressed(layout, operation, 1);
+        }
+    }
+
+    /**
+     * Sets a style property, unless the property already has the given value.
+     *
+     * @param style
+     *            the style to modify
+     * @param property
+     *            the style property name
+     * @param value
+     *            the new value, or <code>null</code> to remove the property
+     * @return <code>true</code> if the style was modified, <code>false</code>
+     *         if the write was suppressed
+     */
+    static boolean setStyle(Style style, String property, String value) {
+        if (Objects.equals(style.get(property), value)) {
+            return false;
+        }
+        if (value == null) {
+            style.remove(property);
+        } else {
+            style.set(property, value);
+        }
+        return true;
+    }
+
+    /**
+     * Adds or removes a theme name of the layout, unless the theme name is
+     * already in the requested state.
+     *
+     * @param layout
+     *            the layout to modify
+     * @param operation
+     *            the name of the setter, reported if the write is suppressed
+     * @param themeName
+     *            the theme name
+     * @param set
+     *            <code>true</code> to add the theme name, <code>false</code>
+     *            to remove it
+     */
+    static void setTheme(HasElement layout, String operation, String themeName,
+            boolean set) {
+        ThemeList themes = layout.getElement().getThemeList();
+        if (themes.contains(themeName) == set) {
+            LayoutEvents.writesSuppressed(layout, operation, 1);
+        } else {
+            themes.set(themeName, set);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.ClickNotifier;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.StyleSheet;
+
+/**
+ * A lightweight variant of {@link HorizontalLayout} which is rendered as a
+ * plain {@code <div>} element styled by a shared style sheet, the same way as
+ * {@link FlexLayout}, instead of the {@code <vaadin-horizontal-layout>} web
+ * component. It has the same API and defaults as {@link HorizontalLayout}, but
+ * doesn't load the web component and its theme dependencies nor require a
+ * custom element upgrade for each instance in the browser.
+ * <p>
+ * The {@code margin}, {@code padding} and {@code spacing} theme variants are
+ * supported by the shared style sheet, using the Lumo space custom properties
+ * when available.
+ */
+@Tag(Tag.DIV)
+@StyleSheet("frontend://vaadin-ordered-layout-flow/native-ordered-layout.css")
+public class NativeHorizontalLayout extends Component
+        implements ThemableLayout, FlexComponent<NativeHorizontalLayout>, ClickNotifier<NativeHorizontalLayout> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an empty layout with spacing on by default.
+     */
+    public NativeHorizontalLayout() {
+        Object event = LayoutEvents.beginConstruction();
+        addClassName(FlexConstants.NATIVE_HORIZONTAL_LAYOUT_CLASS_NAME);
+        setSpacing(true);
+        LayoutEvents.endConstruction(event, this);
+    }
+
+    /**
+     * Convenience constructor to create a layout with the children already
+     * inside it.
+     *
+     * @param children
+     *            the items to add to this layout
+     * @see #add(Component...)
+     */
+    public NativeHorizontalLayout(Component... children) {
+        this();
+        add(children);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Spacing is enabled by default for horizontal layout.
+     *
+     * @param spacing adds {@code spacing} theme setting if {@code true} or removes it if {@code false}
+     */
+    @Override
+    public void setSpacing(boolean spacing) {
+        ThemableLayout.super.setSpacing(spacing);
+    }
+
+    /**
+     * Sets a vertical alignment for individual components inside the layout.
+     * This individual alignment for the component overrides any alignment set
+     * at the {@link #setDefaultVerticalComponentAlignment(Alignment)}.
+     * <p>
+     * It effectively sets the {@code "alignSelf"} style value.
+     * <p>
+     * The default alignment for individual components is
+     * {@link Alignment#AUTO}.
+     * <p>
+     * It's the same as the {@link #setAlignSelf(Alignment, HasElement...)}
+     * method
+     *
+     * @see #setAlignSelf(Alignment, HasElement...)
+     *
+     * @param alignment
+     *            the individual alignment for the children components. Setting
+     *            <code>null</code> will reset the alignment to its default
+     * @param componentsToAlign
+     *            The components to which the individual alignment should be set
+     */
+    public void setVerticalComponentAlignment(Alignment alignment,
+            Component... componentsToAlign) {
+        setAlignSelf(alignment, componentsToAlign);
+    }
+
+    /**
+     * Gets the individual vertical alignment of a given component.
+     * <p>
+     * The default alignment for individual components is
+     * {@link Alignment#AUTO}.
+     * <p>
+     * It's the same as the {@link #getAlignSelf(HasElement)} method.
+     *
+     * @see #getAlignSelf(HasElement)
+     *
+     * @param component
+     *            The component which individual layout should be read
+     * @return the alignment of the component, never <code>null</code>
+     */
+    public Alignment getVerticalComponentAlignment(Component component) {
+        return getAlignSelf(component);
+    }
+
+    /**
+     * Sets the default vertical alignment to be used by all components without
+     * individual alignments inside the layout. Individual components can be
+     * aligned by using the
+     * {@link #setVerticalComponentAlignment(Alignment, Component...)} method.
+     * <p>
+     * It effectively sets the {@code "alignItems"} style value.
+     * <p>
+     * The default alignment is {@link Alignment#START}.
+     * <p>
+     * It's the same as the {@link #setAlignItems(Alignment)} method.
+     *
+     * @see #setAlignItems(Alignment)
+     *
+     * @param alignment
+     *            the alignment to apply to the components. Setting
+     *            <code>null</code> will reset the alignment to its default
+     */
+    public void setDefaultVerticalComponentAlignment(Alignment alignment) {
+        setAlignItems(alignment);
+    }
+
+    /**
+     * Gets the default vertical alignment used by all components without
+     * individual alignments inside the layout.
+     * <p>
+     * The default alignment is {@link Alignment#STRETCH}.
+     * <p>
+     * This is the same as the {@link #getAlignItems()} method.
+     *
+     * @return the general alignment used by the layout, never <code>null</code>
+     */
+    public Alignment getDefaultVerticalComponentAlignment() {
+        return getAlignItems();
+    }
+
+    /**
+     * This is the same as
+     * {@link #setDefaultVerticalComponentAlignment(Alignment)}.
+     *
+     * @param alignment
+     *            the alignment to apply to the components. Setting
+     *            <code>null</code> will reset the alignment to its default
+     * @see #setDefaultVerticalComponentAlignment(Alignment)
+     */
+    @Override
+    public void setAlignItems(Alignment alignment) {
+        // this method is overridden to make javadocs point to the correct
+        // method to be used, and since FlexComponent has different default
+        // value.
+        FlexComponent.super.setAlignItems(alignment);
+    }
+
+    /**
+     * This is the same as {@link #getDefaultVerticalComponentAlignment()}.
+     *
+     * @return the general alignment used by the layout, never <code>null</code>
+     */
+    @Override
+    public Alignment getAlignItems() {
+        // this method is overridden to make javadocs point to the correct
+        // method to be used, and since FlexComponent has different default
+        // value.
+        return FlexComponent.super.getAlignItems();
+    }
+
+    /**
+     * This is the same as
+     * {@link #setVerticalComponentAlignment(Alignment, Component...)}.
+     *
+     * @param alignment
+     *            the individual alignment for the children components. Setting
+     *            <code>null</code> will reset the alignment to its default
+     * @param elementContainers
+     *            The element containers (components) to which the individual
+     *            alignment should be set
+     * @see #setVerticalComponentAlignment(Alignment, Component...)
+     */
+    @Override
+    public void setAlignSelf(Alignment alignment,
+                             HasElement... elementContainers) {
+        // this method is overridden to have javadocs that point to the method
+        // that should be used and has better javadocs.
+        FlexComponent.super.setAlignSelf(alignment, elementContainers);
+    }
+
+    /**
+     * This is the same as {@link #getVerticalComponentAlignment(Component)}.
+     *
+     * @param container
+     *            The element container (component) which individual layout
+     *            should be read
+     * @return the alignment of the container, never <code>null</code>
+     * @see #getVerticalComponentAlignment(Component)
+     */
+    @Override
+    public Alignment getAlignSelf(HasElement container) {
+        // this method is overridden to have javadocs that point to the method
+        // that should be used and has better javadocs.
+        return FlexComponent.super.getAlignSelf(container);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        LayoutEvents.attached(this);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        LayoutEvents.detached(this);
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Checks whether the layout has listeners for the given event type, for
+     * {@link LayoutListeners}.
+     *
+     * @param eventType
+     *            the event type
+     * @return <code>true</code> if there are listeners for the event type,
+     *         <code>false</code> otherwise
+     */
+    boolean isListening(Class<? extends ComponentEvent<?>> eventType) {
+        return hasListener(eventType);
+    }
+}
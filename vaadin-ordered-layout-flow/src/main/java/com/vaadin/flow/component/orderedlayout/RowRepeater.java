@@ -0,0 +1,500 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasSize;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.dependency.JavaScript;
+import com.vaadin.flow.component.dependency.StyleSheet;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.function.ValueProvider;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * A vertical list of uniform horizontal rows, rendered from data only.
+ * <p>
+ * The structure of a row is declared once with {@link #addColumn(ValueProvider)}
+ * and the row level settings, such as {@link #setRowAlignItems(Alignment)}.
+ * The items are sent to the browser as a compact JSON array of cell texts, and
+ * the browser stamps a copy of the row template for each item. Compared to a
+ * {@link VerticalLayout} containing a {@link HorizontalLayout} with a few
+ * child components for each item, no server-side components or state nodes
+ * are created for the rows at all.
+ * <p>
+ * Changing the items with {@link #setItems(Collection)} or {@link #refresh()},
+ * or changing the columns or the row settings, sends all the rows again, so
+ * the time and the amount of data taken grow with the amount of items. When
+ * only some items change, {@link #refreshItem(Object)} sends just their rows.
+ * <p>
+ * The rows and the repeater itself use the same styles as
+ * {@link NativeHorizontalLayout} and {@link NativeVerticalLayout}. The rows
+ * are not interactive: use the regular layouts if the rows contain fields,
+ * buttons or other components.
+ *
+ * @param <T>
+ *            the type of the items
+ * @author Vaadin Ltd.
+ */
+@Tag(Tag.DIV)
+@StyleSheet("frontend://vaadin-ordered-layout-flow/native-ordered-layout.css")
+@JavaScript("frontend://vaadin-ordered-layout-flow/row-repeater.js")
+public class RowRepeater<T> extends Component
+        implements ThemableLayout, HasStyle, HasSize {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A column of the row template, i.e. one cell of each row.
+     */
+    public class Column implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ValueProvider<T, ?> valueProvider;
+        private double flexGrow;
+        private Alignment alignSelf;
+        private String width;
+        private String className;
+
+        private Column(ValueProvider<T, ?> valueProvider) {
+            this.valueProvider = valueProvider;
+        }
+
+        /**
+         * Sets the flex grow of the cells of this column, see
+         * {@link FlexComponent#setFlexGrow(double, com.vaadin.flow.component.HasElement...)}.
+         *
+         * @param flexGrow
+         *            the flex grow, 0 to remove it. Negative values are not
+         *            allowed
+         * @return this column, for chaining
+         */
+        public Column setFlexGrow(double flexGrow) {
+            if (flexGrow < 0) {
+                throw new IllegalArgumentException(
+                        "Flex grow property cannot be negative");
+            }
+            this.flexGrow = flexGrow;
+            scheduleRender();
+            return this;
+        }
+
+        /**
+         * Gets the flex grow of the cells of this column.
+         *
+         * @return the flex grow, 0 if none was set
+         */
+        public double getFlexGrow() {
+            return flexGrow;
+        }
+
+        /**
+         * Sets the individual alignment of the cells of this column, which
+         * overrides {@link RowRepeater#setRowAlignItems(Alignment)}.
+         *
+         * @param alignSelf
+         *            the alignment, or <code>null</code> to reset it to its
+         *            default
+         * @return this column, for chaining
+         */
+        public Column setAlignSelf(Alignment alignSelf) {
+            this.alignSelf = alignSelf;
+            scheduleRender();
+            return this;
+        }
+
+        /**
+         * Gets the individual alignment of the cells of this column.
+         *
+         * @return the alignment, never <code>null</code>
+         */
+        public Alignment getAlignSelf() {
+            return alignSelf == null ? Alignment.AUTO : alignSelf;
+        }
+
+        /**
+         * Sets the width of the cells of this column.
+         *
+         * @param width
+         *            the CSS width, or <code>null</code> to remove it
+         * @return this column, for chaining
+         */
+        public Column setWidth(String width) {
+            this.width = width;
+            scheduleRender();
+            return this;
+        }
+
+        /**
+         * Gets the width of the cells of this column.
+         *
+         * @return the CSS width, or <code>null</code> if none was set
+         */
+        public String getWidth() {
+            return width;
+        }
+
+        /**
+         * Sets the CSS class name of the cells of this column.
+         *
+         * @param className
+         *            the class name, or <code>null</code> to remove it
+         * @return this column, for chaining
+         */
+        public Column setClassName(String className) {
+            this.className = className;
+            scheduleRender();
+            return this;
+        }
+
+        /**
+         * Gets the CSS class name of the cells of this column.
+         *
+         * @return the class name, or <code>null</code> if none was set
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        private JsonObject toJson() {
+            JsonObject cell = Json.createObject();
+            if (flexGrow != 0) {
+                cell.put("flexGrow", String.valueOf(flexGrow));
+            }
+            if (alignSelf != null) {
+                cell.put("alignSelf", alignSelf.getFlexValue());
+            }
+            if (width != null) {
+                cell.put("width", width);
+            }
+            if (className != null) {
+                cell.put("className", className);
+            }
+            return cell;
+        }
+
+        private String getText(T item) {
+            Object value = valueProvider.apply(item);
+            return value == null ? "" : value.toString();
+        }
+    }
+
+    private final List<Column> columns = new ArrayList<>();
+    private List<T> items = Collections.emptyList();
+    private Alignment rowAlignItems;
+    private JustifyContentMode rowJustifyContentMode = JustifyContentMode.START;
+    private boolean rowSpacing = true;
+    private boolean renderPending;
+    private boolean flushPending;
+    private final Set<Integer> changedRows = new TreeSet<>();
+
+    /**
+     * Constructs an empty repeater with padding on by default. Like in
+     * {@link NativeVerticalLayout}, the rows are separated by spacing and
+     * have the spacing between their cells on by default.
+     */
+    public RowRepeater() {
+        Object event = LayoutEvents.beginConstruction();
+        addClassName(FlexConstants.NATIVE_VERTICAL_LAYOUT_CLASS_NAME);
+        setWidth("100%");
+        setSpacing(true);
+        setPadding(true);
+        LayoutEvents.endConstruction(event, this);
+    }
+
+    /**
+     * Adds a column to the row template. The cell texts of the column are the
+     * string representations of the values returned by the given provider, an
+     * empty string for <code>null</code>.
+     *
+     * @param valueProvider
+     *            the provider of the cell values, not <code>null</code>
+     * @return the new column, for configuring it
+     */
+    public Column addColumn(ValueProvider<T, ?> valueProvider) {
+        if (valueProvider == null) {
+            throw new IllegalArgumentException(
+                    "The 'valueProvider' argument can not be null");
+        }
+        Column column = new Column(valueProvider);
+        columns.add(column);
+        scheduleRender();
+        return column;
+    }
+
+    /**
+     * Gets the columns of the row template, in order.
+     *
+     * @return an unmodifiable list of the columns, never <code>null</code>
+     */
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Sets the items to show, one row for each item, replacing any previous
+     * items. The cell texts are computed when the rows are sent to the
+     * browser; call {@link #refresh()} if the items change afterwards.
+     *
+     * @param items
+     *            the items to show, not <code>null</code>
+     */
+    public void setItems(Collection<T> items) {
+        if (items == null) {
+            throw new IllegalArgumentException(
+                    "The 'items' argument can not be null");
+        }
+        this.items = new ArrayList<>(items);
+        scheduleRender();
+    }
+
+    /**
+     * Sets the items to show, one row for each item, replacing any previous
+     * items.
+     *
+     * @param items
+     *            the items to show, not <code>null</code>
+     * @see #setItems(Collection)
+     */
+    @SafeVarargs
+    public final void setItems(T... items) {
+        if (items == null) {
+            throw new IllegalArgumentException(
+                    "The 'items' argument can not be null");
+        }
+        List<T> list = new ArrayList<>(items.length);
+        for (T item : items) {
+            list.add(item);
+        }
+        setItems(list);
+    }
+
+    /**
+     * Gets the items shown by this repeater.
+     *
+     * @return an unmodifiable list of the items, never <code>null</code>
+     */
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Sends the rows to the browser again, recomputing the cell texts of all
+     * the items.
+     *
+     * @see #refreshItem(Object)
+     */
+    public void refresh() {
+        scheduleRender();
+    }
+
+    /**
+     * Sends the row of the given item to the browser again, recomputing only
+     * its cell texts. If the item is shown more than once, all its rows are
+     * sent.
+     *
+     * @param item
+     *            the item to refresh
+     * @throws IllegalArgumentException
+     *             if the item is not shown by this repeater
+     */
+    public void refreshItem(T item) {
+        boolean found = false;
+        for (int i = 0; i < items.size(); i++) {
+            if (Objects.equals(item, items.get(i))) {
+                found = true;
+                if (!renderPending) {
+                    changedRows.add(i);
+                }
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException(
+                    "The item " + item + " is not shown by this repeater");
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Sets the alignment of the cells of each row, like
+     * {@link FlexComponent#setAlignItems(Alignment)} of a
+     * {@link HorizontalLayout}.
+     *
+     * @param alignment
+     *            the alignment, or <code>null</code> to reset it to its
+     *            default, {@link Alignment#BASELINE}
+     */
+    public void setRowAlignItems(Alignment alignment) {
+        rowAlignItems = alignment;
+        scheduleRender();
+    }
+
+    /**
+     * Gets the alignment of the cells of each row.
+     *
+     * @return the alignment, never <code>null</code>
+     */
+    public Alignment getRowAlignItems() {
+        return rowAlignItems == null ? Alignment.BASELINE : rowAlignItems;
+    }
+
+    /**
+     * Sets the justify content mode of each row.
+     *
+     * @param justifyContentMode
+     *            the justify content mode, never <code>null</code>
+     */
+    public void setRowJustifyContentMode(
+            JustifyContentMode justifyContentMode) {
+        if (justifyContentMode == null) {
+            throw new IllegalArgumentException(
+                    "The 'justifyContentMode' argument can not be null");
+        }
+        rowJustifyContentMode = justifyContentMode;
+        scheduleRender();
+    }
+
+    /**
+     * Gets the justify content mode of each row.
+     *
+     * @return the justify content mode, never <code>null</code>
+     */
+    public JustifyContentMode getRowJustifyContentMode() {
+        return rowJustifyContentMode;
+    }
+
+    /**
+     * Toggles the spacing between the cells of each row. The spacing between
+     * the rows is set with {@link #setSpacing(boolean)}.
+     *
+     * @param rowSpacing
+     *            <code>true</code> to add spacing between the cells,
+     *            <code>false</code> to remove it
+     */
+    public void setRowSpacing(boolean rowSpacing) {
+        this.rowSpacing = rowSpacing;
+        scheduleRender();
+    }
+
+    /**
+     * Gets whether the cells of each row are separated by spacing.
+     *
+     * @return <code>true</code> if there is spacing between the cells,
+     *         <code>false</code> otherwise
+     */
+    public boolean isRowSpacing() {
+        return rowSpacing;
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // The rows only exist in the browser, so a new client-side element
+        // must be stamped again
+        scheduleRender();
+    }
+
+    private void scheduleRender() {
+        renderPending = true;
+        changedRows.clear();
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushPending) {
+            return;
+        }
+        flushPending = true;
+        getElement().getNode().runWhenAttached(ui -> ui.getInternals()
+                .getStateTree().beforeClientResponse(getElement().getNode(),
+                        context -> flush(context.getUI())));
+    }
+
+    private void flush(UI ui) {
+        flushPending = false;
+        if (renderPending) {
+            render(ui);
+        } else if (!changedRows.isEmpty()) {
+            update(ui);
+        }
+        renderPending = false;
+        changedRows.clear();
+    }
+
+    private void update(UI ui) {
+        JsonArray indices = Json.createArray();
+        JsonArray rows = Json.createArray();
+        for (int index : changedRows) {
+            indices.set(indices.length(), index);
+            rows.set(rows.length(), getRow(items.get(index)));
+        }
+        ui.getPage().executeJavaScript(
+                "window.Vaadin.Flow.rowRepeater.update($0, $1, $2)",
+                getElement(), indices, rows);
+    }
+
+    private JsonArray getRow(T item) {
+        JsonArray row = Json.createArray();
+        for (int i = 0; i < columns.size(); i++) {
+            row.set(i, columns.get(i).getText(item));
+        }
+        return row;
+    }
+
+    private void render(UI ui) {
+        JsonObject template = Json.createObject();
+        if (rowSpacing) {
+            template.put("theme", "spacing");
+        }
+        if (rowAlignItems != null) {
+            template.put("alignItems", rowAlignItems.getFlexValue());
+        }
+        if (rowJustifyContentMode != JustifyContentMode.START) {
+            template.put("justifyContent",
+                    rowJustifyContentMode.getFlexValue());
+        }
+        JsonArray cells = Json.createArray();
+        for (int i = 0; i < columns.size(); i++) {
+            cells.set(i, columns.get(i).toJson());
+        }
+        template.put("cells", cells);
+
+        JsonArray rows = Json.createArray();
+        for (int i = 0; i < items.size(); i++) {
+            rows.set(i, getRow(items.get(i)));
+        }
+        ui.getPage().executeJavaScript(
+                "window.Vaadin.Flow.rowRepeater.render($0, $1, $2)",
+                getElement(), template, rows);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+
+/**
+ * A component showing a static fragment of HTML rendered from a component
+ * tree, created by {@link LayoutFragmentCache}.
+ * <p>
+ * The fragment is a single element whose content is the cached HTML, so a
+ * session only keeps a reference to the shared HTML instead of the component
+ * tree it was rendered from. The element is styled with
+ * {@code display: contents}, so the rendered root takes part in the layout of
+ * the parent as the original component would. The content is not interactive
+ * and cannot be modified.
+ *
+ * @author Vaadin Ltd.
+ */
+@Tag("div")
+public class StaticFragment extends Component {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String fingerprint;
+
+    StaticFragment(String fingerprint, String html) {
+        this.fingerprint = fingerprint;
+        getElement().getStyle().set("display", "contents");
+        getElement().setProperty("innerHTML", html);
+    }
+
+    /**
+     * Gets the fingerprint of the content of this fragment. Fragments with the
+     * same content have the same fingerprint.
+     *
+     * @return the fingerprint, never <code>null</code>
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the HTML content of this fragment.
+     *
+     * @return the HTML, never <code>null</code>
+     */
+    public String getHtml() {
+        return getElement().getProperty("innerHTML");
+    }
+}
@@ -15,9 +15,10 @@
  */
 package com.vaadin.flow.component.orderedlayout;
 
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
-import com.vaadin.flow.component.HasElement;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.dom.ThemeList;
 
@@ -30,7 +31,7 @@ import com.vaadin.flow.dom.ThemeList;
  *
  * @author Vaadin Ltd.
  */
-public interface ThemableLayout extends HasElement {
+public interface ThemableLayout extends HasContainment {
     /**
      * Toggles {@code margin} theme setting for the element. If a theme supports
      * this attribute, it will apply or remove margin to the element.
@@ -40,7 +41,9 @@ public interface ThemableLayout extends HasElement {
      *            it if {@code false}
      */
     default void setMargin(boolean margin) {
-        getThemeList().set("margin", margin);
+        Object event = LayoutEvents.beginThemeChange();
+        LayoutWrites.setTheme(this, "setMargin", "margin", margin);
+        LayoutEvents.endThemeChange(event, this, "setMargin");
     }
 
     /**
@@ -61,7 +64,9 @@ public interface ThemableLayout extends HasElement {
      *            it if {@code false}
      */
     default void setPadding(boolean padding) {
-        getThemeList().set("padding", padding);
+        Object event = LayoutEvents.beginThemeChange();
+        LayoutWrites.setTheme(this, "setPadding", "padding", padding);
+        LayoutEvents.endThemeChange(event, this, "setPadding");
     }
 
     /**
@@ -93,7 +98,9 @@ public interface ThemableLayout extends HasElement {
      *            it if {@code false}
      */
     default void setSpacing(boolean spacing) {
-        getThemeList().set("spacing", spacing);
+        Object event = LayoutEvents.beginThemeChange();
+        LayoutWrites.setTheme(this, "setSpacing", "spacing", spacing);
+        LayoutEvents.endThemeChange(event, this, "setSpacing");
     }
 
     /**
@@ -105,6 +112,72 @@ public interface ThemableLayout extends HasElement {
         return getThemeList().contains("spacing");
     }
 
+    /**
+     * Replaces all {@link LayoutTheme} variants of the layout with the given
+     * ones. Theme names that don't correspond to any {@link LayoutTheme} are
+     * kept as they are.
+     * <p>
+     * Unlike toggling the variants one by one with {@link #setMargin(boolean)},
+     * {@link #setPadding(boolean)} and {@link #setSpacing(boolean)}, this
+     * method updates the {@code theme} attribute at most once, and not at all
+     * if the variants don't change.
+     *
+     * @param variants
+     *            the theme variants to apply, not <code>null</code>. At most
+     *            one spacing variant is allowed
+     * @see LayoutTheme
+     */
+    default void setThemeVariants(EnumSet<LayoutTheme> variants) {
+        if (variants == null) {
+            throw new IllegalArgumentException(
+                    "The 'variants' argument can not be null");
+        }
+        if (variants.stream().filter(LayoutTheme::isSpacing).count() > 1) {
+            throw new IllegalArgumentException(
+                    "Only one spacing variant can be applied at a time: "
+                            + variants);
+        }
+        Object event = LayoutEvents.beginThemeChange();
+        ThemeList themes = getThemeList();
+        Set<String> updated = new LinkedHashSet<>();
+        for (String themeName : themes) {
+            if (LayoutTheme.toLayoutTheme(themeName) == null) {
+                updated.add(themeName);
+            }
+        }
+        for (LayoutTheme variant : variants) {
+            updated.add(variant.getThemeName());
+        }
+        if (updated.size() != themes.size() || !themes.containsAll(updated)) {
+            if (updated.isEmpty()) {
+                getElement().removeAttribute("theme");
+            } else {
+                getElement().setAttribute("theme", String.join(" ", updated));
+            }
+        } else {
+            LayoutEvents.writesSuppressed(this, "setThemeVariants", 1);
+        }
+        LayoutEvents.endThemeChange(event, this, "setThemeVariants");
+    }
+
+    /**
+     * Gets the {@link LayoutTheme} variants currently applied to the layout.
+     * The theme list is read only once, regardless of the amount of variants.
+     *
+     * @return a new set of the applied variants, never <code>null</code>
+     * @see LayoutTheme
+     */
+    default EnumSet<LayoutTheme> getThemeVariants() {
+        EnumSet<LayoutTheme> variants = EnumSet.noneOf(LayoutTheme.class);
+        for (String themeName : getThemeList()) {
+            LayoutTheme variant = LayoutTheme.toLayoutTheme(themeName);
+            if (variant != null) {
+                variants.add(variant);
+            }
+        }
+        return variants;
+    }
+
     /**
      * Gets the set of the theme names applied to the corresponding element in
      * {@code theme} attribute. The set returned can be modified to add or
@@ -130,19 +203,13 @@ public interface ThemableLayout extends HasElement {
      * @see BoxSizing
      */
     default void setBoxSizing(BoxSizing boxSizing) {
-        Style style = getElement().getStyle();
-        if (boxSizing == null || boxSizing == BoxSizing.UNDEFINED) {
-            style.remove("boxSizing");
-        } else {
-            switch (boxSizing) {
-            case CONTENT_BOX:
-                style.set("boxSizing", "content-box");
-                break;
-            case BORDER_BOX:
-                style.set("boxSizing", "border-box");
-                break;
-            }
+        String value = null;
+        if (boxSizing == BoxSizing.CONTENT_BOX) {
+            value = "content-box";
+        } else if (boxSizing == BoxSizing.BORDER_BOX) {
+            value = "border-box";
         }
+        LayoutWrites.setStyle(this, "setBoxSizing", "boxSizing", value);
     }
 
     /**
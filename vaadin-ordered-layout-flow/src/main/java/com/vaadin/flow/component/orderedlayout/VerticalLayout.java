@@ -15,8 +15,11 @@
  */
 package com.vaadin.flow.component.orderedlayout;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ClickNotifier;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.HasElement;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.dependency.HtmlImport;
@@ -28,6 +31,7 @@ import com.vaadin.flow.component.dependency.HtmlImport;
  */
 @Tag("vaadin-vertical-layout")
 @HtmlImport("frontend://bower_components/vaadin-ordered-layout/src/vaadin-vertical-layout.html")
+@HtmlImport("frontend://vaadin-ordered-layout-flow/layout-density.html")
 public class VerticalLayout extends Component
         implements ThemableLayout, FlexComponent<VerticalLayout>, ClickNotifier<VerticalLayout> {
 
@@ -35,9 +39,11 @@ public class VerticalLayout extends Component
      * Constructs an empty layout with spacing and padding on by default.
      */
     public VerticalLayout() {
+        Object event = LayoutEvents.beginConstruction();
         setWidth("100%");
         setSpacing(true);
         setPadding(true);
+        LayoutEvents.endConstruction(event, this);
     }
 
     /**
@@ -218,4 +224,29 @@ public class VerticalLayout extends Component
         // that should be used and has better javadocs.
         return FlexComponent.super.getAlignSelf(container);
     }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        LayoutEvents.attached(this);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        LayoutEvents.detached(this);
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Checks whether the layout has listeners for the given event type, for
+     * {@link LayoutListeners}.
+     *
+     * @param eventType
+     *            the event type
+     * @return <code>true</code> if there are listeners for the event type,
+     *         <code>false</code> otherwise
+     */
+    boolean isListening(Class<? extends ComponentEvent<?>> eventType) {
+        return hasListener(eventType);
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder events of the layouts. All the events are disabled
+ * by default and need to be enabled in the recording settings, e.g. with
+ * {@code <event name="com.vaadin.flow.component.orderedlayout.Mutation">}.
+ * <p>
+ * Only used through {@link LayoutEvents}, which loads this class reflectively
+ * so that it is not loaded on JVMs without Flight Recorder. The class is in a
+ * separate source folder, compiled by the {@code flight-recorder} build
+ * profile, since it needs the {@code jdk.jfr} module.
+ *
+ * @author Vaadin Ltd.
+ */
+final class LayoutJfrEvents implements LayoutEvents.Recorder {
+
+    private static final String CATEGORY = "Vaadin";
+    private static final String SUBCATEGORY = "Ordered Layout";
+
+    @Name("com.vaadin.flow.component.orderedlayout.Mutation")
+    @Label("Layout Mutation")
+    @Description("Children added to, removed from or replaced in a layout")
+    @Category({ CATEGORY, SUBCATEGORY })
+    @Enabled(false)
+    @StackTrace(false)
+    static class MutationEvent extends Event {
+        @Label("Layout Type")
+        String layoutType;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Affected Children")
+        int affectedCount;
+
+        @Label("Child Count")
+        @Description("The amount of children of the layout after the operation")
+        int childCount;
+    }
+
+    @Name("com.vaadin.flow.component.orderedlayout.BulkOperation")
+    @Label("Layout Bulk Operation")
+    @Description("Flex property applied to several children of a layout")
+    @Category({ CATEGORY, SUBCATEGORY })
+    @Enabled(false)
+    @StackTrace(false)
+    static class BulkOperationEvent extends Event {
+        @Label("Layout Type")
+        String layoutType;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Element Count")
+        int elementCount;
+    }
+
+    @Name("com.vaadin.flow.component.orderedlayout.ThemeChange")
+    @Label("Layout Theme Change")
+    @Description("Theme variants of a layout changed")
+    @Category({ CATEGORY, SUBCATEGORY })
+    @Enabled(false)
+    @StackTrace(false)
+    static class ThemeChangeEvent extends Event {
+        @Label("Layout Type")
+        String layoutType;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Theme")
+        @Description("The theme attribute of the layout after the change")
+        String theme;
+    }
+
+    @Name("com.vaadin.flow.component.orderedlayout.Construction")
+    @Label("Layout Construction")
+    @Description("Layout instance created")
+    @Category({ CATEGORY, SUBCATEGORY })
+    @Enabled(false)
+    @StackTrace(false)
+    static class ConstructionEvent extends Event {
+        @Label("Layout Type")
+        String layoutType;
+
+        @Label("Child Count")
+        int childCount;
+    }
+
+    LayoutJfrEvents() {
+        // instantiated reflectively by LayoutEvents
+    }
+
+    @Override
+    public Object beginMutation() {
+        return begin(new MutationEvent());
+    }
+
+    @Override
+    public Object beginBulkOperation() {
+        return begin(new BulkOperationEvent());
+    }
+
+    @Override
+    public Object beginThemeChange() {
+        return begin(new ThemeChangeEvent());
+    }
+
+    @Override
+    public Object beginConstruction() {
+        return begin(new ConstructionEvent());
+    }
+
+    @Override
+    public void commitMutation(Object event, String layoutType,
+            String operation, int affectedCount, int childCount) {
+        MutationEvent mutation = (MutationEvent) event;
+        mutation.layoutType = layoutType;
+        mutation.operation = operation;
+        mutation.affectedCount = affectedCount;
+        mutation.childCount = childCount;
+        mutation.commit();
+    }
+
+    @Override
+    public void commitBulkOperation(Object event, String layoutType,
+            String operation, int elementCount) {
+        BulkOperationEvent bulk = (BulkOperationEvent) event;
+        bulk.layoutType = layoutType;
+        bulk.operation = operation;
+        bulk.elementCount = elementCount;
+        bulk.commit();
+    }
+
+    @Override
+    public void commitThemeChange(Object event, String layoutType,
+            String operation, String theme) {
+        ThemeChangeEvent themeChange = (ThemeChangeEvent) event;
+        themeChange.layoutType = layoutType;
+        themeChange.operation = operation;
+        themeChange.theme = theme;
+        themeChange.commit();
+    }
+
+    @Override
+    public void commitConstruction(Object event, String layoutType,
+            int childCount) {
+        ConstructionEvent construction = (ConstructionEvent) event;
+        construction.layoutType = layoutType;
+        construction.childCount = childCount;
+        construction.commit();
+    }
+
+    private static Object begin(Event event) {
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
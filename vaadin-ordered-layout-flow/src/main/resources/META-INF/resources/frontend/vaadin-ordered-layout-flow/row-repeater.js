@@ -0,0 +1,64 @@
+/*
+ * Stamps the rows of a RowRepeater. The row template is built once and cloned
+ * for each row, and the cell texts are assigned as text content, so the row
+ * data is never interpreted as HTML. Single rows are updated in place.
+ */
+window.Vaadin = window.Vaadin || {};
+window.Vaadin.Flow = window.Vaadin.Flow || {};
+window.Vaadin.Flow.rowRepeater = {
+  render: function(container, template, rows) {
+    var row = document.createElement('div');
+    row.className = 'vaadin-native-horizontal-layout';
+    if (template.theme) {
+      row.setAttribute('theme', template.theme);
+    }
+    if (template.alignItems) {
+      row.style.alignItems = template.alignItems;
+    }
+    if (template.justifyContent) {
+      row.style.justifyContent = template.justifyContent;
+    }
+    template.cells.forEach(function(cell) {
+      var element = document.createElement('span');
+      if (cell.className) {
+        element.className = cell.className;
+      }
+      if (cell.flexGrow) {
+        element.style.flexGrow = cell.flexGrow;
+      }
+      if (cell.alignSelf) {
+        element.style.alignSelf = cell.alignSelf;
+      }
+      if (cell.width) {
+        element.style.width = cell.width;
+      }
+      row.appendChild(element);
+    });
+
+    var fragment = document.createDocumentFragment();
+    for (var i = 0; i < rows.length; i++) {
+      var clone = row.cloneNode(true);
+      this.fill(clone, rows[i]);
+      fragment.appendChild(clone);
+    }
+    while (container.firstChild) {
+      container.removeChild(container.firstChild);
+    }
+    container.appendChild(fragment);
+  },
+
+  update: function(container, indices, rows) {
+    for (var i = 0; i < indices.length; i++) {
+      var row = container.children[indices[i]];
+      if (row) {
+        this.fill(row, rows[i]);
+      }
+    }
+  },
+
+  fill: function(row, values) {
+    for (var j = 0; j < values.length; j++) {
+      row.children[j].textContent = values[j];
+    }
+  }
+};
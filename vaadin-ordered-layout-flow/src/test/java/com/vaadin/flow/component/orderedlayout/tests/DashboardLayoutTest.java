@@ -0,0 +1,104 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.DashboardLayout;
+
+public class DashboardLayoutTest {
+
+    @Test
+    public void defaults() {
+        DashboardLayout layout = new DashboardLayout();
+        Assert.assertEquals("grid",
+                layout.getElement().getStyle().get("display"));
+        Assert.assertEquals(1, layout.getColumns());
+
+        Div div = new Div();
+        layout.add(div);
+        Assert.assertEquals(0, layout.getColumn(div));
+        Assert.assertEquals(0, layout.getRow(div));
+        Assert.assertEquals(1, layout.getColumnSpan(div));
+        Assert.assertEquals(1, layout.getRowSpan(div));
+    }
+
+    @Test
+    public void setColumns_templateColumnsSet() {
+        DashboardLayout layout = new DashboardLayout(4);
+        Assert.assertEquals(4, layout.getColumns());
+        Assert.assertEquals("repeat(4, minmax(0, 1fr))",
+                layout.getElement().getStyle().get("gridTemplateColumns"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setColumns_zero_throws() {
+        new DashboardLayout().setColumns(0);
+    }
+
+    @Test
+    public void add_withPlacement_placementApplied() {
+        DashboardLayout layout = new DashboardLayout(4);
+        Div tile = new Div();
+        layout.add(tile, 2, 3, 2, 1);
+
+        Assert.assertEquals(tile, layout.getComponentAt(0));
+        Assert.assertEquals(2, layout.getColumn(tile));
+        Assert.assertEquals(3, layout.getRow(tile));
+        Assert.assertEquals(2, layout.getColumnSpan(tile));
+        Assert.assertEquals(1, layout.getRowSpan(tile));
+        Assert.assertEquals("span 2",
+                tile.getElement().getStyle().get("gridColumnEnd"));
+        Assert.assertNull(tile.getElement().getStyle().get("gridRowEnd"));
+    }
+
+    @Test
+    public void resetPlacement_stylesRemoved() {
+        DashboardLayout layout = new DashboardLayout(4);
+        Div tile = new Div();
+        layout.add(tile, 2, 3, 2, 2);
+
+        layout.setColumn(0, tile);
+        layout.setRow(0, tile);
+        layout.setColumnSpan(1, tile);
+        layout.setRowSpan(1, tile);
+
+        Assert.assertFalse(tile.getElement().getStyle().getNames()
+                .anyMatch(name -> name.startsWith("grid")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setRowSpan_zero_throws() {
+        new DashboardLayout().setRowSpan(0, new Div());
+    }
+
+    @Test
+    public void add_withInvalidPlacement_componentNotAdded() {
+        DashboardLayout layout = new DashboardLayout(4);
+        Div tile = new Div();
+        try {
+            layout.add(tile, 1, 1, 1, 0);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertEquals(0, layout.getComponentCount());
+        Assert.assertFalse(tile.getParent().isPresent());
+        Assert.assertEquals(0, tile.getElement().getStyle().getNames().count());
+    }
+}
@@ -15,13 +15,20 @@
  */
 package com.vaadin.flow.component.orderedlayout.tests;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Label;
 import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
 import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutMetrics;
+import com.vaadin.flow.dom.Element;
 
 public class FlexLayoutTest {
 
@@ -67,4 +74,153 @@ public class FlexLayoutTest {
         layout.replace(div, label);
         Assert.assertEquals(1.1d, layout.getFlexGrow(label), Double.MIN_VALUE);
     }
+
+    @Test
+    public void replace_takesIndexAndCopiesStylesAsIs() {
+        Div first = new Div();
+        Div old = new Div();
+        Div last = new Div();
+        FlexLayout layout = new FlexLayout(first, old, last);
+        old.getStyle().set("flexGrow", "2");
+
+        Label label = new Label();
+        label.getStyle().set("alignSelf", "center");
+        layout.replace(old, label);
+
+        Assert.assertEquals(label, layout.getComponentAt(1));
+        Assert.assertEquals(3, layout.getComponentCount());
+        Assert.assertNull(old.getParent().orElse(null));
+        Assert.assertEquals("2", label.getStyle().get("flexGrow"));
+        Assert.assertNull(label.getStyle().get("alignSelf"));
+    }
+
+    @Test
+    public void addElements_orderedWithComponents() {
+        FlexLayout layout = new FlexLayout();
+        Div div = new Div();
+        Element text = Element.createText("text");
+        Element span = new Element("span");
+        layout.add(div);
+        layout.addElements(text, span);
+        layout.addElementAtIndex(0, new Element("hr"));
+
+        Assert.assertEquals(4, layout.getElement().getChildCount());
+        Assert.assertEquals("hr", layout.getElement().getChild(0).getTag());
+        Assert.assertEquals(div.getElement(), layout.getElement().getChild(1));
+        Assert.assertEquals(text, layout.getElement().getChild(2));
+        Assert.assertEquals(span, layout.getElement().getChild(3));
+        Assert.assertEquals(1, layout.getComponentCount());
+
+        layout.removeElements(text);
+        Assert.assertEquals(3, layout.getElement().getChildCount());
+        Assert.assertNull(text.getParent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removeElements_notAChild_throws() {
+        new FlexLayout().removeElements(new Element("span"));
+    }
+
+    @Test
+    public void elements_flexGrowAndAlignSelf() {
+        FlexLayout layout = new FlexLayout();
+        Element span = new Element("span");
+        layout.addElements(span);
+
+        layout.setElementFlexGrow(2, span);
+        layout.setElementAlignSelf(Alignment.CENTER, span);
+
+        Assert.assertEquals("2.0", span.getStyle().get("flexGrow"));
+        Assert.assertEquals(2, layout.getElementFlexGrow(span), 0);
+        Assert.assertEquals(Alignment.CENTER, layout.getElementAlignSelf(span));
+    }
+
+    @Test
+    public void addHtml_singleElementWithAttributesAndContent() {
+        FlexLayout layout = new FlexLayout();
+
+        Element element = layout.addHtml(
+                "<span class='label' style='color: red'>Total: <b>42</b></span>");
+
+        Assert.assertEquals(layout.getElement(), element.getParent());
+        Assert.assertEquals("span", element.getTag());
+        Assert.assertTrue(element.getClassList().contains("label"));
+        Assert.assertEquals("red", element.getStyle().get("color"));
+        Assert.assertEquals("Total: <b>42</b>",
+                element.getProperty("innerHTML"));
+        Assert.assertEquals(0, element.getChildCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addHtml_multipleRoots_throws() {
+        new FlexLayout().addHtml("<span>a</span><span>b</span>");
+    }
+
+    @Test
+    public void setFlexGrowPerChild_unchangedValuesSkipped() {
+        Div first = new Div();
+        Div second = new Div();
+        Div third = new Div();
+        FlexLayout layout = new FlexLayout(first, second, third);
+        layout.setFlexGrow(1, first, third);
+        List<Integer> counts = new ArrayList<>();
+        LayoutMetrics.setInstance(new LayoutMetrics() {
+            @Override
+            public void bulkOperation(Class<? extends Component> layoutType,
+                    String operation, int elementCount, long nanos) {
+                counts.add(elementCount);
+            }
+
+            @Override
+            public void writesSuppressed(
+                    Class<? extends Component> layoutType, String operation,
+                    int count) {
+                counts.add(-count);
+            }
+        });
+        try {
+            layout.setChildrenFlexGrow(new double[] { 1, 2, 0 });
+        } finally {
+            LayoutMetrics.setInstance(null);
+        }
+
+        Assert.assertEquals(Arrays.asList(3, -1), counts);
+        Assert.assertArrayEquals(new double[] { 1, 2, 0 },
+                layout.getFlexSnapshot().getFlexGrow(), 0);
+        Assert.assertNull(third.getStyle().get("flexGrow"));
+    }
+
+    @Test
+    public void setAlignSelfPerChild() {
+        Div first = new Div();
+        Div second = new Div();
+        FlexLayout layout = new FlexLayout(first, second);
+        layout.setAlignSelf(Alignment.END, first);
+
+        layout.setChildrenAlignSelf(
+                new Alignment[] { null, Alignment.CENTER });
+
+        Assert.assertNull(first.getStyle().get("alignSelf"));
+        Assert.assertEquals(Alignment.CENTER, layout.getAlignSelf(second));
+    }
+
+    @Test
+    public void setAlignSelf_nullAlignment_noContainers() {
+        FlexLayout layout = new FlexLayout(new Div());
+
+        layout.setAlignSelf(null);
+
+        Assert.assertEquals(Alignment.AUTO,
+                layout.getAlignSelf(layout.getComponentAt(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setFlexGrowPerChild_wrongLength_throws() {
+        new FlexLayout(new Div()).setChildrenFlexGrow(new double[] { 1, 1 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setFlexGrowPerChild_negative_throws() {
+        new FlexLayout(new Div()).setChildrenFlexGrow(new double[] { -1 });
+    }
 }
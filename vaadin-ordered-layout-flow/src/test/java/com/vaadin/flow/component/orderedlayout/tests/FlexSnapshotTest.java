@@ -0,0 +1,97 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.FlexSnapshot;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.dom.Element;
+
+public class FlexSnapshotTest {
+
+    @Test
+    public void snapshot_allChildrenRead() {
+        Div first = new Div();
+        Div second = new Div();
+        Element third = new Element("span");
+        HorizontalLayout layout = new HorizontalLayout(first, second);
+        layout.addElements(third);
+        layout.setFlexGrow(1.5, first);
+        layout.setAlignSelf(Alignment.END, second);
+        layout.setElementAlignSelf(Alignment.AUTO, third);
+        layout.setAlignItems(Alignment.CENTER);
+        layout.setJustifyContentMode(JustifyContentMode.EVENLY);
+
+        FlexSnapshot snapshot = layout.getFlexSnapshot();
+
+        Assert.assertEquals(3, snapshot.getChildCount());
+        Assert.assertArrayEquals(new double[] { 1.5, 0, 0 },
+                snapshot.getFlexGrow(), 0);
+        Assert.assertArrayEquals(
+                new int[] { FlexSnapshot.NOT_SET, Alignment.END.ordinal(),
+                        Alignment.AUTO.ordinal() },
+                snapshot.getAlignSelfOrdinals());
+        Assert.assertEquals(Alignment.AUTO, snapshot.getAlignSelf(0));
+        Assert.assertEquals(Alignment.END, snapshot.getAlignSelf(1));
+        Assert.assertEquals(Alignment.CENTER, snapshot.getAlignItems());
+        Assert.assertEquals(JustifyContentMode.EVENLY,
+                snapshot.getJustifyContentMode());
+        Assert.assertNull(snapshot.getWrapMode());
+    }
+
+    @Test
+    public void snapshot_matchesPerChildGetters() {
+        FlexLayout layout = new FlexLayout();
+        layout.setWrapMode(WrapMode.WRAP);
+        Alignment[] alignments = Alignment.values();
+        for (int i = 0; i < 20; i++) {
+            Div child = new Div();
+            layout.add(child);
+            layout.setFlexGrow(i % 3, child);
+            layout.setAlignSelf(alignments[i % alignments.length], child);
+        }
+
+        FlexSnapshot snapshot = layout.getFlexSnapshot();
+
+        Assert.assertEquals(WrapMode.WRAP, snapshot.getWrapMode());
+        Assert.assertEquals(Alignment.STRETCH, snapshot.getAlignItems());
+        for (int i = 0; i < 20; i++) {
+            Div child = (Div) layout.getComponentAt(i);
+            Assert.assertEquals(layout.getFlexGrow(child),
+                    snapshot.getFlexGrow()[i], 0);
+            Assert.assertEquals(layout.getAlignSelf(child),
+                    snapshot.getAlignSelf(i));
+        }
+    }
+
+    @Test
+    public void snapshot_notAffectedByLaterChanges() {
+        Div child = new Div();
+        FlexLayout layout = new FlexLayout(child);
+        FlexSnapshot snapshot = layout.getFlexSnapshot();
+
+        layout.setFlexGrow(2, child);
+
+        Assert.assertEquals(0, snapshot.getFlexGrow()[0], 0);
+    }
+}
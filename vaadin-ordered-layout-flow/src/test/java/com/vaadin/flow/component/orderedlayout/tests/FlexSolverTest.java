@@ -0,0 +1,289 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.FlexSolver;
+import com.vaadin.flow.component.orderedlayout.FlexSolver.Direction;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+/**
+ * The expected geometries are the ones computed by browsers for the same
+ * flexbox configurations.
+ */
+public class FlexSolverTest {
+
+    private static final double DELTA = 0.001;
+
+    private static FlexSolver row(double... widths) {
+        FlexSolver solver = new FlexSolver();
+        solver.setChildCount(widths.length);
+        for (int i = 0; i < widths.length; i++) {
+            solver.setChildSize(i, widths[i], Double.NaN);
+        }
+        return solver;
+    }
+
+    private static void assertBounds(FlexSolver solver, int index, double x,
+            double y, double width, double height) {
+        String message = "Bounds of child " + index;
+        Assert.assertEquals(message, x, solver.getX(index), DELTA);
+        Assert.assertEquals(message, y, solver.getY(index), DELTA);
+        Assert.assertEquals(message, width, solver.getWidth(index), DELTA);
+        Assert.assertEquals(message, height, solver.getHeight(index), DELTA);
+    }
+
+    @Test
+    public void row_childrenPlacedAtStartAndStretched() {
+        FlexSolver solver = row(100, 100, 100);
+        solver.solve(500, 80);
+
+        Assert.assertEquals(1, solver.getLineCount());
+        assertBounds(solver, 0, 0, 0, 100, 80);
+        assertBounds(solver, 1, 100, 0, 100, 80);
+        assertBounds(solver, 2, 200, 0, 100, 80);
+    }
+
+    @Test
+    public void flexGrow_freeSpaceDistributedByRatio() {
+        FlexSolver solver = row(100, 100, 100);
+        solver.setFlexGrow(0, 1);
+        solver.setFlexGrow(1, 2);
+        solver.solve(600, 10);
+
+        assertBounds(solver, 0, 0, 0, 200, 10);
+        assertBounds(solver, 1, 200, 0, 300, 10);
+        assertBounds(solver, 2, 500, 0, 100, 10);
+    }
+
+    @Test
+    public void flexGrowSumBelowOne_onlyPartOfFreeSpaceDistributed() {
+        FlexSolver solver = row(100);
+        solver.setFlexGrow(0, 0.5);
+        solver.solve(500, 10);
+
+        Assert.assertEquals(300, solver.getWidth(0), DELTA);
+    }
+
+    @Test
+    public void overflow_shrinkWeightedByBaseSize() {
+        FlexSolver solver = row(100, 300);
+        solver.solve(200, 10);
+
+        assertBounds(solver, 0, 0, 0, 50, 10);
+        assertBounds(solver, 1, 50, 0, 150, 10);
+    }
+
+    @Test
+    public void overflow_childrenNeverShrinkBelowZero() {
+        FlexSolver solver = row(300, 10, 50);
+        solver.setFlexShrink(1, 100);
+        solver.setFlexShrink(2, 0);
+        solver.solve(150, 10);
+
+        assertBounds(solver, 0, 0, 0, 100, 10);
+        assertBounds(solver, 1, 100, 0, 0, 10);
+        assertBounds(solver, 2, 100, 0, 50, 10);
+    }
+
+    @Test
+    public void justifyContentModes() {
+        assertJustified(JustifyContentMode.START, 0, 100);
+        assertJustified(JustifyContentMode.END, 200, 300);
+        assertJustified(JustifyContentMode.CENTER, 100, 200);
+        assertJustified(JustifyContentMode.BETWEEN, 0, 300);
+        assertJustified(JustifyContentMode.AROUND, 50, 250);
+        assertJustified(JustifyContentMode.EVENLY, 200.0 / 3, 100 + 400.0 / 3);
+    }
+
+    private void assertJustified(JustifyContentMode mode, double first,
+            double second) {
+        FlexSolver solver = row(100, 100);
+        solver.setJustifyContentMode(mode);
+        solver.solve(400, 10);
+        Assert.assertEquals(mode.name(), first, solver.getX(0), DELTA);
+        Assert.assertEquals(mode.name(), second, solver.getX(1), DELTA);
+    }
+
+    @Test
+    public void justifyOverflow_betweenFallsBackToStartAndAroundToCenter() {
+        FlexSolver solver = row(100, 100);
+        solver.setFlexShrink(0, 0);
+        solver.setFlexShrink(1, 0);
+        solver.setJustifyContentMode(JustifyContentMode.BETWEEN);
+        solver.solve(100, 10);
+        Assert.assertEquals(100, solver.getX(1), DELTA);
+
+        solver.setJustifyContentMode(JustifyContentMode.AROUND);
+        solver.solve(100, 10);
+        Assert.assertEquals(-50, solver.getX(0), DELTA);
+    }
+
+    @Test
+    public void gap_addedBetweenChildren() {
+        FlexSolver solver = row(100, 100, 100);
+        solver.setGap(10);
+        solver.setJustifyContentMode(JustifyContentMode.END);
+        solver.solve(400, 10);
+
+        Assert.assertEquals(80, solver.getX(0), DELTA);
+        Assert.assertEquals(190, solver.getX(1), DELTA);
+        Assert.assertEquals(300, solver.getX(2), DELTA);
+    }
+
+    @Test
+    public void rowReverse_childrenPlacedFromTheRight() {
+        FlexSolver solver = row(100, 50);
+        solver.setDirection(Direction.ROW_REVERSE);
+        solver.solve(300, 10);
+
+        Assert.assertEquals(200, solver.getX(0), DELTA);
+        Assert.assertEquals(150, solver.getX(1), DELTA);
+    }
+
+    @Test
+    public void column_crossAlignment() {
+        FlexSolver solver = new FlexSolver();
+        solver.setDirection(Direction.COLUMN);
+        solver.setAlignItems(Alignment.CENTER);
+        solver.setChildCount(3);
+        solver.setChildSize(0, 100, 20);
+        solver.setChildSize(1, 100, 20);
+        solver.setChildSize(2, Double.NaN, 20);
+        solver.setAlignSelf(1, Alignment.END);
+        solver.setAlignSelf(2, Alignment.STRETCH);
+        solver.solve(300, 200);
+
+        assertBounds(solver, 0, 100, 0, 100, 20);
+        assertBounds(solver, 1, 200, 20, 100, 20);
+        assertBounds(solver, 2, 0, 40, 300, 20);
+    }
+
+    @Test
+    public void wrap_linesStretchedOverCrossAxis() {
+        FlexSolver solver = new FlexSolver();
+        solver.setWrapMode(WrapMode.WRAP);
+        solver.setChildCount(5);
+        for (int i = 0; i < 4; i++) {
+            solver.setChildSize(i, 100, 40);
+        }
+        solver.setChildSize(4, 100, Double.NaN);
+        solver.solve(250, 300);
+
+        Assert.assertEquals(3, solver.getLineCount());
+        assertBounds(solver, 0, 0, 0, 100, 40);
+        assertBounds(solver, 1, 100, 0, 100, 40);
+        // The lines are 40, 40 and 0 high before the remaining 220 pixels
+        // are distributed
+        assertBounds(solver, 2, 0, 340.0 / 3, 100, 40);
+        assertBounds(solver, 3, 100, 340.0 / 3, 100, 40);
+        assertBounds(solver, 4, 0, 680.0 / 3, 100, 220.0 / 3);
+    }
+
+    @Test
+    public void wrapReverse_linesPlacedFromTheCrossEnd() {
+        FlexSolver solver = row(100, 100, 100);
+        solver.setWrapMode(WrapMode.WRAP_REVERSE);
+        solver.setChildSize(0, 100, 10);
+        solver.setAlignItems(Alignment.START);
+        solver.solve(200, 100);
+
+        Assert.assertEquals(2, solver.getLineCount());
+        // Lines are 55 and 45 high, and start is the bottom of the line
+        assertBounds(solver, 0, 0, 90, 100, 10);
+        assertBounds(solver, 2, 0, 45, 100, 0);
+    }
+
+    @Test
+    public void configuredFromVerticalLayout() {
+        Div header = new Div();
+        header.setHeight("50px");
+        header.setWidth("100px");
+        Div content = new Div();
+        content.setWidth("100%");
+        VerticalLayout layout = new VerticalLayout(header, content);
+        layout.expand(content);
+        layout.setAlignSelf(Alignment.END, header);
+
+        FlexSolver solver = FlexSolver.forLayout(layout);
+        Assert.assertEquals(Direction.COLUMN, solver.getDirection());
+        Assert.assertEquals(Alignment.START, solver.getAlignItems());
+        solver.solve(400, 300);
+
+        assertBounds(solver, 0, 300, 0, 100, 50);
+        // Percentages are not resolved, so the width is automatic
+        assertBounds(solver, 1, 0, 50, 0, 250);
+    }
+
+    @Test
+    public void configuredFromFlexLayout() {
+        Div first = new Div();
+        first.getStyle().set("width", "120px");
+        first.getStyle().set("flexShrink", "0");
+        FlexLayout layout = new FlexLayout(first, new Div());
+        layout.getStyle().set("flexDirection", "row-reverse");
+        layout.setWrapMode(WrapMode.WRAP);
+        layout.setJustifyContentMode(JustifyContentMode.CENTER);
+
+        FlexSolver solver = FlexSolver.forLayout(layout);
+        Assert.assertEquals(Direction.ROW_REVERSE, solver.getDirection());
+        Assert.assertEquals(WrapMode.WRAP, solver.getWrapMode());
+        Assert.assertEquals(Alignment.STRETCH, solver.getAlignItems());
+        solver.solve(200, 10);
+
+        assertBounds(solver, 0, 40, 0, 120, 10);
+        assertBounds(solver, 1, 40, 0, 0, 10);
+
+        solver.configure(new HorizontalLayout());
+        Assert.assertEquals(Direction.ROW, solver.getDirection());
+        Assert.assertEquals(WrapMode.NOWRAP, solver.getWrapMode());
+        Assert.assertEquals(0, solver.getChildCount());
+    }
+
+    @Test
+    public void getChildAt() {
+        FlexSolver solver = row(100, 100);
+        solver.setGap(10);
+        solver.solve(300, 50);
+
+        Assert.assertEquals(0, solver.getChildAt(50, 25));
+        Assert.assertEquals(-1, solver.getChildAt(105, 25));
+        Assert.assertEquals(1, solver.getChildAt(110, 0));
+        Assert.assertEquals(-1, solver.getChildAt(250, 25));
+        Assert.assertEquals(-1, solver.getChildAt(50, 50));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void childrenChanged_resultsNotAvailable() {
+        FlexSolver solver = row(100);
+        solver.solve(100, 100);
+        solver.setChildCount(1);
+        solver.getX(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeFlexGrow_throws() {
+        row(100).setFlexGrow(0, -1);
+    }
+}
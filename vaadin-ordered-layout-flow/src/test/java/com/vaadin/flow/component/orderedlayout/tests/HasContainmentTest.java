@@ -0,0 +1,95 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.util.EnumSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.orderedlayout.Containment;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.NativeVerticalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class HasContainmentTest {
+
+    @Test
+    public void noContainmentByDefault() {
+        VerticalLayout layout = new VerticalLayout();
+        Assert.assertTrue(layout.getContainment().isEmpty());
+        Assert.assertFalse(layout.isContentVisibilityAuto());
+        Assert.assertNull(layout.getContainIntrinsicSize());
+    }
+
+    @Test
+    public void setContainment_styleUpdated() {
+        VerticalLayout layout = new VerticalLayout();
+        layout.setContainment(EnumSet.of(Containment.LAYOUT, Containment.PAINT));
+        Assert.assertEquals("layout paint",
+                layout.getElement().getStyle().get("contain"));
+        Assert.assertEquals(EnumSet.of(Containment.LAYOUT, Containment.PAINT),
+                layout.getContainment());
+
+        layout.setContainment(EnumSet.noneOf(Containment.class));
+        Assert.assertNull(layout.getElement().getStyle().get("contain"));
+    }
+
+    @Test
+    public void unknownContainmentValue_ignored() {
+        FlexLayout layout = new FlexLayout();
+        layout.getElement().getStyle().set("contain", "strict size");
+        Assert.assertEquals(EnumSet.of(Containment.SIZE),
+                layout.getContainment());
+    }
+
+    @Test
+    public void setContainment_contentCombined_throws() {
+        VerticalLayout layout = new VerticalLayout();
+        layout.setContainment(EnumSet.of(Containment.PAINT));
+        try {
+            layout.setContainment(
+                    EnumSet.of(Containment.CONTENT, Containment.SIZE));
+            Assert.fail("CONTENT combined with SIZE was accepted");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("paint",
+                    layout.getElement().getStyle().get("contain"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setContainmentNull_throws() {
+        new FlexLayout().setContainment(null);
+    }
+
+    @Test
+    public void setContentVisibilityAuto_withIntrinsicSize() {
+        NativeVerticalLayout layout = new NativeVerticalLayout();
+        layout.setContentVisibilityAuto(true);
+        layout.setContainIntrinsicSize("auto 300px");
+        Assert.assertTrue(layout.isContentVisibilityAuto());
+        Assert.assertEquals("auto",
+                layout.getElement().getStyle().get("contentVisibility"));
+        Assert.assertEquals("auto 300px", layout.getContainIntrinsicSize());
+
+        layout.setContentVisibilityAuto(false);
+        layout.setContainIntrinsicSize(null);
+        Assert.assertFalse(layout.isContentVisibilityAuto());
+        Assert.assertFalse(layout.getElement().getStyle()
+                .has("contentVisibility"));
+        Assert.assertNull(layout.getContainIntrinsicSize());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.LayoutBindings;
+import com.vaadin.flow.component.orderedlayout.LayoutMetrics;
+import com.vaadin.flow.component.orderedlayout.LayoutTheme;
+import com.vaadin.flow.component.orderedlayout.LayoutValue;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.shared.Registration;
+
+public class LayoutBindingsTest {
+
+    private final List<String> bulkOperations = new ArrayList<>();
+
+    private final UI ui = new UI();
+
+    @After
+    public void resetMetrics() {
+        LayoutMetrics.setInstance(null);
+    }
+
+    private void recordBulkOperations() {
+        LayoutMetrics.setInstance(new LayoutMetrics() {
+            @Override
+            public void bulkOperation(Class<? extends Component> layoutType,
+                    String operation, int elementCount, long nanos) {
+                bulkOperations.add(operation);
+            }
+        });
+    }
+
+    private void respond() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+    }
+
+    @Test
+    public void bind_initialValueWrittenImmediately() {
+        Div child = new Div();
+        VerticalLayout layout = new VerticalLayout(child);
+        LayoutBindings bindings = new LayoutBindings(layout);
+
+        bindings.bindFlexGrow(child, new LayoutValue<>(2));
+        bindings.bindAlignSelf(child, new LayoutValue<>(Alignment.END));
+        bindings.bindAlignItems(new LayoutValue<>(Alignment.CENTER));
+        bindings.bindJustifyContentMode(
+                new LayoutValue<>(JustifyContentMode.BETWEEN));
+
+        Assert.assertEquals(2, layout.getFlexGrow(child), 0);
+        Assert.assertEquals(Alignment.END, layout.getAlignSelf(child));
+        Assert.assertEquals(Alignment.CENTER, layout.getAlignItems());
+        Assert.assertEquals(JustifyContentMode.BETWEEN,
+                layout.getJustifyContentMode());
+        Assert.assertFalse(bindings.hasPendingChanges());
+    }
+
+    @Test
+    public void changes_coalescedUntilResponse() {
+        Div child = new Div();
+        VerticalLayout layout = new VerticalLayout(child);
+        ui.add(layout);
+        LayoutBindings bindings = new LayoutBindings(layout);
+        LayoutValue<Double> flexGrow = new LayoutValue<>(0d);
+        bindings.bindFlexGrow(child, flexGrow);
+        recordBulkOperations();
+
+        for (int i = 1; i <= 10; i++) {
+            flexGrow.set((double) i);
+        }
+        Assert.assertTrue(bindings.hasPendingChanges());
+        Assert.assertEquals(0, layout.getFlexGrow(child), 0);
+        Assert.assertTrue(bulkOperations.isEmpty());
+
+        respond();
+
+        Assert.assertEquals(10, layout.getFlexGrow(child), 0);
+        Assert.assertEquals(1, bulkOperations.size());
+        Assert.assertFalse(bindings.hasPendingChanges());
+
+        // A new change is scheduled for the next response
+        flexGrow.set(1d);
+        respond();
+        Assert.assertEquals(1, layout.getFlexGrow(child), 0);
+        Assert.assertEquals(2, bulkOperations.size());
+    }
+
+    @Test
+    public void detachedLayout_changesWrittenOnAttach() {
+        FlexLayout layout = new FlexLayout();
+        LayoutBindings bindings = new LayoutBindings(layout);
+        LayoutValue<WrapMode> wrapMode = new LayoutValue<>(null);
+        bindings.bindWrapMode(wrapMode);
+        Assert.assertEquals(WrapMode.NOWRAP, layout.getWrapMode());
+
+        wrapMode.set(WrapMode.WRAP);
+        wrapMode.set(WrapMode.WRAP_REVERSE);
+        Assert.assertEquals(WrapMode.NOWRAP, layout.getWrapMode());
+
+        ui.add(layout);
+        respond();
+        Assert.assertEquals(WrapMode.WRAP_REVERSE, layout.getWrapMode());
+    }
+
+    @Test
+    public void themeVariants_writtenAsOneUpdate() {
+        VerticalLayout layout = new VerticalLayout();
+        ui.add(layout);
+        LayoutBindings bindings = new LayoutBindings(layout);
+        LayoutValue<Boolean> margin = new LayoutValue<>(false);
+        LayoutValue<Boolean> padding = new LayoutValue<>(true);
+        LayoutValue<Boolean> largeSpacing = new LayoutValue<>(false);
+        bindings.bindThemeVariant(LayoutTheme.MARGIN, margin);
+        bindings.bindThemeVariant(LayoutTheme.PADDING, padding);
+        bindings.bindThemeVariant(LayoutTheme.SPACING_L, largeSpacing);
+
+        margin.set(true);
+        padding.set(false);
+        largeSpacing.set(true);
+        Assert.assertEquals(
+                EnumSet.of(LayoutTheme.PADDING, LayoutTheme.SPACING),
+                layout.getThemeVariants());
+
+        bindings.flush();
+        Assert.assertEquals(
+                EnumSet.of(LayoutTheme.MARGIN, LayoutTheme.SPACING_L),
+                layout.getThemeVariants());
+    }
+
+    @Test
+    public void bindingRemoved_changesIgnored() {
+        Div child = new Div();
+        VerticalLayout layout = new VerticalLayout(child);
+        LayoutBindings bindings = new LayoutBindings(layout);
+        LayoutValue<Alignment> alignSelf = new LayoutValue<>(Alignment.END);
+        Registration registration = bindings.bindAlignSelf(child, alignSelf);
+
+        alignSelf.set(Alignment.START);
+        registration.remove();
+        alignSelf.set(Alignment.CENTER);
+        bindings.flush();
+
+        Assert.assertEquals(Alignment.END, layout.getAlignSelf(child));
+    }
+
+    @Test
+    public void rebind_previousValueUnbound() {
+        VerticalLayout layout = new VerticalLayout();
+        LayoutBindings bindings = new LayoutBindings(layout);
+        LayoutValue<Alignment> first = new LayoutValue<>(Alignment.END);
+        LayoutValue<Alignment> second = new LayoutValue<>(Alignment.CENTER);
+        bindings.bindAlignItems(first);
+        bindings.bindAlignItems(second);
+
+        first.set(Alignment.START);
+        bindings.flush();
+
+        Assert.assertEquals(Alignment.CENTER, layout.getAlignItems());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrapModeOfVerticalLayout_throws() {
+        new LayoutBindings(new VerticalLayout())
+                .bindWrapMode(new LayoutValue<>(WrapMode.WRAP));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void themeVariantOfFlexLayout_throws() {
+        new LayoutBindings(new FlexLayout()).bindThemeVariant(
+                LayoutTheme.PADDING, new LayoutValue<>(true));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.LayoutChangeTracker;
+import com.vaadin.flow.component.orderedlayout.LayoutDelta;
+import com.vaadin.flow.component.orderedlayout.LayoutState;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class LayoutChangeTrackerTest {
+
+    private VerticalLayout layout;
+    private LayoutChangeTracker tracker;
+    private LayoutState replica;
+
+    @Before
+    public void setUp() throws IOException {
+        layout = new VerticalLayout();
+        for (int i = 0; i < 1000; i++) {
+            layout.add(new Div());
+        }
+        layout.expand(layout.getComponentAt(0));
+        tracker = new LayoutChangeTracker(layout);
+        replica = LayoutState.readFrom(new DataInputStream(
+                new ByteArrayInputStream(write(tracker.getCheckpoint()))));
+    }
+
+    @Test
+    public void noChanges_emptyDelta() throws Exception {
+        LayoutDelta delta = replicate();
+        Assert.assertTrue(delta.isEmpty());
+        Assert.assertEquals(4, write(delta).length);
+    }
+
+    @Test
+    public void spacingToggled_onlyLayoutValuesSent() throws Exception {
+        layout.setSpacing(false);
+        LayoutDelta delta = replicate();
+        Assert.assertFalse(delta.isEmpty());
+        Assert.assertFalse(delta.isSnapshot());
+        Assert.assertNull(delta.getChildOrder());
+        Assert.assertTrue(write(delta).length < 20);
+        Assert.assertTrue(write(tracker.getCheckpoint()).length > 1000);
+    }
+
+    @Test
+    public void childValuesChanged_onlyChangedChildrenSent() throws Exception {
+        layout.setFlexGrow(2.5, layout.getComponentAt(500));
+        layout.setAlignSelf(Alignment.END, layout.getComponentAt(999));
+        layout.setFlexGrow(0, layout.getComponentAt(0));
+        LayoutDelta delta = replicate();
+        Assert.assertNull(delta.getChildOrder());
+        Assert.assertTrue(write(delta).length < 30);
+    }
+
+    @Test
+    public void childrenAddedRemovedAndMoved_orderSent() throws Exception {
+        Component first = layout.getComponentAt(0);
+        layout.remove(layout.getComponentAt(1));
+        layout.addComponentAtIndex(5, first);
+        Div added = new Div();
+        layout.add(added);
+        layout.setAlignSelf(Alignment.CENTER, added);
+
+        LayoutDelta delta = replicate();
+        int[] order = delta.getChildOrder();
+        Assert.assertEquals(1000, order.length);
+        Assert.assertEquals(2, order[0]);
+        Assert.assertEquals(0, order[4]);
+        Assert.assertEquals(-1, order[999]);
+        Assert.assertTrue(write(delta).length < 40);
+    }
+
+    @Test
+    public void mostChildrenChanged_snapshotSent() throws Exception {
+        layout.expand(layout.getChildren().toArray(Component[]::new));
+        layout.setAlignSelf(Alignment.END,
+                layout.getChildren().toArray(Component[]::new));
+        LayoutDelta delta = replicate();
+        Assert.assertTrue(delta.isSnapshot());
+    }
+
+    @Test
+    public void consecutiveDeltas_replicaFollows() throws Exception {
+        layout.setMargin(true);
+        replicate();
+        layout.removeAll();
+        replicate();
+        layout.add(new Div(), new Div());
+        layout.setPadding(false);
+        replicate();
+        LayoutDelta delta = replicate();
+        Assert.assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    public void checkpoint_discardsChanges() throws IOException {
+        layout.setSpacing(false);
+        tracker.checkpoint();
+        Assert.assertTrue(tracker.createDelta().isEmpty());
+    }
+
+    @Test
+    public void javaSerialization_roundTrip() throws Exception {
+        layout.setAlignItems(Alignment.BASELINE);
+        layout.remove(layout.getComponentAt(3));
+        LayoutDelta delta = tracker.createDelta();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(delta);
+        }
+        LayoutDelta copy;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (LayoutDelta) in.readObject();
+        }
+        Assert.assertArrayEquals(write(tracker.getCheckpoint()),
+                write(copy.applyTo(replica)));
+    }
+
+    /**
+     * Creates a delta, sends it to the replica in its binary form, and checks
+     * that the replica matches the layout.
+     */
+    private LayoutDelta replicate() throws IOException {
+        LayoutDelta delta = tracker.createDelta();
+        LayoutDelta received = LayoutDelta.readFrom(
+                new DataInputStream(new ByteArrayInputStream(write(delta))));
+        replica = received.applyTo(replica);
+        Assert.assertArrayEquals(write(LayoutState.capture(layout)),
+                write(replica));
+        return delta;
+    }
+
+    private static byte[] write(LayoutState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        state.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static byte[] write(LayoutDelta delta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        delta.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
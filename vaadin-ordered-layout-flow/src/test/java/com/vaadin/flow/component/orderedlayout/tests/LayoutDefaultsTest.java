@@ -5,6 +5,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.NativeHorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.NativeVerticalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 
 public class LayoutDefaultsTest {
@@ -29,6 +31,31 @@ public class LayoutDefaultsTest {
                 new VerticalLayout().isMargin());
     }
 
+    @Test
+    public void testNativeHorizontalLayout_byDefault_spacingIsOn() {
+        NativeHorizontalLayout layout = new NativeHorizontalLayout();
+        Assert.assertEquals("div", layout.getElement().getTag());
+        Assert.assertTrue("Spacing should be on by default",
+                layout.isSpacing());
+        Assert.assertFalse("Padding shouldn't be on by default",
+                layout.isPadding());
+        Assert.assertFalse("Margin shouldn't be on by default",
+                layout.isMargin());
+    }
+
+    @Test
+    public void testNativeVerticalLayout_byDefault_spacingAndPaddingIsOn() {
+        NativeVerticalLayout layout = new NativeVerticalLayout();
+        Assert.assertEquals("div", layout.getElement().getTag());
+        Assert.assertTrue("Padding should be on by default",
+                layout.isPadding());
+        Assert.assertTrue("Spacing should be on by default",
+                layout.isSpacing());
+        Assert.assertFalse("Margin shouldn't be on by default",
+                layout.isMargin());
+        Assert.assertEquals("100%", layout.getWidth());
+    }
+
     @Test
     public void create_Layout() {
         // Just testing that creating layout actually compiles and doesn't
@@ -42,5 +69,11 @@ public class LayoutDefaultsTest {
 
         VerticalLayout verticalLayout = new VerticalLayout();
         verticalLayout.addClickListener(event -> {});
+
+        NativeHorizontalLayout nativeHorizontalLayout = new NativeHorizontalLayout();
+        nativeHorizontalLayout.addClickListener(event -> {});
+
+        NativeVerticalLayout nativeVerticalLayout = new NativeVerticalLayout();
+        nativeVerticalLayout.addClickListener(event -> {});
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.orderedlayout.LayoutDensity;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class LayoutDensityTest {
+
+    @Test
+    public void getDensity_byDefault_default() {
+        Assert.assertEquals(LayoutDensity.DEFAULT,
+                LayoutDensity.getDensity(new UI()));
+    }
+
+    @Test
+    public void setDensity_rootAttributeSet_layoutThemesUntouched() {
+        UI ui = new UI();
+        VerticalLayout layout = new VerticalLayout();
+        ui.add(layout);
+        String theme = layout.getElement().getAttribute("theme");
+
+        LayoutDensity.setDensity(ui, LayoutDensity.COMPACT);
+
+        Assert.assertEquals(LayoutDensity.COMPACT,
+                LayoutDensity.getDensity(ui));
+        Assert.assertEquals("compact",
+                ui.getElement().getAttribute("layout-density"));
+        Assert.assertEquals(theme, layout.getElement().getAttribute("theme"));
+    }
+
+    @Test
+    public void setDensity_default_rootAttributeRemoved() {
+        UI ui = new UI();
+        LayoutDensity.setDensity(ui, LayoutDensity.COMFORTABLE);
+        LayoutDensity.setDensity(ui, null);
+
+        Assert.assertEquals(LayoutDensity.DEFAULT,
+                LayoutDensity.getDensity(ui));
+        Assert.assertFalse(ui.getElement().hasAttribute("layout-density"));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutFlattener;
+import com.vaadin.flow.component.orderedlayout.LayoutFlattener.Report;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class LayoutFlattenerTest {
+
+    @Test
+    public void flatten_nestedLayouts_childrenSplicedInOrder() {
+        Div first = new Div();
+        Div second = new Div();
+        Div third = new Div();
+        Div fourth = new Div();
+        VerticalLayout innermost = new VerticalLayout(second, third);
+        innermost.setPadding(false);
+        VerticalLayout nested = new VerticalLayout(innermost);
+        nested.setPadding(false);
+        VerticalLayout root = new VerticalLayout(first, nested, fourth);
+        root.setAlignSelf(Alignment.END, third);
+
+        Report report = LayoutFlattener.flatten(root);
+
+        Assert.assertTrue(report.isApplied());
+        Assert.assertEquals(Arrays.asList(innermost, nested),
+                report.getRedundantLayouts());
+        Assert.assertEquals(3, report.getMovedChildCount());
+        Assert.assertEquals(Arrays.asList(first, second, third, fourth),
+                root.getChildren().collect(Collectors.toList()));
+        Assert.assertEquals(Alignment.END, root.getAlignSelf(third));
+    }
+
+    @Test
+    public void analyze_treeNotModified() {
+        HorizontalLayout nested = new HorizontalLayout(new Div(), new Div());
+        HorizontalLayout root = new HorizontalLayout(nested);
+
+        Report report = LayoutFlattener.analyze(root);
+
+        Assert.assertFalse(report.isApplied());
+        Assert.assertEquals(Arrays.asList(nested),
+                report.getRedundantLayouts());
+        Assert.assertEquals(2, report.getMovedChildCount());
+        Assert.assertEquals(nested, root.getComponentAt(0));
+    }
+
+    @Test
+    public void flatten_layoutsWithSettings_notFlattened() {
+        VerticalLayout withPadding = new VerticalLayout(new Div());
+        VerticalLayout withAlignment = new VerticalLayout(new Div());
+        withAlignment.setPadding(false);
+        withAlignment.setAlignItems(Alignment.CENTER);
+        VerticalLayout withClassName = new VerticalLayout(new Div());
+        withClassName.setPadding(false);
+        withClassName.addClassName("card");
+        VerticalLayout withListener = new VerticalLayout(new Div());
+        withListener.setPadding(false);
+        withListener.addClickListener(event -> {
+        });
+        VerticalLayout withDomListener = new VerticalLayout(new Div());
+        withDomListener.setPadding(false);
+        withDomListener.getElement().addEventListener("keydown", event -> {
+        });
+        // DOM listeners are not detected, the id keeps the layout
+        withDomListener.setId("shortcuts");
+        VerticalLayout withAttachListener = new VerticalLayout(new Div());
+        withAttachListener.setPadding(false);
+        withAttachListener.addAttachListener(event -> {
+        });
+        VerticalLayout withOtherSpacing = new VerticalLayout(new Div());
+        withOtherSpacing.setPadding(false);
+        withOtherSpacing.setSpacing(false);
+        Div growing = new Div();
+        VerticalLayout withGrowingChild = new VerticalLayout(growing);
+        withGrowingChild.setPadding(false);
+        withGrowingChild.expand(growing);
+        HorizontalLayout otherType = new HorizontalLayout(new Div());
+
+        VerticalLayout root = new VerticalLayout(withPadding, withAlignment,
+                withClassName, withListener, withDomListener,
+                withAttachListener, withOtherSpacing, withGrowingChild,
+                otherType);
+
+        Report report = LayoutFlattener.flatten(root);
+
+        Assert.assertTrue(report.getRedundantLayouts().isEmpty());
+        Assert.assertEquals(9, root.getComponentCount());
+    }
+
+    @Test
+    public void flatten_parentWithAlignment_notFlattened() {
+        VerticalLayout nested = new VerticalLayout(new Div());
+        nested.setPadding(false);
+        VerticalLayout root = new VerticalLayout(nested);
+        root.setAlignItems(Alignment.CENTER);
+
+        Assert.assertTrue(LayoutFlattener.flatten(root).getRedundantLayouts()
+                .isEmpty());
+    }
+}
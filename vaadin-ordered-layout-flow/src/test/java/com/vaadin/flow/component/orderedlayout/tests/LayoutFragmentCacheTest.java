@@ -0,0 +1,118 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutFragmentCache;
+import com.vaadin.flow.component.orderedlayout.StaticFragment;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class LayoutFragmentCacheTest {
+
+    private static Component createFooter() {
+        return new HorizontalLayout(new Span("Copyright Vaadin Ltd."),
+                new Anchor("/legal", "Legal"));
+    }
+
+    @Test
+    public void keyedContent_createdOnceAndShared() {
+        LayoutFragmentCache cache = new LayoutFragmentCache(10);
+        AtomicInteger created = new AtomicInteger();
+
+        StaticFragment first = cache.get("footer", () -> {
+            created.incrementAndGet();
+            return createFooter();
+        });
+        StaticFragment second = cache.get("footer", () -> {
+            created.incrementAndGet();
+            return createFooter();
+        });
+
+        Assert.assertEquals(1, created.get());
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first.getHtml(), second.getHtml());
+        Assert.assertEquals(first.getFingerprint(), second.getFingerprint());
+        Assert.assertTrue(first.getHtml().startsWith(
+                "<vaadin-horizontal-layout"));
+        Assert.assertTrue(first.getHtml().contains("href=\"/legal\""));
+        Assert.assertEquals(0, first.getElement().getChildCount());
+        Assert.assertEquals("contents",
+                first.getElement().getStyle().get("display"));
+
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void sameContent_sameFingerprintAndHtml() {
+        LayoutFragmentCache cache = new LayoutFragmentCache(10);
+
+        StaticFragment first = cache.get(createFooter());
+        StaticFragment second = cache.get(createFooter());
+        StaticFragment other = cache.get(new VerticalLayout(new Span("Help")));
+
+        Assert.assertSame(first.getHtml(), second.getHtml());
+        Assert.assertNotEquals(first.getFingerprint(), other.getFingerprint());
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void full_leastRecentlyUsedEvicted() {
+        LayoutFragmentCache cache = new LayoutFragmentCache(2);
+        AtomicInteger created = new AtomicInteger();
+
+        cache.get("a", () -> new Span("a" + created.incrementAndGet()));
+        cache.get("b", () -> new Span("b" + created.incrementAndGet()));
+        cache.get("a", () -> new Span("a" + created.incrementAndGet()));
+        cache.get("c", () -> new Span("c" + created.incrementAndGet()));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(3, created.get());
+
+        // a was used more recently than b, so it is still cached
+        cache.get("a", () -> new Span("a" + created.incrementAndGet()));
+        Assert.assertEquals(3, created.get());
+        cache.get("b", () -> new Span("b" + created.incrementAndGet()));
+        Assert.assertEquals(4, created.get());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void sharedCache() {
+        Assert.assertSame(LayoutFragmentCache.getShared(),
+                LayoutFragmentCache.getShared());
+        Assert.assertEquals(LayoutFragmentCache.DEFAULT_MAXIMUM_SIZE,
+                LayoutFragmentCache.getShared().getMaximumSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaximumSize_throws() {
+        new LayoutFragmentCache(0);
+    }
+}
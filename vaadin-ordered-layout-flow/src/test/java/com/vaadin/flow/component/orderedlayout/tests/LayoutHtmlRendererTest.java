@@ -0,0 +1,241 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutHtmlRenderer;
+import com.vaadin.flow.component.orderedlayout.LayoutPrerenderListener;
+import com.vaadin.flow.component.orderedlayout.NativeVerticalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.internal.AfterNavigationHandler;
+import com.vaadin.flow.server.BootstrapPageResponse;
+import com.vaadin.flow.server.DefaultDeploymentConfiguration;
+import com.vaadin.flow.server.UIInitEvent;
+import com.vaadin.flow.server.VaadinServletService;
+import com.vaadin.flow.server.VaadinSession;
+
+public class LayoutHtmlRendererTest {
+
+    private final LayoutHtmlRenderer renderer = new LayoutHtmlRenderer();
+
+    @Test
+    public void verticalLayout_defaultStylesAndThemesInlined() {
+        Span first = new Span("First");
+        Span second = new Span("Second");
+        VerticalLayout layout = new VerticalLayout(first, second);
+        layout.setAlignSelf(Alignment.END, second);
+
+        Assert.assertEquals("<vaadin-vertical-layout style=\""
+                + "display:flex;flex-direction:column;align-items:flex-start;box-sizing:border-box;"
+                + "padding:var(--lumo-space-m, 1rem);width:100%\" theme=\"padding spacing\">"
+                + "<span>First</span>"
+                + "<span style=\"margin-top:var(--lumo-space-m, 1rem);align-self:flex-end\">Second</span>"
+                + "</vaadin-vertical-layout>", renderer.renderToString(layout));
+    }
+
+    @Test
+    public void horizontalLayoutWithoutThemes_childrenWithoutSpacing() {
+        HorizontalLayout layout = new HorizontalLayout(new Span("a"),
+                new Span("b"));
+        layout.setSpacing(false);
+
+        Assert.assertEquals("<vaadin-horizontal-layout style=\""
+                + "display:flex;align-items:baseline;box-sizing:border-box;\">"
+                + "<span>a</span><span>b</span></vaadin-horizontal-layout>",
+                renderer.renderToString(layout));
+    }
+
+    @Test
+    public void flexLayout_ownStylesOnly() {
+        Div child = new Div();
+        child.setId("child");
+        child.setClassName("card");
+        FlexLayout layout = new FlexLayout(child);
+        layout.setWrapMode(FlexLayout.WrapMode.WRAP);
+
+        Assert.assertEquals(
+                "<div style=\"flex-wrap:wrap;display:flex\"><div class=\"card\"></div></div>",
+                renderer.renderToString(layout));
+    }
+
+    @Test
+    public void nativeLayout_spacingSkipsInvisibleChildren() {
+        Span hidden = new Span("hidden");
+        hidden.setVisible(false);
+        NativeVerticalLayout layout = new NativeVerticalLayout(hidden,
+                new Span("a"), new Span("b"));
+        layout.setPadding(false);
+
+        String html = renderer.renderToString(layout);
+        Assert.assertFalse(html.contains("hidden"));
+        Assert.assertTrue(html, html.contains("<span>a</span><span style=\""
+                + "margin-top:var(--lumo-space-m, 1rem);\">b</span>"));
+    }
+
+    @Test
+    public void textAndAttributesEscaped_voidElementsNotClosed() {
+        Div div = new Div(new Span("a < b & c"),
+                new Image("image.png?a=1&b=2", "\"alt\""));
+        div.getElement().setAttribute("hidden", true);
+
+        Assert.assertEquals("<div hidden><span>a &lt; b &amp; c</span>"
+                + "<img alt=\"&quot;alt&quot;\" src=\"image.png?a=1&amp;b=2\">"
+                + "</div>", renderer.renderToString(div));
+    }
+
+    @Test
+    public void htmlChildren_innerHtmlWritten() {
+        VerticalLayout layout = new VerticalLayout();
+        layout.setPadding(false);
+        layout.setSpacing(false);
+        layout.addHtml("<p>Static <i>text</i></p>");
+
+        Assert.assertTrue(renderer.renderToString(layout)
+                .endsWith("><p>Static <i>text</i></p></vaadin-vertical-layout>"));
+    }
+
+    @Test
+    public void untrustedInnerHtml_sanitized() {
+        Div div = new Div();
+        div.getElement().setProperty("innerHTML",
+                "<b>Bold</b><img src=\"x\" onerror=\"alert(1)\"><script>alert(2)</script>");
+
+        String html = renderer.renderToString(div);
+
+        Assert.assertTrue(html, html.startsWith("<div><b>Bold</b>"));
+        Assert.assertFalse(html, html.contains("alert"));
+    }
+
+    @Test
+    public void forgedTrustAttribute_sanitized() {
+        Div div = new Div();
+        div.getElement().setAttribute("layout-trusted-html", true);
+        div.getElement().setProperty("innerHTML",
+                "<img src=\"x\" onerror=\"alert(1)\"><script>alert(2)</script>");
+
+        String html = renderer.renderToString(div);
+
+        Assert.assertTrue(html, html.startsWith("<div layout-trusted-html>"));
+        Assert.assertFalse(html, html.contains("alert"));
+    }
+
+    @Test
+    public void render_writtenIncrementally() throws IOException {
+        VerticalLayout layout = new VerticalLayout();
+        for (int i = 0; i < 100; i++) {
+            layout.add(new Span("Row " + i));
+        }
+        List<Integer> writes = new ArrayList<>();
+        renderer.render(layout, new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                writes.add(csq.length());
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(char c) {
+                writes.add(1);
+                return this;
+            }
+        });
+
+        Assert.assertTrue(writes.size() > 100);
+        Assert.assertTrue(writes.stream().allMatch(length -> length < 200));
+    }
+
+    @Test
+    public void prerenderListener_snapshotAddedToBody() {
+        UI ui = new UI();
+        VerticalLayout root = new VerticalLayout(new Span("Hello"));
+        ui.add(root);
+        Document document = Jsoup.parse("<html><body></body></html>");
+
+        VaadinServletService service = new VaadinServletService(null,
+                new DefaultDeploymentConfiguration(getClass(),
+                        new Properties()));
+        ui.getInternals().setSession(new VaadinSession(service) {
+            @Override
+            public boolean hasLock() {
+                return true;
+            }
+        });
+
+        LayoutPrerenderListener listener = new LayoutPrerenderListener();
+        listener.uiInit(new UIInitEvent(ui, service));
+        ui.getNavigationListeners(AfterNavigationHandler.class)
+                .forEach(navigationListener -> navigationListener
+                        .afterNavigation(null));
+        listener.modifyBootstrapPage(new BootstrapPageResponse(null, null,
+                null, document, ui, null));
+
+        Assert.assertTrue(root.getElement()
+                .hasAttribute(LayoutPrerenderListener.ROOT_ATTRIBUTE));
+        String body = document.body().html();
+        Assert.assertTrue(body, body.startsWith("<div id=\""
+                + LayoutPrerenderListener.SNAPSHOT_ID
+                + "\" aria-hidden=\"true\"><vaadin-vertical-layout"));
+        Assert.assertTrue(body, body.contains("<span>Hello</span>"));
+        Assert.assertTrue(body, body.contains("hasAttribute('"
+                + LayoutPrerenderListener.ROOT_ATTRIBUTE + "')"));
+        Assert.assertFalse(body, body.contains("localName"));
+    }
+
+    @Test
+    public void prerenderListener_rootNotMarked_nothingAdded() {
+        UI ui = new UI();
+        ui.add(new VerticalLayout(new Span("Hello")));
+        Document document = Jsoup.parse("<html><body></body></html>");
+
+        new LayoutPrerenderListener().modifyBootstrapPage(
+                new BootstrapPageResponse(null, null, null, document, ui,
+                        null));
+
+        Assert.assertEquals("", document.body().html());
+    }
+
+    @Test
+    public void prerenderListener_emptyUI_nothingAdded() {
+        Document document = Jsoup.parse("<html><body></body></html>");
+
+        new LayoutPrerenderListener().modifyBootstrapPage(
+                new BootstrapPageResponse(null, null, null, document,
+                        new UI(), null));
+
+        Assert.assertEquals("", document.body().html());
+    }
+}
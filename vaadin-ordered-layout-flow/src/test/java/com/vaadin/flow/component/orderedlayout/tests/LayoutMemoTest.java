@@ -0,0 +1,120 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutMemo;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class LayoutMemoTest {
+
+    private static Component buildRow(String value) {
+        return new HorizontalLayout(new Span("Value"), new Span(value));
+    }
+
+    @Test
+    public void addMemo_childBuiltAndAdded() {
+        VerticalLayout layout = new VerticalLayout(new Div());
+
+        LayoutMemo<String> memo = layout.addMemo("a",
+                LayoutMemoTest::buildRow);
+
+        Assert.assertEquals(1, memo.getBuildCount());
+        Assert.assertEquals("a", memo.getInput());
+        Assert.assertEquals(layout.getComponentAt(1), memo.getComponent());
+    }
+
+    @Test
+    public void equalInput_childKept() {
+        VerticalLayout layout = new VerticalLayout();
+        LayoutMemo<String> memo = layout.addMemo("a",
+                LayoutMemoTest::buildRow);
+        Component built = memo.getComponent();
+
+        Assert.assertFalse(memo.update(new String("a")));
+        Assert.assertSame(built, memo.getComponent());
+        Assert.assertEquals(1, memo.getBuildCount());
+    }
+
+    @Test
+    public void changedInput_childReplacedInPlace() {
+        Div first = new Div();
+        Div last = new Div();
+        VerticalLayout layout = new VerticalLayout(first);
+        LayoutMemo<String> memo = layout.addMemo("a",
+                LayoutMemoTest::buildRow);
+        layout.add(last);
+        layout.setFlexGrow(1, memo.getComponent());
+        layout.setAlignSelf(Alignment.END, memo.getComponent());
+
+        Assert.assertTrue(memo.update("b"));
+
+        Component rebuilt = memo.getComponent();
+        Assert.assertEquals(Arrays.asList(first, rebuilt, last),
+                Arrays.asList(layout.getComponentAt(0),
+                        layout.getComponentAt(1), layout.getComponentAt(2)));
+        Assert.assertEquals(1, layout.getFlexGrow(rebuilt), 0);
+        Assert.assertEquals(Alignment.END, layout.getAlignSelf(rebuilt));
+        Assert.assertEquals(2, memo.getBuildCount());
+    }
+
+    @Test
+    public void fingerprint_mutableInputRebuiltOnlyWhenFingerprintChanges() {
+        List<String> values = new ArrayList<>(Arrays.asList("a", "b"));
+        VerticalLayout layout = new VerticalLayout();
+        LayoutMemo<List<String>> memo = layout.addMemo(values,
+                list -> new Span(String.join(", ", list)),
+                list -> list.hashCode());
+
+        Assert.assertFalse(memo.update(values));
+        values.add("c");
+        Assert.assertTrue(memo.update(values));
+        Assert.assertEquals("a, b, c",
+                memo.getComponent().getElement().getText());
+        Assert.assertFalse(memo.update(new ArrayList<>(values)));
+        Assert.assertEquals(2, memo.getBuildCount());
+    }
+
+    @Test
+    public void remove_nextUpdateAddsAgain() {
+        VerticalLayout layout = new VerticalLayout();
+        LayoutMemo<String> memo = layout.addMemo("a",
+                LayoutMemoTest::buildRow);
+
+        memo.remove();
+        Assert.assertNull(memo.getComponent());
+        Assert.assertEquals(0, layout.getComponentCount());
+
+        Assert.assertTrue(memo.update("a"));
+        Assert.assertEquals(1, layout.getComponentCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void builderReturnsNull_throws() {
+        new VerticalLayout().addMemo("a", value -> null);
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.BoxSizing;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.JmxLayoutMetrics;
+import com.vaadin.flow.component.orderedlayout.LayoutMetrics;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class LayoutMetricsTest {
+
+    private static class RecordingMetrics implements LayoutMetrics {
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void layoutAttached(Class<? extends Component> layoutType,
+                int childCount) {
+            calls.add("attached " + layoutType.getSimpleName() + " "
+                    + childCount);
+        }
+
+        @Override
+        public void layoutDetached(Class<? extends Component> layoutType,
+                int childCount) {
+            calls.add("detached " + layoutType.getSimpleName() + " "
+                    + childCount);
+        }
+
+        @Override
+        public void childrenChanged(Class<? extends Component> layoutType,
+                String operation, int affectedCount, int childCount,
+                long nanos) {
+            Assert.assertTrue(nanos >= 0);
+            calls.add(operation + " " + layoutType.getSimpleName() + " "
+                    + affectedCount + " " + childCount);
+        }
+
+        @Override
+        public void bulkOperation(Class<? extends Component> layoutType,
+                String operation, int elementCount, long nanos) {
+            Assert.assertTrue(nanos >= 0);
+            calls.add(operation + " " + layoutType.getSimpleName() + " "
+                    + elementCount);
+        }
+
+        @Override
+        public void writesSuppressed(Class<? extends Component> layoutType,
+                String operation, int count) {
+            calls.add("suppressed " + operation + " "
+                    + layoutType.getSimpleName() + " " + count);
+        }
+    }
+
+    @After
+    public void resetMetrics() {
+        JmxLayoutMetrics.uninstall();
+        LayoutMetrics.setInstance(null);
+    }
+
+    @Test
+    public void noMetricsByDefault() {
+        Assert.assertFalse(LayoutMetrics.getInstance().isPresent());
+    }
+
+    @Test
+    public void metricsSet_operationsReported() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        LayoutMetrics.setInstance(metrics);
+        Assert.assertSame(metrics, LayoutMetrics.getInstance().get());
+
+        Div first = new Div();
+        Div second = new Div();
+        VerticalLayout layout = new VerticalLayout();
+        layout.add(first, second);
+        layout.setFlexGrow(1, first, second);
+        layout.remove(first);
+
+        UI ui = new UI();
+        ui.add(layout);
+        ui.remove(layout);
+
+        Assert.assertEquals(Arrays.asList("add VerticalLayout 2 2",
+                "setFlexGrow VerticalLayout 2", "remove VerticalLayout 1 1",
+                "attached VerticalLayout 1", "detached VerticalLayout 1"),
+                metrics.calls);
+    }
+
+    @Test
+    public void sameValuesSetAgain_writesSuppressedAndReported() {
+        Div first = new Div();
+        Div second = new Div();
+        FlexLayout layout = new FlexLayout(first, second);
+        layout.setAlignItems(Alignment.CENTER);
+        layout.setJustifyContentMode(JustifyContentMode.END);
+        layout.setWrapMode(FlexLayout.WrapMode.WRAP);
+        layout.setFlexGrow(1, first);
+        layout.setAlignSelf(Alignment.END, first);
+
+        RecordingMetrics metrics = new RecordingMetrics();
+        LayoutMetrics.setInstance(metrics);
+
+        layout.setAlignItems(Alignment.CENTER);
+        layout.setJustifyContentMode(JustifyContentMode.END);
+        layout.setWrapMode(FlexLayout.WrapMode.WRAP);
+        layout.setFlexGrow(1, first, second);
+        layout.setAlignSelf(null, second);
+        layout.setChildrenFlexGrow(new double[] { 1, 1 });
+
+        Assert.assertEquals(Arrays.asList(
+                "suppressed setAlignItems FlexLayout 1",
+                "suppressed setJustifyContentMode FlexLayout 1",
+                "suppressed setWrapMode FlexLayout 1",
+                "setFlexGrow FlexLayout 2",
+                "suppressed setFlexGrow FlexLayout 1",
+                "setAlignSelf FlexLayout 1",
+                "suppressed setAlignSelf FlexLayout 1",
+                "setChildrenFlexGrow FlexLayout 2",
+                "suppressed setChildrenFlexGrow FlexLayout 2"), metrics.calls);
+        Assert.assertEquals(1, layout.getFlexGrow(second), 0);
+    }
+
+    @Test
+    public void sameThemesSetAgain_writesSuppressedAndReported() {
+        VerticalLayout layout = new VerticalLayout();
+        layout.setBoxSizing(BoxSizing.BORDER_BOX);
+
+        RecordingMetrics metrics = new RecordingMetrics();
+        LayoutMetrics.setInstance(metrics);
+
+        layout.setPadding(true);
+        layout.setSpacing(true);
+        layout.setMargin(false);
+        layout.setBoxSizing(BoxSizing.BORDER_BOX);
+        layout.setMargin(true);
+
+        Assert.assertEquals(Arrays.asList(
+                "suppressed setPadding VerticalLayout 1",
+                "suppressed setSpacing VerticalLayout 1",
+                "suppressed setMargin VerticalLayout 1",
+                "suppressed setBoxSizing VerticalLayout 1"), metrics.calls);
+        Assert.assertTrue(layout.isMargin());
+    }
+
+    @Test
+    public void metricsRemoved_nothingReported() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        LayoutMetrics.setInstance(metrics);
+        LayoutMetrics.setInstance(null);
+
+        new HorizontalLayout().add(new Div());
+
+        Assert.assertTrue(metrics.calls.isEmpty());
+    }
+
+    @Test
+    public void jmxMetrics_aggregatesAndRegistersMBean() throws Exception {
+        JmxLayoutMetrics metrics = JmxLayoutMetrics.install();
+        ObjectName name = new ObjectName(JmxLayoutMetrics.OBJECT_NAME);
+        Assert.assertTrue(
+                ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        UI ui = new UI();
+        VerticalLayout vertical = new VerticalLayout();
+        HorizontalLayout horizontal = new HorizontalLayout(new Div(),
+                new Div());
+        FlexLayout flex = new FlexLayout();
+        vertical.add(horizontal, flex);
+        ui.add(vertical);
+
+        Assert.assertEquals(1, metrics.getLiveVerticalLayouts());
+        Assert.assertEquals(1, metrics.getLiveHorizontalLayouts());
+        Assert.assertEquals(1, metrics.getLiveFlexLayouts());
+        Assert.assertEquals(Long.valueOf(1), metrics.getLiveLayouts()
+                .get(VerticalLayout.class.getName()));
+        Assert.assertEquals(1L, ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(name, "LiveVerticalLayouts"));
+
+        // Samples: add to horizontal (2), add to vertical (2), attach of all
+        // three layouts (0, 2 and 2)
+        Assert.assertEquals(Long.valueOf(1),
+                metrics.getChildCountHistogram().get("0"));
+        Assert.assertEquals(Long.valueOf(4),
+                metrics.getChildCountHistogram().get("2-5"));
+        Assert.assertEquals(2, metrics.getMutationCount());
+
+        vertical.setFlexGrow(1, horizontal, flex);
+        Assert.assertEquals(1, metrics.getBulkOperationCount());
+        Assert.assertEquals(2, metrics.getBulkOperationElementCount());
+        Assert.assertEquals(0, metrics.getSuppressedWriteCount());
+
+        vertical.setFlexGrow(1, horizontal, flex);
+        vertical.setPadding(true);
+        Assert.assertEquals(3, metrics.getSuppressedWriteCount());
+        Assert.assertEquals(Long.valueOf(2),
+                metrics.getSuppressedWrites().get("setFlexGrow"));
+        Assert.assertEquals(Long.valueOf(1),
+                metrics.getSuppressedWrites().get("setPadding"));
+
+        ui.remove(vertical);
+        Assert.assertEquals(0, metrics.getLiveVerticalLayouts());
+        Assert.assertEquals(0, metrics.getLiveFlexLayouts());
+
+        metrics.resetCounters();
+        Assert.assertEquals(0, metrics.getMutationCount());
+        Assert.assertEquals(0, metrics.getBulkOperationCount());
+        Assert.assertEquals(0, metrics.getSuppressedWriteCount());
+        Assert.assertEquals(Long.valueOf(0),
+                metrics.getChildCountHistogram().get("2-5"));
+
+        JmxLayoutMetrics.uninstall();
+        Assert.assertFalse(LayoutMetrics.getInstance().isPresent());
+        Assert.assertFalse(
+                ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.internal.ConstantPool;
+
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Guards the size of the changes sent to the client for typical layout
+ * operations. Each test runs an operation on an attached layout, encodes the
+ * resulting state tree changes the same way as a UIDL response does and
+ * compares the size with a budget.
+ * <p>
+ * When a budget is exceeded, the failure lists the bytes per change type and
+ * feature together with the first changes. If the growth is intended, update
+ * the budget in the same change.
+ */
+public class LayoutPayloadSizeTest {
+
+    private static final int CHILDREN = 1000;
+
+    private UI ui;
+    private VerticalLayout layout;
+    private List<Div> children;
+
+    private static class Payload {
+        private final List<JsonObject> changes = new ArrayList<>();
+        private int bytes;
+
+        private Map<String, Integer> getBytesByType() {
+            return changes.stream()
+                    .collect(Collectors.groupingBy(
+                            change -> getString(change, "type") + " "
+                                    + getString(change, "feat"),
+                            TreeMap::new, Collectors.summingInt(
+                                    change -> change.toJson().length())));
+        }
+
+        private static String getString(JsonObject change, String key) {
+            JsonValue value = change.get(key);
+            return value == null ? "-" : value.toJson();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        ui = new UI();
+        layout = new VerticalLayout();
+        children = IntStream.range(0, CHILDREN).mapToObj(i -> new Div())
+                .collect(Collectors.toList());
+        ui.add(layout);
+        collect();
+    }
+
+    @Test
+    public void construction() {
+        assertBudget("construction", 600, () -> {
+            ui.remove(layout);
+            collect();
+            ui.add(new VerticalLayout(), new HorizontalLayout());
+        });
+    }
+
+    @Test
+    public void bulkAdd() {
+        assertBudget("add " + CHILDREN, 170_000,
+                () -> layout.add(children.toArray(new Component[0])));
+    }
+
+    @Test
+    public void expand() {
+        addChildren();
+        assertBudget("expand 1", 80, () -> layout.expand(children.get(0)));
+    }
+
+    @Test
+    public void setFlexGrow() {
+        addChildren();
+        assertBudget("setFlexGrow " + CHILDREN, 75_000,
+                () -> layout.setFlexGrow(1, children.toArray(new Div[0])));
+    }
+
+    @Test
+    public void alignmentChanges() {
+        addChildren();
+        assertBudget("alignment", 250, () -> {
+            layout.setDefaultHorizontalComponentAlignment(Alignment.CENTER);
+            layout.setJustifyContentMode(JustifyContentMode.BETWEEN);
+            layout.setHorizontalComponentAlignment(Alignment.END,
+                    children.get(0));
+        });
+    }
+
+    @Test
+    public void setAlignSelf() {
+        addChildren();
+        assertBudget("setAlignSelf " + CHILDREN, 81_000,
+                () -> layout.setAlignSelf(Alignment.END,
+                        children.toArray(new Div[0])));
+    }
+
+    @Test
+    public void themeToggles() {
+        assertBudget("theme toggles", 80, () -> {
+            layout.setPadding(false);
+            layout.setSpacing(false);
+            layout.setMargin(true);
+        });
+    }
+
+    @Test
+    public void replace() {
+        addChildren();
+        assertBudget("replace", 270,
+                () -> layout.replace(children.get(0), new Div()));
+    }
+
+    @Test
+    public void reorder() {
+        addChildren();
+        assertBudget("reorder", 150, () -> {
+            Div last = children.get(CHILDREN - 1);
+            layout.addComponentAtIndex(0, last);
+        });
+    }
+
+    private void addChildren() {
+        layout.add(children.toArray(new Component[0]));
+        collect();
+    }
+
+    private Payload collect() {
+        Payload payload = new Payload();
+        ConstantPool constantPool = ui.getInternals().getConstantPool();
+        ui.getInternals().getStateTree().collectChanges(
+                change -> payload.changes.add(change.toJson(constantPool)));
+        int constantBytes = constantPool.hasNewConstants()
+                ? constantPool.dumpConstants().toJson().length()
+                : 0;
+        payload.bytes = constantBytes + 2 + payload.changes.stream()
+                .mapToInt(change -> change.toJson()
+                        .getBytes(StandardCharsets.UTF_8).length + 1)
+                .sum();
+        return payload;
+    }
+
+    private void assertBudget(String operation, int budget,
+            Runnable operationCommand) {
+        operationCommand.run();
+        Payload payload = collect();
+        if (payload.bytes > budget) {
+            StringBuilder message = new StringBuilder();
+            message.append(String.format(
+                    "Payload of '%s' is %d bytes, over the budget of %d bytes by %d bytes (%d changes)%n",
+                    operation, payload.bytes, budget,
+                    payload.bytes - budget, payload.changes.size()));
+            message.append("Bytes by change type and feature:\n");
+            payload.getBytesByType().forEach((type, bytes) -> message
+                    .append("  ").append(type).append(": ").append(bytes)
+                    .append('\n'));
+            message.append("First changes:\n");
+            payload.changes.stream().limit(5).forEach(change -> message
+                    .append("  ").append(change.toJson()).append('\n'));
+            Assert.fail(message.toString());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutProfile;
+import com.vaadin.flow.component.orderedlayout.LayoutProfiler;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+import elemental.json.JsonObject;
+
+public class LayoutProfilerTest {
+
+    @Test
+    public void profile_countsCollected() {
+        Div first = new Div();
+        Div second = new Div();
+        HorizontalLayout row = new HorizontalLayout(first, second);
+        row.setFlexGrow(1, first);
+        row.setAlignSelf(Alignment.END, second);
+        row.addClickListener(event -> {
+        });
+        // layout inside a non-layout still counts as nested
+        Div wrapper = new Div(new FlexLayout(new Div()));
+        VerticalLayout root = new VerticalLayout(row, wrapper);
+
+        LayoutProfile profile = new LayoutProfiler().profile(root);
+
+        Assert.assertEquals(7, profile.getComponentCount());
+        Assert.assertEquals(2, profile.getMaxDepth());
+        Assert.assertEquals(3, profile.getLayouts().size());
+        Assert.assertEquals(2, profile.getLayouts().get(0).getChildCount());
+        Assert.assertEquals("HorizontalLayout",
+                profile.getLayouts().get(1).getType());
+        Assert.assertEquals(HorizontalLayout.class,
+                profile.getLayouts().get(1).getLayoutType());
+        Assert.assertEquals("VerticalLayout",
+                profile.getLayouts().get(0).getPath());
+        Assert.assertEquals("VerticalLayout/HorizontalLayout[0]",
+                profile.getLayouts().get(1).getPath());
+        Assert.assertEquals("VerticalLayout/Div[1]/FlexLayout[0]",
+                profile.getLayouts().get(2).getPath());
+        Assert.assertEquals(2, profile.getFlexStyleEntryCount());
+        // padding + spacing of the vertical layout, spacing of the horizontal
+        Assert.assertEquals(3, profile.getThemeVariantCount());
+        Assert.assertEquals(1, profile.getClickListenerCount());
+        Assert.assertTrue(profile.getEstimatedMemory() > 0);
+        Assert.assertTrue(profile.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void profile_thresholdsExceeded_warningsReported() {
+        VerticalLayout root = new VerticalLayout(
+                new VerticalLayout(new VerticalLayout()), new Div(),
+                new Div());
+        LayoutProfiler profiler = new LayoutProfiler();
+        profiler.setMaxDepth(2);
+        profiler.setMaxChildCount(2);
+        profiler.setMaxComponentCount(4);
+
+        LayoutProfile profile = profiler.profile(root);
+
+        Assert.assertEquals(3, profile.getWarnings().size());
+    }
+
+    @Test
+    public void toJson_containsCounts() {
+        LayoutProfile profile = new LayoutProfiler()
+                .profile(new VerticalLayout(new Div()));
+
+        JsonObject json = profile.toJson();
+
+        Assert.assertEquals(2, json.getNumber("componentCount"), 0);
+        Assert.assertEquals(1, json.getArray("layouts").length());
+        Assert.assertEquals(0, json.getArray("warnings").length());
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.BoxSizing;
+import com.vaadin.flow.component.orderedlayout.Containment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.HasContainment;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutState;
+import com.vaadin.flow.component.orderedlayout.LayoutTheme;
+import com.vaadin.flow.component.orderedlayout.NativeHorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.NativeVerticalLayout;
+import com.vaadin.flow.component.orderedlayout.ThemableLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.dom.Element;
+
+public class LayoutStateTest {
+
+    @Test
+    public void defaults_roundTrip() throws Exception {
+        for (FlexComponent<?> layout : new FlexComponent<?>[] {
+                new VerticalLayout(), new HorizontalLayout(), new FlexLayout(),
+                new NativeVerticalLayout(), new NativeHorizontalLayout() }) {
+            layout.add(new Div(), new Div());
+            assertRoundTrip(layout);
+        }
+    }
+
+    @Test
+    public void themeVariants_roundTrip() throws Exception {
+        for (LayoutTheme spacing : EnumSet.range(LayoutTheme.SPACING_XS,
+                LayoutTheme.SPACING_XL)) {
+            VerticalLayout layout = new VerticalLayout();
+            layout.setThemeVariants(
+                    EnumSet.of(LayoutTheme.MARGIN, LayoutTheme.PADDING,
+                            spacing));
+            layout.getThemeList().add("custom");
+            FlexComponent<?> restored = assertRoundTrip(layout);
+            Assert.assertEquals(layout.getThemeVariants(),
+                    ((ThemableLayout) restored).getThemeVariants());
+            Assert.assertTrue(
+                    ((ThemableLayout) restored).getThemeList()
+                            .contains("custom"));
+        }
+
+        HorizontalLayout noThemes = new HorizontalLayout();
+        noThemes.setSpacing(false);
+        FlexComponent<?> restored = assertRoundTrip(noThemes);
+        Assert.assertFalse(restored.getElement().hasAttribute("theme"));
+    }
+
+    @Test
+    public void layoutProperties_roundTrip() throws Exception {
+        for (Alignment alignment : Alignment.values()) {
+            for (JustifyContentMode mode : JustifyContentMode.values()) {
+                HorizontalLayout layout = new HorizontalLayout();
+                layout.setAlignItems(alignment);
+                layout.setJustifyContentMode(mode);
+                assertRoundTrip(layout);
+            }
+        }
+        for (BoxSizing boxSizing : BoxSizing.values()) {
+            NativeVerticalLayout layout = new NativeVerticalLayout();
+            layout.setBoxSizing(boxSizing);
+            layout.setHeight("50em");
+            layout.setWidth(null);
+            assertRoundTrip(layout);
+        }
+        for (WrapMode wrapMode : WrapMode.values()) {
+            FlexLayout layout = new FlexLayout();
+            layout.setWrapMode(wrapMode);
+            assertRoundTrip(layout);
+        }
+    }
+
+    @Test
+    public void containment_roundTrip() throws Exception {
+        VerticalLayout layout = new VerticalLayout();
+        layout.setContainment(EnumSet.of(Containment.LAYOUT, Containment.SIZE));
+        layout.setContentVisibilityAuto(true);
+        layout.setContainIntrinsicSize("auto 300px");
+        FlexLayout content = new FlexLayout();
+        content.setContainment(EnumSet.of(Containment.CONTENT));
+
+        assertRoundTrip(layout);
+        assertRoundTrip(content);
+    }
+
+    @Test
+    public void childProperties_roundTrip() throws Exception {
+        VerticalLayout layout = new VerticalLayout();
+        for (Alignment alignment : Alignment.values()) {
+            Div child = new Div();
+            layout.add(child);
+            layout.setAlignSelf(alignment, child);
+            layout.setFlexGrow(alignment.ordinal() * 0.5, child);
+        }
+        Div expanded = new Div();
+        layout.add(expanded);
+        layout.expand(expanded);
+
+        assertRoundTrip(layout);
+    }
+
+    @Test
+    public void applyTo_existingLayoutUpdated() {
+        HorizontalLayout source = new HorizontalLayout(new Div(), new Div());
+        source.setMargin(true);
+        source.setAlignItems(Alignment.CENTER);
+        source.expand(source.getComponentAt(1));
+        LayoutState state = LayoutState.capture(source);
+
+        HorizontalLayout target = new HorizontalLayout(new Div(), new Div(),
+                new Div());
+        target.setFlexGrow(2, target.getComponentAt(0));
+        state.applyTo(target);
+
+        Assert.assertTrue(target.isMargin());
+        Assert.assertEquals(Alignment.CENTER, target.getAlignItems());
+        Assert.assertEquals(0, target.getFlexGrow(target.getComponentAt(0)),
+                0);
+        Assert.assertEquals(1, target.getFlexGrow(target.getComponentAt(1)),
+                0);
+        Assert.assertEquals(2, state.getChildCount());
+        Assert.assertEquals(HorizontalLayout.class, state.getLayoutType());
+    }
+
+    @Test
+    public void elementChildren_skipped() throws Exception {
+        VerticalLayout layout = new VerticalLayout();
+        Element text = new Element("span");
+        layout.addElements(text);
+        Div first = new Div();
+        layout.add(first);
+        Element html = layout.addHtml("<b>42</b>");
+        Div second = new Div();
+        layout.add(second);
+        layout.setElementFlexGrow(3, text, html);
+        layout.setFlexGrow(2, second);
+
+        LayoutState state = LayoutState.capture(layout);
+        Assert.assertEquals(2, state.getChildCount());
+
+        FlexComponent<?> restored = state.restore(new Div(), new Div());
+        Assert.assertEquals(0,
+                restored.getFlexGrow(restored.getComponentAt(0)), 0);
+        Assert.assertEquals(2,
+                restored.getFlexGrow(restored.getComponentAt(1)), 0);
+
+        layout.setFlexGrow(0, second);
+        state.applyTo(layout);
+        Assert.assertEquals(2, layout.getFlexGrow(second), 0);
+        Assert.assertEquals(3, layout.getElementFlexGrow(html), 0);
+    }
+
+    @Test
+    public void binaryForm_compact() throws IOException {
+        VerticalLayout layout = new VerticalLayout();
+        for (int i = 0; i < 100; i++) {
+            layout.add(new Div());
+        }
+        // 5 fixed bytes, the default width as 2 + 4 bytes, a 1 byte child
+        // count and 1 byte per child
+        Assert.assertEquals(5 + 6 + 1 + 100,
+                write(LayoutState.capture(layout)).length);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_unsupportedVersion_throws() throws IOException {
+        byte[] bytes = write(LayoutState.capture(new VerticalLayout()));
+        bytes[0] = 42;
+        LayoutState.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_childCountAboveLimit_throws() throws IOException {
+        readWithChildCount(0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_negativeChildCount_throws() throws IOException {
+        readWithChildCount(0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_overlongChildCount_throws() throws IOException {
+        readWithChildCount(0x80, 0x80, 0x80, 0x80, 0x80, 0x00);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capture_unsupportedLayout_throws() {
+        LayoutState.capture(new VerticalLayout() {
+        });
+    }
+
+    private static FlexComponent<?> assertRoundTrip(FlexComponent<?> layout)
+            throws IOException, ClassNotFoundException {
+        LayoutState state = LayoutState.capture(layout);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        LayoutState serialized;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            serialized = (LayoutState) in.readObject();
+        }
+        LayoutState read = LayoutState.readFrom(new DataInputStream(
+                new ByteArrayInputStream(write(state))));
+
+        FlexComponent<?> restored = null;
+        for (LayoutState copy : new LayoutState[] { serialized, read }) {
+            Component[] children = new Component[copy.getChildCount()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = new Div();
+            }
+            restored = copy.restore(children);
+            assertSameState(layout, restored);
+        }
+        return restored;
+    }
+
+    private static void assertSameState(FlexComponent<?> expected,
+            FlexComponent<?> actual) {
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(new HashSet<>(expected.getElement().getThemeList()),
+                new HashSet<>(actual.getElement().getThemeList()));
+        Assert.assertEquals(expected.getAlignItems(), actual.getAlignItems());
+        Assert.assertEquals(expected.getJustifyContentMode(),
+                actual.getJustifyContentMode());
+        Assert.assertEquals(expected.getWidth(), actual.getWidth());
+        Assert.assertEquals(expected.getHeight(), actual.getHeight());
+        if (expected instanceof ThemableLayout) {
+            Assert.assertEquals(((ThemableLayout) expected).getBoxSizing(),
+                    ((ThemableLayout) actual).getBoxSizing());
+        }
+        if (expected instanceof HasContainment) {
+            HasContainment expectedHints = (HasContainment) expected;
+            HasContainment actualHints = (HasContainment) actual;
+            Assert.assertEquals(expectedHints.getContainment(),
+                    actualHints.getContainment());
+            Assert.assertEquals(expectedHints.isContentVisibilityAuto(),
+                    actualHints.isContentVisibilityAuto());
+            Assert.assertEquals(expectedHints.getContainIntrinsicSize(),
+                    actualHints.getContainIntrinsicSize());
+        }
+        if (expected instanceof FlexLayout) {
+            Assert.assertEquals(((FlexLayout) expected).getWrapMode(),
+                    ((FlexLayout) actual).getWrapMode());
+        }
+        Assert.assertEquals(expected.getComponentCount(),
+                actual.getComponentCount());
+        for (int i = 0; i < expected.getComponentCount(); i++) {
+            Component expectedChild = expected.getComponentAt(i);
+            Component actualChild = actual.getComponentAt(i);
+            Assert.assertEquals(expected.getFlexGrow(expectedChild),
+                    actual.getFlexGrow(actualChild), 0);
+            Assert.assertEquals(expected.getAlignSelf(expectedChild),
+                    actual.getAlignSelf(actualChild));
+            Assert.assertEquals(
+                    expectedChild.getElement().getStyle().getNames()
+                            .collect(Collectors.toSet()),
+                    actualChild.getElement().getStyle().getNames()
+                            .collect(Collectors.toSet()));
+        }
+        Assert.assertEquals(
+                expected.getElement().getStyle().getNames()
+                        .collect(Collectors.toSet()),
+                actual.getElement().getStyle().getNames()
+                        .collect(Collectors.toSet()));
+    }
+
+    private static void readWithChildCount(int... count) throws IOException {
+        byte[] valid = write(LayoutState.capture(new VerticalLayout()));
+        // the child count of an empty layout is the last byte
+        byte[] bytes = new byte[valid.length - 1 + count.length];
+        System.arraycopy(valid, 0, bytes, 0, valid.length - 1);
+        for (int i = 0; i < count.length; i++) {
+            bytes[valid.length - 1 + i] = (byte) count[i];
+        }
+        LayoutState.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static byte[] write(LayoutState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        state.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.BoxSizing;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.LayoutState;
+import com.vaadin.flow.component.orderedlayout.LayoutTheme;
+import com.vaadin.flow.component.orderedlayout.LayoutTreeCodec;
+import com.vaadin.flow.component.orderedlayout.NativeHorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.dom.Element;
+
+public class LayoutTreeCodecTest {
+
+    private final LayoutTreeCodec codec = new LayoutTreeCodec(
+            leaf -> leaf.getId().orElse(null), LayoutTreeCodecTest::widget);
+
+    @Test
+    public void dashboard_roundTrip() {
+        Component root = createDashboard();
+
+        Component decoded = codec.decode(codec.encode(root));
+
+        assertSameTree(root, decoded);
+    }
+
+    @Test
+    public void token_urlSafe_roundTrip() {
+        Component root = createDashboard();
+
+        String token = codec.encodeToken(root);
+
+        Assert.assertTrue(token, token.matches("[A-Za-z0-9_-]+"));
+        assertSameTree(root, codec.decodeToken(token));
+    }
+
+    @Test
+    public void repeatedLeafKeys_writtenOnce() {
+        VerticalLayout few = new VerticalLayout(widget("chart"));
+        VerticalLayout many = new VerticalLayout();
+        for (int i = 0; i < 100; i++) {
+            many.add(widget("chart"));
+        }
+        // one byte for the reference kind, one for the index and one for the
+        // flex values of each additional child
+        Assert.assertEquals(codec.encode(few).length + 99 * 3,
+                codec.encode(many).length);
+    }
+
+    @Test
+    public void leafRoot_roundTrip() {
+        Component decoded = codec.decode(codec.encode(widget("clock")));
+        Assert.assertEquals(Optional.of("clock"), decoded.getId());
+    }
+
+    @Test
+    public void elementChildren_skipped() {
+        HorizontalLayout layout = new HorizontalLayout();
+        layout.addElements(Element.createText("Label"));
+        layout.add(widget("chart"));
+        layout.addHtml("<b>static</b>");
+        layout.add(widget("table"));
+        layout.expand(layout.getComponentAt(1));
+
+        HorizontalLayout decoded = (HorizontalLayout) codec
+                .decodeToken(codec.encodeToken(layout));
+
+        Assert.assertEquals(2, decoded.getComponentCount());
+        Assert.assertEquals(Optional.of("chart"),
+                decoded.getComponentAt(0).getId());
+        Assert.assertEquals(0,
+                decoded.getFlexGrow(decoded.getComponentAt(0)), 0);
+        Assert.assertEquals(Optional.of("table"),
+                decoded.getComponentAt(1).getId());
+        Assert.assertEquals(1,
+                decoded.getFlexGrow(decoded.getComponentAt(1)), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void leafWithoutKey_throws() {
+        codec.encode(new VerticalLayout(new Div()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidData_throws() {
+        byte[] data = codec.encode(createDashboard());
+        data[1] = 42;
+        codec.decode(data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedToken_throws() {
+        String token = codec.encodeToken(createDashboard());
+        codec.decodeToken(token.substring(0, token.length() / 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void hugeChildCount_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = writeLayoutStart(bytes);
+        // a child count of Integer.MAX_VALUE
+        out.write(new byte[] { -1, -1, -1, -1, 7 });
+        codec.decode(bytes.toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void childCountAboveDataSize_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = writeLayoutStart(bytes);
+        out.writeByte(100);
+        out.write(new byte[100]);
+        codec.decode(bytes.toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void deepNesting_throws() {
+        VerticalLayout root = new VerticalLayout();
+        VerticalLayout parent = root;
+        for (int i = 0; i < LayoutTreeCodec.MAX_DEPTH; i++) {
+            VerticalLayout child = new VerticalLayout();
+            parent.add(child);
+            parent = child;
+        }
+        codec.decode(codec.encode(root));
+    }
+
+    @Test
+    public void maxDepth_roundTrip() {
+        VerticalLayout root = new VerticalLayout();
+        VerticalLayout parent = root;
+        for (int i = 1; i < LayoutTreeCodec.MAX_DEPTH; i++) {
+            VerticalLayout child = new VerticalLayout();
+            parent.add(child);
+            parent = child;
+        }
+        parent.add(widget("leaf"));
+        assertSameTree(root, codec.decode(codec.encode(root)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLeafReference_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = writeLayoutStart(bytes);
+        out.writeByte(1);
+        // no flex values, then a reference to a key not read yet
+        out.writeByte(0);
+        out.writeByte(2);
+        out.writeByte(0);
+        codec.decode(bytes.toByteArray());
+    }
+
+    @Test
+    public void garbage_throwsIllegalArgumentException() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            byte[] data = new byte[random.nextInt(64)];
+            random.nextBytes(data);
+            if (data.length > 0) {
+                data[0] = 1;
+            }
+            try {
+                codec.decode(data);
+            } catch (IllegalArgumentException e) {
+                // expected for almost any input
+            }
+        }
+    }
+
+    @Test
+    public void signedToken_roundTrip() {
+        LayoutTreeCodec signing = createSigningCodec("secret");
+        Component root = createDashboard();
+
+        assertSameTree(root, signing.decodeToken(signing.encodeToken(root)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void signedToken_modified_throws() {
+        LayoutTreeCodec signing = createSigningCodec("secret");
+        byte[] data = Base64.getUrlDecoder()
+                .decode(signing.encodeToken(createDashboard()));
+        data[2] ^= 1;
+        signing.decodeToken(
+                Base64.getUrlEncoder().withoutPadding().encodeToString(data));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsignedToken_signingCodec_throws() {
+        createSigningCodec("secret")
+                .decodeToken(codec.encodeToken(createDashboard()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherSecret_throws() {
+        createSigningCodec("secret").decodeToken(
+                createSigningCodec("other").encodeToken(createDashboard()));
+    }
+
+    private static LayoutTreeCodec createSigningCodec(String secret) {
+        return new LayoutTreeCodec(leaf -> leaf.getId().orElse(null),
+                LayoutTreeCodecTest::widget,
+                secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the version, the node kind and the header of an empty vertical
+     * layout, leaving out its child count.
+     */
+    private DataOutputStream writeLayoutStart(ByteArrayOutputStream bytes)
+            throws IOException {
+        byte[] empty = codec.encode(new VerticalLayout());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(empty, 0, empty.length - 1);
+        return out;
+    }
+
+    private static Component widget(String key) {
+        Div widget = new Div();
+        widget.setId(key);
+        return widget;
+    }
+
+    private static Component createDashboard() {
+        VerticalLayout root = new VerticalLayout();
+        root.setThemeVariants(
+                EnumSet.of(LayoutTheme.MARGIN, LayoutTheme.SPACING_L));
+        root.setBoxSizing(BoxSizing.BORDER_BOX);
+        root.setHeight("100%");
+
+        HorizontalLayout header = new HorizontalLayout(widget("logo"),
+                widget("search"), widget("user"));
+        header.setJustifyContentMode(JustifyContentMode.BETWEEN);
+        header.setAlignItems(Alignment.BASELINE);
+        header.expand(header.getComponentAt(1));
+
+        FlexLayout tiles = new FlexLayout();
+        tiles.setWrapMode(WrapMode.WRAP);
+        for (int i = 0; i < 20; i++) {
+            tiles.add(widget(i % 2 == 0 ? "chart" : "table"));
+        }
+        tiles.setFlexGrow(2.5, tiles.getComponentAt(3));
+        tiles.setAlignSelf(Alignment.END, tiles.getComponentAt(4));
+
+        NativeHorizontalLayout footer = new NativeHorizontalLayout(
+                widget("copyright"));
+        footer.setPadding(true);
+
+        root.add(header, tiles, footer);
+        root.expand(tiles);
+        return root;
+    }
+
+    private static void assertSameTree(Component expected, Component actual) {
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        if (expected instanceof FlexComponent) {
+            Assert.assertArrayEquals(write((FlexComponent<?>) expected),
+                    write((FlexComponent<?>) actual));
+        } else {
+            Assert.assertEquals(expected.getId(), actual.getId());
+        }
+        Assert.assertEquals(expected.getElement().getChildCount(),
+                actual.getElement().getChildCount());
+        Object[] expectedChildren = expected.getChildren().toArray();
+        Object[] actualChildren = actual.getChildren().toArray();
+        for (int i = 0; i < expectedChildren.length; i++) {
+            assertSameTree((Component) expectedChildren[i],
+                    (Component) actualChildren[i]);
+        }
+    }
+
+    private static byte[] write(FlexComponent<?> layout) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            LayoutState.capture(layout).writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -10,6 +10,14 @@ public class OrderedLayoutSerializableTest extends ClassesSerializableTest {
     protected Stream<String> getExcludedPatterns() {
         return Stream.concat(
                 super.getExcludedPatterns(),
-                Stream.of("com\\.vaadin\\.flow\\.component\\.orderedlayout\\.it\\..*"));
+                Stream.of("com\\.vaadin\\.flow\\.component\\.orderedlayout\\.it\\..*",
+                        // Flight Recorder helpers and events, never stored in the session
+                        "com\\.vaadin\\.flow\\.component\\.orderedlayout\\.Layout(Jfr)?Events(\\$.*)?",
+                        // JVM wide metrics SPI and its JMX implementation, never stored in the session
+                        "com\\.vaadin\\.flow\\.component\\.orderedlayout\\.(Jmx)?LayoutMetrics(MXBean)?",
+                        // holds live element references, kept out of the session
+                        "com\\.vaadin\\.flow\\.component\\.orderedlayout\\.LayoutChangeTracker",
+                        // only static helpers
+                        "com\\.vaadin\\.flow\\.component\\.orderedlayout\\.Layout(Listeners|Writes)"));
     }
 }
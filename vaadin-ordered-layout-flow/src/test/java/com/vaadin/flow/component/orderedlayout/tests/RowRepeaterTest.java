@@ -0,0 +1,194 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals.JavaScriptInvocation;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
+import com.vaadin.flow.component.orderedlayout.RowRepeater;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class RowRepeaterTest {
+
+    private final UI ui = new UI();
+
+    @Before
+    public void setUp() {
+        // JavaScript invocations require a locked session
+        ui.getInternals().setSession(new VaadinSession(null) {
+            @Override
+            public boolean hasLock() {
+                return true;
+            }
+        });
+    }
+
+    private List<JavaScriptInvocation> respond() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        return ui.getInternals().dumpPendingJavaScriptInvocations();
+    }
+
+    @Test
+    public void itemsAndTemplate_renderedOnceWithoutChildComponents() {
+        RowRepeater<String> repeater = new RowRepeater<>();
+        repeater.addColumn(String::length).setWidth("50px");
+        repeater.addColumn(item -> item.isEmpty() ? null : item)
+                .setFlexGrow(1).setAlignSelf(Alignment.END)
+                .setClassName("name");
+        repeater.setRowAlignItems(Alignment.CENTER);
+        repeater.setRowJustifyContentMode(JustifyContentMode.BETWEEN);
+        repeater.setItems("foo", "", "<b>");
+        ui.add(repeater);
+
+        List<JavaScriptInvocation> invocations = respond();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals(0, repeater.getElement().getChildCount());
+
+        List<Object> parameters = invocations.get(0).getParameters();
+        Assert.assertSame(repeater.getElement(), parameters.get(0));
+        JsonObject template = (JsonObject) parameters.get(1);
+        Assert.assertEquals("spacing", template.getString("theme"));
+        Assert.assertEquals("center", template.getString("alignItems"));
+        Assert.assertEquals("space-between",
+                template.getString("justifyContent"));
+        JsonArray cells = template.getArray("cells");
+        Assert.assertEquals("50px", cells.getObject(0).getString("width"));
+        Assert.assertFalse(cells.getObject(0).hasKey("flexGrow"));
+        Assert.assertEquals("1.0", cells.getObject(1).getString("flexGrow"));
+        Assert.assertEquals("flex-end",
+                cells.getObject(1).getString("alignSelf"));
+        Assert.assertEquals("name", cells.getObject(1).getString("className"));
+
+        Assert.assertEquals("[[\"3\",\"foo\"],[\"0\",\"\"],[\"3\",\"<b>\"]]",
+                ((JsonArray) parameters.get(2)).toJson());
+    }
+
+    @Test
+    public void changesBeforeResponse_coalesced() {
+        RowRepeater<Integer> repeater = new RowRepeater<>();
+        ui.add(repeater);
+        respond();
+
+        repeater.addColumn(item -> item * 2);
+        repeater.setItems(Arrays.asList(1, 2));
+        repeater.setRowSpacing(false);
+        repeater.refresh();
+
+        List<JavaScriptInvocation> invocations = respond();
+        Assert.assertEquals(1, invocations.size());
+        JsonObject template = (JsonObject) invocations.get(0).getParameters()
+                .get(1);
+        Assert.assertFalse(template.hasKey("theme"));
+        Assert.assertEquals("[[\"2\"],[\"4\"]]",
+                ((JsonArray) invocations.get(0).getParameters().get(2))
+                        .toJson());
+
+        Assert.assertTrue(respond().isEmpty());
+    }
+
+    @Test
+    public void reattached_renderedAgain() {
+        RowRepeater<String> repeater = new RowRepeater<>();
+        repeater.addColumn(item -> item);
+        repeater.setItems("foo");
+        ui.add(repeater);
+        respond();
+
+        ui.remove(repeater);
+        ui.add(repeater);
+        Assert.assertEquals(1, respond().size());
+    }
+
+    @Test
+    public void refreshItem_onlyChangedRowsSent() {
+        StringBuilder second = new StringBuilder("b");
+        RowRepeater<StringBuilder> repeater = new RowRepeater<>();
+        repeater.addColumn(item -> item);
+        repeater.setItems(new StringBuilder("a"), second,
+                new StringBuilder("c"));
+        ui.add(repeater);
+        respond();
+
+        second.append('!');
+        repeater.refreshItem(second);
+
+        List<JavaScriptInvocation> invocations = respond();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertTrue(invocations.get(0).getExpression()
+                .contains("rowRepeater.update("));
+        List<Object> parameters = invocations.get(0).getParameters();
+        Assert.assertEquals("[1]", ((JsonArray) parameters.get(1)).toJson());
+        Assert.assertEquals("[[\"b!\"]]",
+                ((JsonArray) parameters.get(2)).toJson());
+    }
+
+    @Test
+    public void refreshItem_withPendingRender_renderedOnce() {
+        RowRepeater<String> repeater = new RowRepeater<>();
+        repeater.addColumn(item -> item);
+        ui.add(repeater);
+        respond();
+
+        repeater.setItems("a", "b");
+        repeater.refreshItem("b");
+
+        List<JavaScriptInvocation> invocations = respond();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertTrue(invocations.get(0).getExpression()
+                .contains("rowRepeater.render("));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refreshItem_unknownItem_throws() {
+        RowRepeater<String> repeater = new RowRepeater<>();
+        repeater.setItems("a");
+        repeater.refreshItem("b");
+    }
+
+    @Test
+    public void defaults() {
+        RowRepeater<String> repeater = new RowRepeater<>();
+        Assert.assertTrue(repeater.isSpacing());
+        Assert.assertTrue(repeater.isPadding());
+        Assert.assertTrue(repeater.isRowSpacing());
+        Assert.assertEquals(Alignment.BASELINE, repeater.getRowAlignItems());
+        Assert.assertEquals(JustifyContentMode.START,
+                repeater.getRowJustifyContentMode());
+        Assert.assertTrue(repeater.getItems().isEmpty());
+        Assert.assertTrue(repeater.getColumns().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeFlexGrow_throws() {
+        new RowRepeater<String>().addColumn(item -> item).setFlexGrow(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullItems_throws() {
+        new RowRepeater<String>().setItems((List<String>) null);
+    }
+}
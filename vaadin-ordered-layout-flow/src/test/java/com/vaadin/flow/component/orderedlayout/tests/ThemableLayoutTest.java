@@ -1,16 +1,19 @@
 package com.vaadin.flow.component.orderedlayout.tests;
 
+import java.util.EnumSet;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.vaadin.flow.component.orderedlayout.LayoutTheme;
 import com.vaadin.flow.component.orderedlayout.ThemableLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.ElementFactory;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -50,6 +53,45 @@ public class ThemableLayoutTest {
         checkThemeToggling("spacing", layout::isSpacing, layout::setSpacing);
     }
 
+    @Test
+    public void setThemeVariants_variantsApplied() {
+        layout.setThemeVariants(
+                EnumSet.of(LayoutTheme.MARGIN, LayoutTheme.SPACING_S));
+        assertTrue(layout.isMargin());
+        assertFalse(layout.isPadding());
+        assertFalse(layout.isSpacing());
+        assertTrue(layout.getThemeList().contains("spacing-s"));
+        assertEquals(EnumSet.of(LayoutTheme.MARGIN, LayoutTheme.SPACING_S),
+                layout.getThemeVariants());
+    }
+
+    @Test
+    public void setThemeVariants_previousVariantsReplaced_otherThemesKept() {
+        layout.getThemeList().add("custom");
+        layout.setMargin(true);
+        layout.setSpacing(true);
+
+        layout.setThemeVariants(EnumSet.of(LayoutTheme.PADDING));
+
+        assertEquals(EnumSet.of(LayoutTheme.PADDING),
+                layout.getThemeVariants());
+        assertTrue(layout.getThemeList().contains("custom"));
+    }
+
+    @Test
+    public void setThemeVariants_empty_themeAttributeRemoved() {
+        layout.setPadding(true);
+        layout.setThemeVariants(EnumSet.noneOf(LayoutTheme.class));
+        assertFalse(layout.getElement().hasAttribute("theme"));
+        assertTrue(layout.getThemeVariants().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setThemeVariants_severalSpacings_throws() {
+        layout.setThemeVariants(
+                EnumSet.of(LayoutTheme.SPACING, LayoutTheme.SPACING_XL));
+    }
+
     private void checkThemeToggling(String themeName, Supplier<Boolean> themeGetter, Consumer<Boolean> themeSetter) {
         assertFalse(String.format("Expected no '%s' theme applied initially to layout", themeName), themeGetter.get());
         themeSetter.accept( true);
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2000-2017 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.orderedlayout.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class LayoutFlightRecorderTest {
+
+    private static final String PREFIX = "com.vaadin.flow.component.orderedlayout.";
+
+    @Test
+    public void eventsDisabledByDefault_nothingRecorded() throws IOException {
+        List<RecordedEvent> events = record(false);
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void eventsEnabled_layoutOperationsRecorded() throws IOException {
+        List<RecordedEvent> events = record(true);
+
+        RecordedEvent construction = find(events, "Construction");
+        Assert.assertEquals(VerticalLayout.class.getName(),
+                construction.getString("layoutType"));
+
+        RecordedEvent add = find(events, "Mutation");
+        Assert.assertEquals("add", add.getString("operation"));
+        Assert.assertEquals(2, add.getInt("affectedCount"));
+        Assert.assertEquals(2, add.getInt("childCount"));
+
+        RecordedEvent bulk = find(events, "BulkOperation");
+        Assert.assertEquals("setFlexGrow", bulk.getString("operation"));
+        Assert.assertEquals(2, bulk.getInt("elementCount"));
+
+        RecordedEvent theme = events.stream()
+                .filter(event -> event.getEventType().getName()
+                        .equals(PREFIX + "ThemeChange"))
+                .filter(event -> "setMargin"
+                        .equals(event.getString("operation")))
+                .findFirst().orElseThrow(AssertionError::new);
+        Assert.assertTrue(theme.getString("theme").contains("margin"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events,
+            String name) {
+        return events.stream().filter(
+                event -> event.getEventType().getName().equals(PREFIX + name))
+                .findFirst().orElseThrow(AssertionError::new);
+    }
+
+    private static List<RecordedEvent> record(boolean enable)
+            throws IOException {
+        Path file = Files.createTempFile("layout-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            if (enable) {
+                for (String name : new String[] { "Mutation", "BulkOperation",
+                        "ThemeChange", "Construction" }) {
+                    recording.enable(PREFIX + name);
+                }
+            }
+            recording.start();
+
+            Div first = new Div();
+            Div second = new Div();
+            VerticalLayout layout = new VerticalLayout();
+            layout.add(first, second);
+            layout.setFlexGrow(1, first, second);
+            layout.setMargin(true);
+
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName()
+                            .startsWith(PREFIX))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}